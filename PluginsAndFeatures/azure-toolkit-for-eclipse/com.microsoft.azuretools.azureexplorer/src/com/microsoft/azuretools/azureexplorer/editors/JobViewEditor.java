@@ -37,6 +37,7 @@ import com.microsoft.azuretools.telemetry.AppInsightsClient;
 import com.microsoft.azuretools.core.utils.PluginUtil;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.spark.jobs.JobViewCacheManager;
 import com.microsoft.azure.hdinsight.spark.jobs.JobViewHttpServer;
 
 public class JobViewEditor extends EditorPart {
@@ -94,4 +95,14 @@ public class JobViewEditor extends EditorPart {
     public void setFocus() {
     }
 
+    @Override
+    public void dispose() {
+        if (clusterDetail != null) {
+            JobViewCacheManager.cancelTasksLoading(clusterDetail.getName());
+        }
+        AppInsightsClient.create("HDInsight.Spark.JobViewCacheStats", null,
+                JobViewCacheManager.getCacheStatsProperties());
+        super.dispose();
+    }
+
 }
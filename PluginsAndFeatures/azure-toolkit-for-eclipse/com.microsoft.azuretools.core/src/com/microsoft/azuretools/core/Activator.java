@@ -46,6 +46,7 @@ import com.microsoft.azure.toolkit.eclipse.common.task.EclipseAzureTaskManager;
 import com.microsoft.azure.toolkit.ide.common.store.AzureConfigInitializer;
 import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
 import com.microsoft.azure.toolkit.ide.common.store.DefaultMachineStore;
+import com.microsoft.azure.toolkit.ide.common.store.IMachineStore;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -66,6 +67,7 @@ import com.microsoft.azuretools.core.store.EclipseSecureStore;
 import com.microsoft.azuretools.core.store.EclipseStore;
 import com.microsoft.azuretools.core.ui.views.Messages;
 import com.microsoft.azuretools.core.utils.PluginUtil;
+import com.microsoft.azuretools.telemetry.AppInsightsClient;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.microsoft.tooling.msservices.components.PluginComponent;
 import com.microsoft.tooling.msservices.components.PluginSettings;
@@ -242,6 +244,11 @@ public class Activator extends AbstractUIPlugin implements PluginComponent {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        final IMachineStore machineStore = AzureStoreManager.getInstance().getMachineStore();
+        if (machineStore != null) {
+            machineStore.flush();
+        }
+        AppInsightsClient.flush();
         plugin = null;
         super.stop(context);
     }
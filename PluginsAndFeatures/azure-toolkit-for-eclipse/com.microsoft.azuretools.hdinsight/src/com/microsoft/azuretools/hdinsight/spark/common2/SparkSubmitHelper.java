@@ -44,6 +44,9 @@ import com.microsoft.azure.hdinsight.spark.common.SparkBatchSubmission;
 import com.microsoft.azure.hdinsight.spark.common.SparkJobLog;
 import com.microsoft.azure.hdinsight.spark.common.SparkSubmitResponse;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsMonitor;
+import com.microsoft.azure.hdinsight.spark.run.SparkBatchJobMetricsEvent;
+import com.microsoft.azure.hdinsight.spark.run.SparkBatchJobRemoteProcess;
 import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.StringHelper;
@@ -56,6 +59,7 @@ import com.microsoft.azuretools.core.utils.PluginUtil;
 import com.microsoft.azuretools.hdinsight.Activator;
 import com.microsoft.azuretools.hdinsight.common2.HDInsightUtil;
 import com.microsoft.azuretools.core.utils.Messages;
+import rx.Subscription;
 
 public class SparkSubmitHelper {
     private static SparkSubmitHelper ourInstance = new SparkSubmitHelper();
@@ -121,6 +125,7 @@ public class SparkSubmitHelper {
 
     public void printRunningLogStreamingly(/* Project project, */ int id, IClusterDetail clusterDetail,
             Map<String, String> postEventProperty) throws IOException {
+        Subscription metricsSubscription = null;
         try {
             boolean isFailedJob = false;
             boolean isKilledJob = false;
@@ -138,6 +143,11 @@ public class SparkSubmitHelper {
                 }
 
                 from_index = printoutJobLog(/* project, */id, from_index, clusterDetail);
+                if (metricsSubscription == null
+                        && HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().isApplicationGenerated()) {
+                    metricsSubscription = printMetricsStreamingly(clusterDetail,
+                            HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().getApplicationId());
+                }
                 HttpResponse statusHttpResponse = SparkBatchSubmission.getInstance()
                         .getBatchSparkJobStatus(clusterDetail.getConnectionUrl() + "/livy/batches", id);
 
@@ -211,9 +221,23 @@ public class SparkSubmitHelper {
             AppInsightsClient.create(Messages.SparkSubmissionButtonClickEvent,
                     Activator.getDefault().getBundle().getVersion().toString(), postEventProperty);
             EventUtil.logEvent(EventType.info, HDINSIGHT, Messages.SparkSubmissionButtonClickEvent, null);
+        } finally {
+            if (metricsSubscription != null) {
+                metricsSubscription.unsubscribe();
+            }
         }
     }
 
+    // Print the changed metrics of the running application until unsubscribed, as the IntelliJ job console does
+    private Subscription printMetricsStreamingly(IClusterDetail clusterDetail, String applicationId) {
+        return new SparkMetricsMonitor(clusterDetail, applicationId)
+                .observe(SparkBatchJobRemoteProcess.DEFAULT_METRICS_SAMPLE_INTERVAL_MILLIS)
+                .map(SparkBatchJobMetricsEvent::new)
+                .subscribe(event -> HDInsightUtil.getSparkSubmissionToolWindowView()
+                                .setInfo("Spark metrics : " + event.getSample(), true),
+                        err -> Activator.getDefault().log("Failed to get metrics of Spark application " + applicationId, err));
+    }
+
     public String uploadFileToADL(/* Project project, */ String localFile,
                                   IHDIStorageAccount storageAccount,
             String defaultContainerName, String uploadFolderPath) throws Exception {
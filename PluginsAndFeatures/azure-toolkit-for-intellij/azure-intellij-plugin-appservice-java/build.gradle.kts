@@ -29,6 +29,7 @@ dependencies {
     implementation("org.codehaus.plexus:plexus-archiver:4.2.7")
     implementation("org.codehaus.plexus:plexus-container-default:2.1.1")
     implementation("com.neovisionaries:nv-websocket-client:2.14")
+    testImplementation("junit:junit:4.13.2")
 
     intellijPlatform {
         // Plugin Dependencies. Uses `platformBundledPlugins` property from the gradle.properties file for bundled IntelliJ Platform plugins.
@@ -14,7 +14,7 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiIdentifier;
 import com.intellij.psi.PsiMethod;
 import com.intellij.util.containers.ContainerUtil;
-import com.microsoft.azure.toolkit.intellij.legacy.function.runner.core.FunctionUtils;
+import com.microsoft.azure.toolkit.intellij.legacy.function.runner.core.FunctionMethodIndex;
 import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import org.jetbrains.annotations.NotNull;
@@ -26,7 +26,7 @@ public class FunctionRunLineMarkerProvider extends RunLineMarkerContributor {
     public Info getInfo(@NotNull PsiElement e) {
         if (isIdentifier(e)) {
             final PsiElement parentElement = e.getParent();
-            if (parentElement instanceof PsiMethod && FunctionUtils.isFunctionClassAnnotated((PsiMethod) parentElement)) {
+            if (parentElement instanceof PsiMethod && FunctionMethodIndex.isFunctionMethod((PsiMethod) parentElement)) {
                 final AnAction[] actions = ExecutorAction.getActions(1);
                 return new Info(AllIcons.RunConfigurations.TestState.Run, actions,
                     element -> StringUtil.join(ContainerUtil.mapNotNull(actions, action -> getText(action, element)), "\n"));
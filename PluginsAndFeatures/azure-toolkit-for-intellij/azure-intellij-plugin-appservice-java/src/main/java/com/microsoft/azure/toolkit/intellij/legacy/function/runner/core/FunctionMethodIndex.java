@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.function.runner.core;
+
+import com.intellij.codeInsight.AnnotationUtil;
+import com.intellij.codeInsight.MetaAnnotationUtil;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifierListOwner;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.legacy.function.configurations.FunctionConfiguration;
+import org.jetbrains.concurrency.CancellablePromise;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * index of the function methods of modules and their configurations, shared by the line markers, local run and deployment.
+ * <ul>
+ *     <li>the function methods of a module, including the ones meta-annotated by {@code @FunctionName}, are searched with the
+ *     annotation indexes once and cached in the module until the PSI or the project roots change.</li>
+ *     <li>the configuration of a function method is generated once until the file of the method, or the files referenced
+ *     by its annotations (e.g. custom binding annotations and constants) change, so that the configurations of the untouched
+ *     functions are reused. the callers get copies of the cached configurations.</li>
+ * </ul>
+ */
+public class FunctionMethodIndex {
+    private static final int MIN_METHODS_PER_TASK = 16;
+
+    /**
+     * should be called in read action.
+     */
+    @Nonnull
+    public static PsiMethod[] getFunctionMethods(@Nonnull final Module module) {
+        return getFunctionMethodSet(module).toArray(PsiMethod.EMPTY_ARRAY);
+    }
+
+    /**
+     * whether the {@code method} is a function method of its module, should be called in read action.
+     */
+    public static boolean isFunctionMethod(@Nonnull final PsiMethod method) {
+        final Module module = ModuleUtilCore.findModuleForPsiElement(method);
+        return Objects.nonNull(module) && getFunctionMethodSet(module).contains(method);
+    }
+
+    /**
+     * get the configurations of all functions of the {@code module}, keyed by function names. the configurations of the
+     * changed functions are generated in parallel non-blocking read actions, should not be called in read action.
+     */
+    @Nonnull
+    public static Map<String, FunctionConfiguration> getConfigurations(@Nonnull final Module module) throws AzureExecutionException {
+        final Project project = module.getProject();
+        final List<SmartPsiElementPointer<PsiMethod>> methods = ReadAction.nonBlocking(() -> getFunctionMethodSet(module).stream()
+                .map(m -> SmartPointerManager.getInstance(project).createSmartPsiElementPointer(m))
+                .collect(Collectors.toList()))
+            .inSmartMode(project).executeSynchronously();
+        final int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), methods.size() / MIN_METHODS_PER_TASK));
+        final int batchSize = (methods.size() + parallelism - 1) / parallelism;
+        final List<CancellablePromise<List<ConfigurationEntry>>> tasks = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i += batchSize) {
+            final List<SmartPsiElementPointer<PsiMethod>> batch = methods.subList(i, Math.min(i + batchSize, methods.size()));
+            tasks.add(ReadAction.nonBlocking(() -> batch.stream().map(SmartPsiElementPointer::getElement)
+                    .filter(Objects::nonNull).map(FunctionMethodIndex::getConfiguration).collect(Collectors.toList()))
+                .inSmartMode(project).submit(AppExecutorUtil.getAppExecutorService()));
+        }
+        final Map<String, FunctionConfiguration> result = new HashMap<>();
+        try {
+            for (final CancellablePromise<List<ConfigurationEntry>> task : tasks) {
+                for (final ConfigurationEntry entry : task.get()) {
+                    if (Objects.nonNull(entry.error)) {
+                        throw entry.error;
+                    }
+                    if (Objects.nonNull(entry.configuration)) {
+                        result.put(entry.name, copy(entry.configuration));
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            tasks.forEach(t -> t.cancel());
+            Thread.currentThread().interrupt();
+            throw new AzureToolkitRuntimeException("interrupted when generating function configurations.", e);
+        } catch (final ExecutionException e) {
+            tasks.forEach(t -> t.cancel());
+            throw new AzureToolkitRuntimeException("failed to generate function configurations.", e.getCause());
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static Set<PsiMethod> getFunctionMethodSet(@Nonnull final Module module) {
+        final Project project = module.getProject();
+        return CachedValuesManager.getManager(project).getCachedValue(module, () -> CachedValueProvider.Result.create(
+            searchFunctionMethods(module), PsiModificationTracker.getInstance(project), ProjectRootModificationTracker.getInstance(project)));
+    }
+
+    @Nonnull
+    private static Set<PsiMethod> searchFunctionMethods(@Nonnull final Module module) {
+        final Project project = module.getProject();
+        final PsiClass functionName = JavaPsiFacade.getInstance(project)
+            .findClass(FunctionUtils.AZURE_FUNCTION_ANNOTATION_CLASS, GlobalSearchScope.moduleWithLibrariesScope(module));
+        if (Objects.isNull(functionName)) {
+            return Collections.emptySet();
+        }
+        // the annotations meta-annotated by @FunctionName are also accepted by line markers.
+        final Set<PsiClass> annotations = new LinkedHashSet<>();
+        annotations.add(functionName);
+        annotations.addAll(MetaAnnotationUtil.getAnnotationTypesWithChildren(module, FunctionUtils.AZURE_FUNCTION_ANNOTATION_CLASS, false));
+        final Set<PsiMethod> methods = new LinkedHashSet<>();
+        final GlobalSearchScope scope = GlobalSearchScope.moduleScope(module);
+        annotations.forEach(a -> methods.addAll(AnnotatedElementsSearch.searchPsiMethods(a, scope).findAll()));
+        return Collections.unmodifiableSet(methods);
+    }
+
+    /**
+     * the cached configurations are shared, copy them before they are modified, e.g. the script file is set.
+     */
+    @Nonnull
+    private static FunctionConfiguration copy(@Nonnull final FunctionConfiguration configuration) {
+        final FunctionConfiguration result = new FunctionConfiguration();
+        result.setScriptFile(configuration.getScriptFile());
+        result.setEntryPoint(configuration.getEntryPoint());
+        result.setBindings(Objects.isNull(configuration.getBindings()) ? null : new ArrayList<>(configuration.getBindings()));
+        return result;
+    }
+
+    @Nonnull
+    private static ConfigurationEntry getConfiguration(@Nonnull final PsiMethod method) {
+        return CachedValuesManager.getCachedValue(method, () -> {
+            final ConfigurationEntry entry = generateConfiguration(method);
+            final Set<Object> dependencies = new LinkedHashSet<>();
+            dependencies.add(method.getContainingFile());
+            dependencies.add(ProjectRootModificationTracker.getInstance(method.getProject()));
+            dependencies.addAll(getReferencedFiles(method));
+            return CachedValueProvider.Result.create(entry, dependencies.toArray());
+        });
+    }
+
+    @Nonnull
+    private static ConfigurationEntry generateConfiguration(@Nonnull final PsiMethod method) {
+        final PsiAnnotation annotation = AnnotationUtil.findAnnotation(method, FunctionUtils.AZURE_FUNCTION_ANNOTATION_CLASS);
+        if (Objects.isNull(annotation)) { // only meta-annotated, not a function to run or deploy
+            return new ConfigurationEntry(null, null, null);
+        }
+        final String name = AnnotationUtil.getDeclaredStringAttributeValue(annotation, "value");
+        try {
+            return new ConfigurationEntry(name, FunctionUtils.generateConfiguration(method), null);
+        } catch (final AzureExecutionException e) {
+            return new ConfigurationEntry(name, null, e);
+        }
+    }
+
+    /**
+     * the files of the annotation classes and the elements (e.g. constants) referenced by the annotations of the method
+     * and its parameters, which the generated configuration depends on.
+     */
+    @Nonnull
+    private static Set<PsiFile> getReferencedFiles(@Nonnull final PsiMethod method) {
+        final List<PsiModifierListOwner> owners = new ArrayList<>();
+        owners.add(method);
+        Collections.addAll(owners, method.getParameterList().getParameters());
+        final Set<PsiFile> files = new LinkedHashSet<>();
+        for (final PsiModifierListOwner owner : owners) {
+            for (final PsiAnnotation annotation : owner.getAnnotations()) {
+                // including the name reference of the annotation itself
+                PsiTreeUtil.findChildrenOfType(annotation, PsiJavaCodeReferenceElement.class).stream()
+                    .map(PsiJavaCodeReferenceElement::resolve)
+                    .filter(Objects::nonNull)
+                    .map(PsiElement::getContainingFile)
+                    .filter(Objects::nonNull)
+                    .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    private static class ConfigurationEntry {
+        @Nullable
+        private final String name;
+        @Nullable
+        private final FunctionConfiguration configuration;
+        @Nullable
+        private final AzureExecutionException error;
+
+        private ConfigurationEntry(@Nullable String name, @Nullable FunctionConfiguration configuration, @Nullable AzureExecutionException error) {
+            this.name = name;
+            this.configuration = configuration;
+            this.error = error;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.intellij.codeInsight.AnnotationUtil;
 import com.intellij.codeInsight.MetaAnnotationUtil;
 import com.intellij.lang.jvm.JvmAnnotation;
 import com.intellij.lang.jvm.JvmParameter;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
@@ -21,6 +22,7 @@ import com.intellij.openapi.roots.OrderEnumerator;
 import com.intellij.openapi.roots.OrderRootType;
 import com.intellij.openapi.roots.libraries.Library;
 import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
@@ -30,7 +32,6 @@ import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifierListOwner;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.searches.AnnotatedElementsSearch;
 import com.intellij.util.containers.ContainerUtil;
 import com.microsoft.azure.toolkit.intellij.common.AzureArtifact;
 import com.microsoft.azure.toolkit.intellij.common.AzureArtifactManager;
@@ -66,6 +67,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -78,7 +80,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -90,9 +94,11 @@ import static com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunc
 public class FunctionUtils {
     private static final int MAX_PORT = 65535;
 
-    private static final String AZURE_FUNCTION_ANNOTATION_CLASS =
+    static final String AZURE_FUNCTION_ANNOTATION_CLASS =
             "com.microsoft.azure.functions.annotation.FunctionName";
     private static final String FUNCTION_JSON = "function.json";
+    private static final String HOST_JSON = "host.json";
+    private static final String LOCAL_SETTINGS_JSON = "local.settings.json";
     private static final String HTTP_OUTPUT_DEFAULT_NAME = "$return";
     private static final String DEFAULT_HOST_JSON = "{\"version\":\"2.0\",\"extensionBundle\":" +
             "{\"id\":\"Microsoft.Azure.Functions.ExtensionBundle\",\"version\":\"[4.*, 5.0.0)\"}}\n";
@@ -107,6 +113,7 @@ public class FunctionUtils {
     private static final String AZURE_FUNCTIONS_JAVA_LIBRARY = "azure-functions-java-library";
     private static final String AZURE_FUNCTIONS_JAVA_CORE_LIBRARY = "azure-functions-java-core-library";
     private static final Pattern ARTIFACT_NAME_PATTERN = Pattern.compile("(.*)-(\\d+\\.)?(\\d+\\.)?(\\*|\\d+).*");
+    private static final Set<File> STAGING_FOLDERS_IN_USE = ConcurrentHashMap.newKeySet();
 
     static {
         //initialize required attributes, which will be saved to function.json even if it equals to its default value
@@ -143,17 +150,52 @@ public class FunctionUtils {
         }
     }
 
+    /**
+     * get the staging folder of the {@code module} which is kept across runs, so that it can be staged incrementally.
+     * a temp staging folder is returned if the kept one is being used by another run of the module.
+     *
+     * @param usage to separate the staging folders of different usages, e.g. local run and deployment
+     */
+    public static File getStagingFolder(@Nonnull final Module module, @Nonnull final String usage) {
+        final File folder = getStagingRoot().resolve(module.getProject().getLocationHash())
+                .resolve(FileUtil.sanitizeFileName(module.getName()) + "-" + usage).toFile();
+        if (!STAGING_FOLDERS_IN_USE.add(folder)) {
+            return getTempStagingFolder();
+        }
+        try {
+            Files.createDirectories(folder.toPath());
+            return folder;
+        } catch (final IOException e) {
+            STAGING_FOLDERS_IN_USE.remove(folder);
+            log.warn("failed to create staging folder {}, use temp staging folder instead.", folder, e);
+            return getTempStagingFolder();
+        }
+    }
+
     @AzureOperation(name = "boundary/function.clean_staging_folder.folder", params = {"stagingFolder.getName()"})
     public static void cleanUpStagingFolder(File stagingFolder) {
+        if (stagingFolder == null) {
+            return;
+        }
+        if (stagingFolder.toPath().startsWith(getStagingRoot())) {
+            // keep the staging folder for the next run, but the local settings, which may contain secrets.
+            FileUtils.deleteQuietly(new File(stagingFolder, LOCAL_SETTINGS_JSON));
+            STAGING_FOLDERS_IN_USE.remove(stagingFolder);
+            return;
+        }
         try {
-            if (stagingFolder != null) {
-                FileUtils.deleteDirectory(stagingFolder);
-            }
+            FileUtils.deleteDirectory(stagingFolder);
+            FileUtils.deleteQuietly(StagingFolderSynchronizer.getManifestFile(stagingFolder.toPath()).toFile());
         } catch (final IOException e) {
             // swallow exceptions while clean up
         }
     }
 
+    @Nonnull
+    private static Path getStagingRoot() {
+        return Paths.get(PathManager.getSystemPath(), AZURE_FUNCTIONS);
+    }
+
     @AzureOperation(name = "boundary/function.list_function_modules.project", params = {"project.getName()"})
     public static Module[] listFunctionModules(Project project) {
         final Module[] modules = ModuleManager.getInstance(project).getModules();
@@ -194,21 +236,6 @@ public class FunctionUtils {
         }
     }
 
-    @AzureOperation(name = "boundary/function.list_function_methods.module", params = {"module.getName()"})
-    public static PsiMethod[] findFunctionsByAnnotation(Module module) {
-        if (module == null) {
-            return new PsiMethod[0];
-        }
-        final PsiClass functionNameClass = JavaPsiFacade.getInstance(module.getProject())
-                                                        .findClass(AZURE_FUNCTION_ANNOTATION_CLASS,
-                                                                   GlobalSearchScope.moduleWithLibrariesScope(module));
-        final List<PsiMethod> methods = new ArrayList<>(AnnotatedElementsSearch
-                                                                .searchPsiMethods(functionNameClass,
-                                                                                  GlobalSearchScope.moduleScope(module))
-                                                                .findAll());
-        return methods.toArray(new PsiMethod[0]);
-    }
-
     public static boolean isFunctionClassAnnotated(final PsiMethod method) {
         try {
             return MetaAnnotationUtil.isMetaAnnotated(method,
@@ -232,7 +259,7 @@ public class FunctionUtils {
     public static void copyLocalSettingsToStagingFolder(@Nonnull final Path stagingFolder,
                                                         @Nullable final Path localSettingJson,
                                                         @Nullable Map<String, String> appSettings, boolean useLocalSettings) throws IOException {
-        final File localSettingsFile = new File(stagingFolder.toFile(), "local.settings.json");
+        final File localSettingsFile = new File(stagingFolder.toFile(), LOCAL_SETTINGS_JSON);
         copyFilesWithDefaultContent(localSettingJson, localSettingsFile, DEFAULT_LOCAL_SETTINGS_JSON);
         if (MapUtils.isNotEmpty(appSettings)) {
             updateLocalSettingValues(localSettingsFile, appSettings, useLocalSettings);
@@ -242,12 +269,10 @@ public class FunctionUtils {
     @Nonnull
     @AzureOperation(name = "boundary/function.prepare_staging_folder")
     public static Map<String, FunctionConfiguration> prepareStagingFolder(@Nonnull final Path stagingFolder, @Nullable final Path hostJson,
-                                                                          @Nonnull final Project project, @Nonnull final Module module, PsiMethod[] methods)
+                                                                          @Nonnull final Project project, @Nonnull final Module module)
             throws AzureExecutionException, IOException {
-        final Map<String, FunctionConfiguration> configMap = ReadAction.compute(() -> generateConfigurations(methods));
-        if (stagingFolder.toFile().isDirectory()) {
-            FileUtils.cleanDirectory(stagingFolder.toFile());
-        }
+        final Map<String, FunctionConfiguration> configMap = FunctionMethodIndex.getConfigurations(module);
+        final StagingFolderSynchronizer synchronizer = new StagingFolderSynchronizer(stagingFolder);
 
         final Path jarFile;
         // test if it is gradle project
@@ -259,23 +284,26 @@ public class FunctionUtils {
                 final String error = String.format("Failed generate jar file for project(%s)", gradleProject.getName());
                 throw new AzureToolkitRuntimeException(error);
             }
-            FileUtils.copyFileToDirectory(gradleProject.getArtifactFile(), stagingFolder.toFile());
+            synchronizer.syncFile(gradleProject.getArtifactFile(), jarFile.getFileName().toString(), false);
         } else {
             jarFile = JarUtils.buildJarFileToStagingPath(stagingFolder.toString(), module);
+            synchronizer.keepFile(jarFile.getFileName().toString());
         }
 
         final String scriptFilePath = "../" + jarFile.getFileName().toString();
         configMap.values().forEach(config -> config.setScriptFile(scriptFilePath));
         for (final Map.Entry<String, FunctionConfiguration> config : configMap.entrySet()) {
             if (StringUtils.isNotBlank(config.getKey())) {
-                final File functionJsonFile = Paths.get(stagingFolder.toString(), config.getKey(), FUNCTION_JSON)
-                                                   .toFile();
-                writeFunctionJsonFile(functionJsonFile, config.getValue());
+                synchronizer.writeFile(config.getKey() + "/" + FUNCTION_JSON, getFunctionJson(config.getValue()));
             }
         }
 
-        final File hostJsonFile = new File(stagingFolder.toFile(), "host.json");
-        copyFilesWithDefaultContent(hostJson, hostJsonFile, DEFAULT_HOST_JSON);
+        final File hostJsonFile = Optional.ofNullable(hostJson).map(Path::toFile).filter(File::exists).orElse(null);
+        if (hostJsonFile != null) {
+            synchronizer.syncFile(hostJsonFile, HOST_JSON, false);
+        } else {
+            synchronizer.writeFile(HOST_JSON, DEFAULT_HOST_JSON.getBytes(Charset.defaultCharset()));
+        }
 
         final List<File> dependencies = new ArrayList<>();
         if (gradleProject.isValid()) {
@@ -297,15 +325,18 @@ public class FunctionUtils {
                 .filter(name -> StringUtils.equalsAnyIgnoreCase(name, AZURE_FUNCTIONS_JAVA_CORE_LIBRARY))
                 .findFirst().orElse(AZURE_FUNCTIONS_JAVA_LIBRARY);
 
-        final File libFolder = new File(stagingFolder.toFile(), "lib");
+        final Path projectPath = Optional.ofNullable(project.getBasePath()).map(Paths::get).orElse(null);
         for (final File file : dependencies) {
             if (!StringUtils.equalsIgnoreCase(getArtifactIdFromFile(file), libraryToExclude)) {
                 if (!file.exists()) {
                     throw new AzureToolkitRuntimeException(String.format("Dependency artifact (%s) not found, please correct the dependency and try again", file.getAbsolutePath()));
                 }
-                FileUtils.copyFileToDirectory(file, libFolder);
+                // project artifacts may be rebuilt in place, so only link the libraries outside the project
+                final boolean link = projectPath == null || !file.toPath().startsWith(projectPath);
+                synchronizer.syncFile(file, "lib/" + file.getName(), link);
             }
         }
+        synchronizer.commit();
         return configMap;
     }
 
@@ -380,7 +411,7 @@ public class FunctionUtils {
                         .collect(Collectors.toList());
     }
 
-    private static void writeFunctionJsonFile(File file, FunctionConfiguration config) throws IOException {
+    private static byte[] getFunctionJson(FunctionConfiguration config) {
         final Map<String, Object> json = new LinkedHashMap<>();
         json.put("scriptFile", config.getScriptFile());
         json.put("entryPoint", config.getEntryPoint());
@@ -403,8 +434,7 @@ public class FunctionUtils {
             }
             json.put("bindings", lists.toArray());
         }
-        file.getParentFile().mkdirs();
-        JsonUtils.writeToJsonFile(file, json);
+        return JsonUtils.toJson(json).getBytes(StandardCharsets.UTF_8);
     }
 
     private static String stripExtraCharacters(String fileName) {
@@ -413,19 +443,7 @@ public class FunctionUtils {
                fileName.substring(0, fileName.length() - 2) : fileName;
     }
 
-    private static Map<String, FunctionConfiguration> generateConfigurations(final PsiMethod[] methods)
-            throws AzureExecutionException {
-        final Map<String, FunctionConfiguration> configMap = new HashMap<>();
-        for (final PsiMethod method : methods) {
-            final PsiAnnotation annotation = AnnotationUtil.findAnnotation(method,
-                                                                           FunctionUtils.AZURE_FUNCTION_ANNOTATION_CLASS);
-            final String functionName = AnnotationUtil.getDeclaredStringAttributeValue(annotation, "value");
-            configMap.put(functionName, generateConfiguration(method));
-        }
-        return configMap;
-    }
-
-    private static FunctionConfiguration generateConfiguration(PsiMethod method) throws AzureExecutionException {
+    static FunctionConfiguration generateConfiguration(PsiMethod method) throws AzureExecutionException {
         final FunctionConfiguration config = new FunctionConfiguration();
         final List<Binding> bindings = new ArrayList<>();
         processParameterAnnotations(method, bindings);
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.function.runner.core;
+
+import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * stages files into a function staging folder incrementally instead of cleaning the folder and copying everything again.
+ * the source, size and last modified time of the synced files (and the hash of the generated contents) are kept in a
+ * manifest next to the staging folder, so that unchanged files are kept as they are, and the files which are not staged
+ * again are removed by {@link #commit()}.
+ */
+@Slf4j
+public class StagingFolderSynchronizer {
+    private static final String MANIFEST_SUFFIX = ".manifest.json";
+
+    private final Path stagingFolder;
+    private final Path manifestFile;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new HashMap<>();
+    private final long start = System.nanoTime();
+    private boolean linkSupported = true;
+    private int added;
+    private int replaced;
+    private int unchanged;
+    private int removed;
+
+    public StagingFolderSynchronizer(@Nonnull final Path stagingFolder) throws IOException {
+        this.stagingFolder = stagingFolder;
+        this.manifestFile = getManifestFile(stagingFolder);
+        this.previous = loadManifest(this.manifestFile);
+        Files.createDirectories(stagingFolder);
+    }
+
+    /**
+     * the manifest is kept out of the staging folder, which is packaged as is when deploying.
+     */
+    @Nonnull
+    public static Path getManifestFile(@Nonnull final Path stagingFolder) {
+        return stagingFolder.resolveSibling(stagingFolder.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * stage the {@code source} file at {@code relativePath}, skipped if the source is not changed since last staged.
+     *
+     * @param link whether the staged file can be a hard link of the source, which should be true only for the files
+     *             that are not rebuilt in place, e.g. jars in the maven/gradle caches.
+     */
+    public void syncFile(@Nonnull final File source, @Nonnull final String relativePath, boolean link) throws IOException {
+        final Path target = this.stagingFolder.resolve(relativePath);
+        final BasicFileAttributes attributes = Files.readAttributes(source.toPath(), BasicFileAttributes.class);
+        final Entry entry = new Entry(source.getAbsolutePath(), attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+        if (this.isUnchanged(relativePath, entry, target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        if (!link || !this.createLink(target, source.toPath())) {
+            Files.copy(source.toPath(), target, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    /**
+     * write the generated {@code content} at {@code relativePath}, skipped if the content is the same as last written.
+     */
+    public void writeFile(@Nonnull final String relativePath, @Nonnull final byte[] content) throws IOException {
+        final Path target = this.stagingFolder.resolve(relativePath);
+        final Entry entry = new Entry(null, content.length, 0, hash(content));
+        if (this.isUnchanged(relativePath, entry, target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.write(target, content);
+    }
+
+    /**
+     * keep the file which is written into the staging folder by others, e.g. the jar built into it.
+     */
+    public void keepFile(@Nonnull final String relativePath) throws IOException {
+        final Path target = this.stagingFolder.resolve(relativePath);
+        final BasicFileAttributes attributes = Files.readAttributes(target, BasicFileAttributes.class);
+        final Entry entry = new Entry(null, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+        this.isUnchanged(relativePath, entry, target);
+    }
+
+    /**
+     * remove the files which were staged last time but not in this round and save the manifest. the other files in the
+     * staging folder, e.g. the extensions installed into it, are left as they are.
+     */
+    public void commit() throws IOException {
+        for (final String relativePath : this.previous.keySet()) {
+            final Path file = this.stagingFolder.resolve(relativePath).normalize();
+            if (!this.current.containsKey(relativePath) && file.startsWith(this.stagingFolder) && Files.deleteIfExists(file)) {
+                this.removed++;
+                this.deleteEmptyParents(file);
+            }
+        }
+        this.saveManifest();
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start);
+        log.info("staged {} in {} ms: {} added, {} replaced, {} removed, {} unchanged.",
+            this.stagingFolder, elapsed, this.added, this.replaced, this.removed, this.unchanged);
+        final OperationContext context = OperationContext.action();
+        context.setTelemetryProperty("stagingTime", String.valueOf(elapsed));
+        context.setTelemetryProperty("stagingWarm", String.valueOf(!this.previous.isEmpty()));
+        context.setTelemetryProperty("stagingUnchangedFiles", String.valueOf(this.unchanged));
+        context.setTelemetryProperty("stagingChangedFiles", String.valueOf(this.added + this.replaced + this.removed));
+    }
+
+    private boolean isUnchanged(@Nonnull final String relativePath, @Nonnull final Entry entry, @Nonnull final Path target) {
+        final Entry old = this.previous.get(relativePath);
+        final boolean staged = Files.isRegularFile(target);
+        final boolean unchanged = Objects.equals(old, entry) && staged && getSize(target) == entry.getSize();
+        if (unchanged) {
+            this.unchanged++;
+        } else if (staged) {
+            this.replaced++;
+        } else {
+            this.added++;
+        }
+        this.current.put(relativePath, entry);
+        return unchanged;
+    }
+
+    private boolean createLink(@Nonnull final Path link, @Nonnull final Path existing) {
+        if (!this.linkSupported) {
+            return false;
+        }
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            // e.g. different volumes or file systems without hard links, copy the rest of files.
+            log.debug("failed to create hard link {}, fall back to copy.", link, e);
+            this.linkSupported = false;
+            return false;
+        } catch (final IOException e) {
+            log.debug("failed to create hard link {}, fall back to copy.", link, e);
+            return false;
+        }
+    }
+
+    private void deleteEmptyParents(@Nonnull final Path file) throws IOException {
+        Path dir = file.getParent();
+        while (dir != null && dir.startsWith(this.stagingFolder) && !dir.equals(this.stagingFolder)) {
+            try (final var children = Files.list(dir)) {
+                if (children.findAny().isPresent()) {
+                    return;
+                }
+            }
+            Files.delete(dir);
+            dir = dir.getParent();
+        }
+    }
+
+    private void saveManifest() throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.setFiles(this.current);
+        final Path temp = this.manifestFile.resolveSibling(this.manifestFile.getFileName() + ".tmp");
+        Files.writeString(temp, JsonUtils.toJson(manifest), StandardCharsets.UTF_8);
+        Files.move(temp, this.manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Nonnull
+    private static Map<String, Entry> loadManifest(@Nonnull final Path manifestFile) {
+        if (!Files.isRegularFile(manifestFile)) {
+            return new HashMap<>();
+        }
+        try {
+            return Optional.ofNullable(JsonUtils.readFromJsonFile(manifestFile.toFile(), Manifest.class))
+                .map(Manifest::getFiles).orElseGet(HashMap::new);
+        } catch (final RuntimeException e) {
+            log.warn("failed to load staging manifest {}, stage all files again.", manifestFile, e);
+            return new HashMap<>();
+        }
+    }
+
+    private static long getSize(@Nonnull final Path file) {
+        try {
+            return Files.size(file);
+        } catch (final IOException e) {
+            return -1;
+        }
+    }
+
+    @Nonnull
+    private static String hash(@Nonnull final byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class Manifest {
+        private Map<String, Entry> files;
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class Entry {
+        @Nullable
+        private String source;
+        private long size;
+        private long lastModified;
+        @Nullable
+        private String hash;
+
+        Entry(@Nullable String source, long size, long lastModified, @Nullable String hash) {
+            this.source = source;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
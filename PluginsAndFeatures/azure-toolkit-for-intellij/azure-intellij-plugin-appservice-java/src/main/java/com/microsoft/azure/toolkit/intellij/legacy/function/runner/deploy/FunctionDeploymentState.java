@@ -5,10 +5,8 @@
 
 package com.microsoft.azure.toolkit.intellij.legacy.function.runner.deploy;
 
-import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
-import com.intellij.psi.PsiMethod;
 import com.microsoft.azure.toolkit.ide.appservice.AppServiceActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandlerMessenger;
@@ -90,7 +88,9 @@ public class FunctionDeploymentState extends AzureRunProfileState<FunctionAppBas
             draft.reset();
         }
         functionDeployConfiguration.setAppSettings(target.getAppSettings()); // save app settings
-        stagingFolder = FunctionUtils.getTempStagingFolder();
+        stagingFolder = Optional.ofNullable(functionDeployConfiguration.getModule())
+                .map(module -> FunctionUtils.getStagingFolder(module, "deploy"))
+                .orElseGet(FunctionUtils::getTempStagingFolder);
         prepareStagingFolder(stagingFolder, operation);
         // deploy function to Azure
         deployFunctionApp(target, stagingFolder, messenger);
@@ -136,11 +136,10 @@ public class FunctionDeploymentState extends AzureRunProfileState<FunctionAppBas
         final Path hostJsonPath = Optional.ofNullable(functionDeployConfiguration.getHostJsonPath())
                                           .filter(StringUtils::isNotEmpty).map(Paths::get)
                                           .orElseGet(() -> Paths.get(FunctionUtils.getDefaultHostJsonPath(functionDeployConfiguration.getModule())));
-        final PsiMethod[] methods = ReadAction.compute(() -> FunctionUtils.findFunctionsByAnnotation(module));
         final Path folder = stagingFolder.toPath();
         try {
             final Map<String, FunctionConfiguration> configMap =
-                FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module, methods);
+                FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module);
             operation.trackProperty(TelemetryConstants.TRIGGER_TYPE, StringUtils.join(FunctionUtils.getFunctionBindingList(configMap), ","));
         } catch (final AzureToolkitRuntimeException e) {
             throw e;
@@ -20,12 +20,10 @@ import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.execution.remote.RemoteConfiguration;
 import com.intellij.execution.remote.RemoteConfigurationType;
 import com.intellij.execution.runners.ExecutionUtil;
-import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.wm.ToolWindowId;
-import com.intellij.psi.PsiMethod;
 import com.intellij.util.EnvironmentUtil;
 import com.microsoft.azure.toolkit.intellij.common.ReadStreamLineThread;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
@@ -147,7 +145,9 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         // Prepare staging Folder
         OperationContext.current().setMessager(getProcessHandlerMessenger());
         validateFunctionRuntime();
-        stagingFolder = FunctionUtils.getTempStagingFolder();
+        stagingFolder = Optional.ofNullable(functionRunConfiguration.getModule())
+                .map(module -> FunctionUtils.getStagingFolder(module, "run"))
+                .orElseGet(FunctionUtils::getTempStagingFolder);
         addProcessTerminatedListener(processHandler);
         prepareStagingFolder(stagingFolder, processHandler, operation);
         // Run Function Host
@@ -334,11 +334,10 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         final Path hostJsonPath = Optional.ofNullable(functionRunConfiguration.getHostJsonPath())
                 .filter(StringUtils::isNotEmpty).map(Paths::get)
                 .orElseGet(() -> Paths.get(FunctionUtils.getDefaultHostJsonPath(module)));
-        final PsiMethod[] methods = ReadAction.compute(() -> FunctionUtils.findFunctionsByAnnotation(module));
         final Path folder = stagingFolder.toPath();
         try {
             final Map<String, FunctionConfiguration> configMap =
-                    FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module, methods);
+                    FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module);
             final List<BindingEnum> functionBindingList = FunctionUtils.getFunctionBindingList(configMap);
             operation.trackProperty(TelemetryConstants.TRIGGER_TYPE, StringUtils.join(functionBindingList, ","));
             final Map<String, String> configurationAppSettings = FunctionUtils.loadAppSettingsFromSecurityStorage(functionRunConfiguration.getAppSettingsKey());
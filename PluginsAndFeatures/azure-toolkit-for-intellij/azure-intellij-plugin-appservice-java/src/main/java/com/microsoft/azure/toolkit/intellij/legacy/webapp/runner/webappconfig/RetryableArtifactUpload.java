@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.webapp.runner.webappconfig;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * runs the upload of an artifact, retrying it with increasing delays if it fails because of network errors, e.g. over an
+ * unstable VPN. the artifact is uploaded by kudu zip/one deploy in a single request, which accepts neither ranges nor
+ * resumed uploads, and the upload is done inside {@code DeployWebAppTask} without reporting the sent bytes, so a retry
+ * uploads the whole artifact again. the artifact is verified unchanged by its size and modification time before retrying,
+ * instead of hashing it.
+ */
+class RetryableArtifactUpload {
+    private final File artifact;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+
+    RetryableArtifactUpload(@Nonnull final File artifact, final int maxAttempts, final long baseDelayMillis) {
+        this.artifact = artifact;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    /**
+     * @return the attempts taken to upload the artifact
+     */
+    int run(@Nonnull final Runnable upload, @Nonnull final RetryListener listener) {
+        final long length = artifact.length();
+        final long lastModified = artifact.lastModified();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                upload.run();
+                return attempt;
+            } catch (final RuntimeException e) {
+                if (attempt >= maxAttempts || ExceptionUtils.indexOfType(e, IOException.class) < 0) {
+                    throw e;
+                }
+                final long delay = baseDelayMillis << (attempt - 1);
+                listener.onRetry(e, attempt, delay);
+                sleep(delay);
+                if (artifact.length() != length || artifact.lastModified() != lastModified) {
+                    throw new AzureToolkitRuntimeException(String.format("artifact \"%s\" is changed during deployment, please deploy again.", artifact.getAbsolutePath()), e);
+                }
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AzureToolkitRuntimeException("deployment is interrupted.", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface RetryListener {
+        /**
+         * called before waiting {@code delayMillis} to retry the failed {@code attempt}.
+         */
+        void onRetry(@Nonnull RuntimeException error, int attempt, long delayMillis);
+    }
+}
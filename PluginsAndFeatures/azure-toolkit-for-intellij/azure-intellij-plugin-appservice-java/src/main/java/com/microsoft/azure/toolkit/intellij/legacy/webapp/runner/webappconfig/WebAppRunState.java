@@ -50,8 +50,10 @@ import com.microsoft.azuretools.utils.WebAppUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.compress.utils.FileNameUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.idea.maven.model.MavenConstants;
@@ -72,8 +74,13 @@ public class WebAppRunState extends AzureRunProfileState<WebAppBase<?, ?, ?>> {
     private static final String LIBS_ROOT = "/home/site/wwwroot/libs/";
     private static final String JAVA_OPTS = "JAVA_OPTS";
     private static final String CATALINA_OPTS = "CATALINA_OPTS";
-    private static final int DEFAULT_DEPLOYMENT_STATUS_REFRESH_INTERVAL = 10;
-    private static final int DEFAULT_DEPLOYMENT_STATUS_MAX_REFRESH_TIMES = 6;
+    /**
+     * intervals (in seconds) between the deployment status checks, starting short for the apps that are ready soon and backing
+     * off for the slow ones, 60 seconds in total as before.
+     */
+    private static final int[] DEPLOYMENT_STATUS_REFRESH_INTERVALS = {2, 3, 5, 8, 12, 15, 15};
+    private static final int MAX_DEPLOY_ATTEMPTS = 3;
+    private static final long DEPLOY_RETRY_BASE_DELAY_MILLIS = 5000;
     private static final String GET_DEPLOYMENT_STATUS_TIMEOUT = "The app is still starting, " +
         "you could start streaming log to check if something wrong in server side.";
 
@@ -213,10 +220,10 @@ public class WebAppRunState extends AzureRunProfileState<WebAppBase<?, ?, ?>> {
                             null : String.format("webapps/%s", FilenameUtils.getBaseName(file.getName()).replaceAll("#", StringUtils.EMPTY));
         final WebAppArtifact build = WebAppArtifact.builder().deployType(deployType).path(path).file(file).build();
         final DeployWebAppTask deployWebAppTask = new DeployWebAppTask(deployTarget, Collections.singletonList(build), true, false, false);
-        deployWebAppTask.doExecute();
+        executeWithRetry(deployWebAppTask, file);
         AzureTaskManager.getInstance().runInBackground("get deployment status", () -> {
             OperationContext.current().setMessager(AzureMessager.getDefaultMessager());
-            if (!deployWebAppTask.waitUntilDeploymentReady(false, DEFAULT_DEPLOYMENT_STATUS_REFRESH_INTERVAL, DEFAULT_DEPLOYMENT_STATUS_MAX_REFRESH_TIMES)) {
+            if (!waitUntilDeploymentReady(deployWebAppTask)) {
                 AzureMessager.getMessager().warning(GET_DEPLOYMENT_STATUS_TIMEOUT, null,
                                                     AzureActionManager.getInstance().getAction(AppServiceActionsContributor.START_STREAM_LOG).bind(deployTarget));
             } else {
@@ -226,6 +233,34 @@ public class WebAppRunState extends AzureRunProfileState<WebAppBase<?, ?, ?>> {
         });
     }
 
+    /**
+     * deploy the artifact, retrying with increasing delays if the upload fails because of network errors instead of
+     * failing the whole run, see {@link RetryableArtifactUpload}.
+     */
+    private void executeWithRetry(@Nonnull final DeployWebAppTask task, @Nonnull final File file) {
+        final OperationContext context = OperationContext.action();
+        context.setTelemetryProperty("artifactSize", String.valueOf(file.length()));
+        final long start = System.currentTimeMillis();
+        final RetryableArtifactUpload upload = new RetryableArtifactUpload(file, MAX_DEPLOY_ATTEMPTS, DEPLOY_RETRY_BASE_DELAY_MILLIS);
+        final int attempts = upload.run(task::doExecute, (e, attempt, delay) ->
+            AzureMessager.getMessager().warning(String.format("Failed to upload artifact (%s), retrying in %d seconds (%d/%d)...",
+                ExceptionUtils.getRootCauseMessage(e), delay / 1000, attempt, MAX_DEPLOY_ATTEMPTS - 1)));
+        final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        context.setTelemetryProperty("deployAttempts", String.valueOf(attempts));
+        context.setTelemetryProperty("deployTime", String.valueOf(elapsed));
+        AzureMessager.getMessager().info(String.format("Artifact (%s) is uploaded in %.1f seconds.",
+            FileUtils.byteCountToDisplaySize(file.length()), elapsed / 1000.0));
+    }
+
+    private static boolean waitUntilDeploymentReady(@Nonnull final DeployWebAppTask task) {
+        for (final int interval : DEPLOYMENT_STATUS_REFRESH_INTERVALS) {
+            if (task.waitUntilDeploymentReady(false, interval, 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected Operation createOperation() {
         return TelemetryManager.createOperation(TelemetryConstants.WEBAPP, TelemetryConstants.DEPLOY_WEBAPP);
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.webapp.runner.webappconfig;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * uploads the artifact to a stub server, which drops the connections of the first requests like an unstable network.
+ */
+public class RetryableArtifactUploadTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY_MILLIS = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<byte[]> received = Collections.synchronizedList(new ArrayList<>());
+    private volatile int droppedRequests;
+    private volatile int status = 200;
+    private HttpServer server;
+    private File artifact;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/zipdeploy", this::handle);
+        server.start();
+        artifact = folder.newFile("app.jar");
+        Files.write(artifact.toPath(), new byte[64 * 1024]);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void retriesUploadDroppedByNetwork() {
+        droppedRequests = 2;
+        final List<Long> delays = new ArrayList<>();
+
+        final int attempts = upload().run(this::post, (e, attempt, delay) -> delays.add(delay));
+
+        Assert.assertEquals(3, attempts);
+        Assert.assertEquals(3, requests.get());
+        Assert.assertEquals(List.of(BASE_DELAY_MILLIS, BASE_DELAY_MILLIS * 2), delays);
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(artifact.length(), received.get(0).length);
+    }
+
+    @Test
+    public void failsAfterMaxAttempts() {
+        droppedRequests = Integer.MAX_VALUE;
+
+        Assert.assertThrows(UncheckedIOException.class, () -> upload().run(this::post, (e, attempt, delay) -> {
+        }));
+        Assert.assertEquals(MAX_ATTEMPTS, requests.get());
+    }
+
+    @Test
+    public void doesNotRetryRejectedUpload() {
+        status = 400;
+
+        Assert.assertThrows(IllegalStateException.class, () -> upload().run(this::post, (e, attempt, delay) -> {
+        }));
+        Assert.assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void stopsRetryingChangedArtifact() {
+        droppedRequests = 1;
+
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> upload().run(this::post, (e, attempt, delay) -> {
+            try {
+                Files.write(artifact.toPath(), new byte[128 * 1024]);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+        Assert.assertEquals(1, requests.get());
+    }
+
+    private RetryableArtifactUpload upload() {
+        return new RetryableArtifactUpload(artifact, MAX_ATTEMPTS, BASE_DELAY_MILLIS);
+    }
+
+    private void post() {
+        try {
+            final URL url = new URL(String.format("http://%s:%d/api/zipdeploy", server.getAddress().getHostString(), server.getAddress().getPort()));
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            // streamed requests are not retried by the connection itself
+            connection.setFixedLengthStreamingMode(artifact.length());
+            try (final OutputStream output = connection.getOutputStream()) {
+                Files.copy(artifact.toPath(), output);
+            }
+            final int code = connection.getResponseCode();
+            if (code >= 400) {
+                throw new IllegalStateException("upload is rejected with status " + code);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (final InputStream input = exchange.getRequestBody()) {
+            final byte[] body = input.readAllBytes();
+            if (requests.incrementAndGet() <= droppedRequests) {
+                // closed without any response, the client fails with an IOException
+                return;
+            }
+            received.add(body);
+            exchange.sendResponseHeaders(status, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+}
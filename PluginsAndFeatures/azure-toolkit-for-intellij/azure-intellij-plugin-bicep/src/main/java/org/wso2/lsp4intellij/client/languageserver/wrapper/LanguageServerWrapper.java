@@ -259,6 +259,21 @@ public class LanguageServerWrapper {
         getWidget().notifyResult(timeouts, success);
     }
 
+    /**
+     * @param changes the number of document changes queued to be sent
+     */
+    public void notifyChangesQueued(int changes) {
+        Optional.ofNullable(getWidget()).ifPresent(w -> w.notifyChangesQueued(changes));
+    }
+
+    /**
+     * @param changes      the number of document changes sent in one didChange notification
+     * @param latencyNanos the time from the first of the changes queued to the notification sent
+     */
+    public void notifyChangesSent(int changes, long latencyNanos) {
+        Optional.ofNullable(getWidget()).ifPresent(w -> w.notifyChangesSent(changes, latencyNanos));
+    }
+
     public void notifySuccess(Timeouts timeouts) {
         notifyResult(timeouts, true);
     }
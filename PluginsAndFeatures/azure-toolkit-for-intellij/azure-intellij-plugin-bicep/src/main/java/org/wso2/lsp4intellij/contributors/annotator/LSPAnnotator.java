@@ -233,6 +233,7 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
         final CodeActionContext context = new CodeActionContext(diagnosticContext);
         params.setContext(context);
         final LanguageServerWrapper wrapper = eventManager.wrapper;
+        eventManager.documentEventManager.flushPendingChanges();
         final CompletableFuture<List<Either<Command, CodeAction>>> future = eventManager.wrapper.getRequestManager().codeAction(params);
         if (future != null) {
             try {
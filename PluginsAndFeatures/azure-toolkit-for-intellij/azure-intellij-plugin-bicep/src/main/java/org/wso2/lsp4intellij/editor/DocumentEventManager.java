@@ -22,6 +22,7 @@ import com.intellij.openapi.editor.event.DocumentEvent;
 import com.intellij.openapi.editor.event.DocumentListener;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
@@ -34,15 +35,20 @@ import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
-import org.wso2.lsp4intellij.utils.ApplicationUtils;
 import org.wso2.lsp4intellij.utils.DocumentUtils;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class DocumentEventManager {
     private final Document document;
@@ -50,11 +56,27 @@ public class DocumentEventManager {
     private final TextDocumentSyncKind syncKind;
     private final LanguageServerWrapper wrapper;
     private final TextDocumentIdentifier identifier;
-    private int version = -1;
+    private static final long COALESCE_WINDOW_MILLIS = 50;
+    private volatile int version = -1;
     protected Logger LOG = Logger.getInstance(EditorEventManager.class);
     private static final Map<String, DocumentEventManager> uriToDocumentEventManager = new HashMap<>();
 
     private final Set<Document> openDocuments = new HashSet<>();
+    /**
+     * the changes not yet sent, guarded by itself
+     */
+    private final List<TextDocumentContentChangeEvent> pendingChanges = new ArrayList<>();
+    /**
+     * the full text to send instead of the pending changes, if not null
+     */
+    private CharSequence resyncText;
+    private int pendingEvents;
+    private long pendingSince;
+    private ScheduledFuture<?> scheduledFlush;
+    /**
+     * to send the changes in the order of versions
+     */
+    private final Object sendLock = new Object();
 
     DocumentEventManager(Document document, DocumentListener documentListener, TextDocumentSyncKind syncKind, LanguageServerWrapper wrapper) {
         this.document = document;
@@ -92,59 +114,145 @@ public class DocumentEventManager {
         return this.version;
     }
 
+    /**
+     * Queues the change of the document, the changes made within {@link #COALESCE_WINDOW_MILLIS} are sent to the server
+     * in order as one notification, with the consecutive insertions merged. The full text is only sent in
+     * {@link TextDocumentSyncKind#Full} mode or to resync after a change that can't be described incrementally.
+     */
     public void documentChanged(DocumentEvent event) {
-
-        DidChangeTextDocumentParams changesParams = new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(),
-                Collections.singletonList(new TextDocumentContentChangeEvent()));
-        changesParams.getTextDocument().setUri(identifier.getUri());
-
-
-        changesParams.getTextDocument().setVersion(++version);
-
+        TextDocumentContentChangeEvent changeEvent = null;
         if (syncKind == TextDocumentSyncKind.Incremental) {
-            TextDocumentContentChangeEvent changeEvent = changesParams.getContentChanges().get(0);
-            CharSequence newText = event.getNewFragment();
-            int offset = event.getOffset();
-            int newTextLength = event.getNewLength();
-            Set<EditorEventManager> managersForUri = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document));
-            if (managersForUri == null || managersForUri.isEmpty()) {
-                LOG.warn("no manager associated with uri");
-                return;
+            changeEvent = toIncrementalChange(event);
+        } else if (syncKind != TextDocumentSyncKind.Full) {
+            return;
+        }
+        synchronized (pendingChanges) {
+            if (pendingEvents == 0) {
+                pendingSince = System.nanoTime();
             }
-            EditorEventManager editorEventManager = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document)).iterator().next();
-            if (editorEventManager == null) {
-                LOG.warn("no editor associated with document");
-                return;
+            pendingEvents++;
+            wrapper.notifyChangesQueued(1);
+            if (changeEvent == null || resyncText != null) {
+                // the full text will be sent instead, which covers all the pending changes.
+                // the immutable snapshot is taken here, so that it's consistent with the changes sent before and after it.
+                resyncText = document.getImmutableCharSequence();
+                pendingChanges.clear();
+            } else if (!mergeInsertion(changeEvent)) {
+                pendingChanges.add(changeEvent);
             }
-            Editor editor = editorEventManager.editor;
-            Position lspPosition = DocumentUtils.offsetToLSPPos(editor, offset);
-            if (lspPosition == null) {
+            if (scheduledFlush == null) {
+                scheduledFlush = AppExecutorUtil.getAppScheduledExecutorService()
+                        .schedule(this::flushPendingChanges, COALESCE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends the pending changes right away, should be called before the requests that depend on the document content.
+     */
+    public void flushPendingChanges() {
+        synchronized (sendLock) {
+            final PendingBatch batch = takePendingChanges();
+            if (batch == null) {
                 return;
             }
-            int startLine = lspPosition.getLine();
-            int startColumn = lspPosition.getCharacter();
-            CharSequence oldText = event.getOldFragment();
-
-            //if text was deleted/replaced, calculate the end position of inserted/deleted text
-            int endLine, endColumn;
-            if (oldText.length() > 0) {
-                endLine = startLine + StringUtil.countNewLines(oldText);
-                String content = oldText.toString();
-                String[] oldLines = content.split("\n");
-                int oldTextLength = oldLines.length == 0 ? 0 : oldLines[oldLines.length - 1].length();
-                endColumn = content.endsWith("\n") ? 0 : oldLines.length == 1 ? startColumn + oldTextLength : oldTextLength;
-            } else { //if insert or no text change, the end position is the same
-                endLine = startLine;
-                endColumn = startColumn;
+            final VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier(identifier.getUri(), ++version);
+            Optional.ofNullable(wrapper.getRequestManager())
+                    .ifPresent(m -> m.didChange(new DidChangeTextDocumentParams(textDocument, batch.changes)));
+            wrapper.notifyChangesSent(batch.events, System.nanoTime() - batch.since);
+        }
+    }
+
+    @Nullable
+    private PendingBatch takePendingChanges() {
+        synchronized (pendingChanges) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pendingEvents == 0) {
+                return null;
             }
-            Range range = new Range(new Position(startLine, startColumn), new Position(endLine, endColumn));
-            changeEvent.setRange(range);
-            changeEvent.setRangeLength(newTextLength);
-            changeEvent.setText(newText.toString());
-        } else if (syncKind == TextDocumentSyncKind.Full) {
-            changesParams.getContentChanges().get(0).setText(document.getText());
+            final List<TextDocumentContentChangeEvent> changes = resyncText != null ?
+                    Collections.singletonList(new TextDocumentContentChangeEvent(resyncText.toString())) :
+                    new ArrayList<>(pendingChanges);
+            final PendingBatch batch = new PendingBatch(changes, pendingEvents, pendingSince);
+            pendingChanges.clear();
+            resyncText = null;
+            pendingEvents = 0;
+            return batch;
         }
-        ApplicationUtils.pool(() -> wrapper.getRequestManager().didChange(changesParams));
+    }
+
+    @Nullable
+    private TextDocumentContentChangeEvent toIncrementalChange(DocumentEvent event) {
+        CharSequence newText = event.getNewFragment();
+        int offset = event.getOffset();
+        Set<EditorEventManager> managersForUri = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document));
+        if (managersForUri == null || managersForUri.isEmpty()) {
+            LOG.warn("no manager associated with uri");
+            return null;
+        }
+        EditorEventManager editorEventManager = managersForUri.iterator().next();
+        if (editorEventManager == null) {
+            LOG.warn("no editor associated with document");
+            return null;
+        }
+        Editor editor = editorEventManager.editor;
+        Position lspPosition = DocumentUtils.offsetToLSPPos(editor, offset);
+        if (lspPosition == null) {
+            return null;
+        }
+        int startLine = lspPosition.getLine();
+        int startColumn = lspPosition.getCharacter();
+        CharSequence oldText = event.getOldFragment();
+
+        //if text was deleted/replaced, calculate the end position of inserted/deleted text
+        int endLine, endColumn;
+        if (oldText.length() > 0) {
+            endLine = startLine + StringUtil.countNewLines(oldText);
+            String content = oldText.toString();
+            String[] oldLines = content.split("\n");
+            int oldTextLength = oldLines.length == 0 ? 0 : oldLines[oldLines.length - 1].length();
+            endColumn = content.endsWith("\n") ? 0 : oldLines.length == 1 ? startColumn + oldTextLength : oldTextLength;
+        } else { //if insert or no text change, the end position is the same
+            endLine = startLine;
+            endColumn = startColumn;
+        }
+        Range range = new Range(new Position(startLine, startColumn), new Position(endLine, endColumn));
+        TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(range, newText.toString());
+        // the range length is the length of the replaced text
+        changeEvent.setRangeLength(event.getOldLength());
+        return changeEvent;
+    }
+
+    /**
+     * Merges the insertion right after the last pending single line insertion, e.g. the characters typed one by one.
+     *
+     * @return true if merged
+     */
+    private boolean mergeInsertion(TextDocumentContentChangeEvent change) {
+        if (pendingChanges.isEmpty() || !isInsertion(change)) {
+            return false;
+        }
+        final TextDocumentContentChangeEvent last = pendingChanges.get(pendingChanges.size() - 1);
+        if (!isInsertion(last) || StringUtil.containsLineBreak(last.getText())) {
+            return false;
+        }
+        final Position lastStart = last.getRange().getStart();
+        final Position start = change.getRange().getStart();
+        if (start.getLine() != lastStart.getLine() || start.getCharacter() != lastStart.getCharacter() + last.getText().length()) {
+            return false;
+        }
+        last.setText(last.getText() + change.getText());
+        // the range length is the length of the replaced text, which is none for an insertion
+        last.setRangeLength(0);
+        return true;
+    }
+
+    private static boolean isInsertion(TextDocumentContentChangeEvent change) {
+        final Range range = change.getRange();
+        return range != null && range.getStart().equals(range.getEnd());
     }
 
     public void documentOpened() {
@@ -167,7 +275,20 @@ public class DocumentEventManager {
             LOG.warn("trying to close document which is still open in another editor!");
         } else {
             openDocuments.remove(document);
+            flushPendingChanges();
             wrapper.getRequestManager().didClose(new DidCloseTextDocumentParams(identifier));
         }
     }
+
+    private static class PendingBatch {
+        private final List<TextDocumentContentChangeEvent> changes;
+        private final int events;
+        private final long since;
+
+        private PendingBatch(List<TextDocumentContentChangeEvent> changes, int events, long since) {
+            this.changes = changes;
+            this.events = events;
+            this.since = since;
+        }
+    }
 }
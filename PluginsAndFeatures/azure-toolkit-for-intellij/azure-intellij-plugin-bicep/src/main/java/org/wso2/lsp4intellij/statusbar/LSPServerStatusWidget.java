@@ -50,6 +50,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.swing.*;
 
@@ -59,6 +63,11 @@ public class LSPServerStatusWidget implements StatusBarWidget {
     private final Project project;
     private final String projectName;
     private ServerStatus status = ServerStatus.STOPPED;
+    private final AtomicInteger queuedChanges = new AtomicInteger();
+    private final LongAdder sentChanges = new LongAdder();
+    private final LongAdder sentNotifications = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
 
     LSPServerStatusWidget(Project project) {
         this.project = project;
@@ -78,6 +87,26 @@ public class LSPServerStatusWidget implements StatusBarWidget {
         }
     }
 
+    public void notifyChangesQueued(int changes) {
+        queuedChanges.addAndGet(changes);
+    }
+
+    public void notifyChangesSent(int changes, long latencyNanos) {
+        queuedChanges.addAndGet(-changes);
+        sentChanges.add(changes);
+        sentNotifications.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    private String getDocumentSyncSummary() {
+        final long notifications = sentNotifications.sum();
+        final long averageMillis = notifications == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / notifications);
+        return String.format("%d changes queued, %d changes sent in %d notifications, latency avg %d ms / max %d ms",
+                Math.max(queuedChanges.get(), 0), sentChanges.sum(), notifications, averageMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+    }
+
     public IconPresentation getPresentation() {
         return new IconPresentation();
     }
@@ -153,6 +182,7 @@ public class LSPServerStatusWidget implements StatusBarWidget {
                     actions.add(new ShowConnectedFiles());
                 }
                 actions.add(new ShowTimeouts());
+                actions.add(new ShowDocumentSync());
                 String title = "Server Actions";
                 DataContext context = DataManager.getInstance().getDataContext(component);
                 DefaultActionGroup group = new DefaultActionGroup(actions);
@@ -221,6 +251,22 @@ public class LSPServerStatusWidget implements StatusBarWidget {
             }
         }
 
+        class ShowDocumentSync extends AnAction implements DumbAware {
+            ShowDocumentSync() {
+                super("Show &Document Sync", "Show the document changes queued and sent to the server", null);
+            }
+
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                Messages.showInfoMessage(getDocumentSyncSummary(), "Document Sync");
+            }
+
+            @Override
+            public @NotNull ActionUpdateThread getActionUpdateThread() {
+                return ActionUpdateThread.BGT;
+            }
+        }
+
         class Restart extends AnAction implements DumbAware {
 
             Restart() {
@@ -249,7 +295,8 @@ public class LSPServerStatusWidget implements StatusBarWidget {
             if (wrapper == null) {
                 return "Language server, project " + projectName;
             } else {
-                return "Language server for extension " + wrapper.getServerDefinition().ext + ", project " + projectName;
+                return "Language server for extension " + wrapper.getServerDefinition().ext + ", project " + projectName
+                        + System.lineSeparator() + getDocumentSyncSummary();
             }
         }
     }
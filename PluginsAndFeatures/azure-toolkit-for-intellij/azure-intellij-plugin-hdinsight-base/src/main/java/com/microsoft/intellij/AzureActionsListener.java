@@ -10,6 +10,7 @@ import com.intellij.ide.AppLifecycleListener;
 import com.microsoft.azure.cosmosspark.serverexplore.cosmossparknode.CosmosSparkClusterOps;
 import com.microsoft.azure.hdinsight.common.HDInsightHelperImpl;
 import com.microsoft.azure.hdinsight.common.HDInsightLoader;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSessionCache;
 import com.microsoft.azure.toolkit.intellij.common.CommonConst;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
@@ -84,6 +85,12 @@ public class AzureActionsListener implements AppLifecycleListener, PluginCompone
         }
     }
 
+    @Override
+    public void appWillBeClosed(boolean isRestart) {
+        SparkSessionCache.getInstance().clear();
+        AppInsightsClient.flush();
+    }
+
     private void initAuthManage() {
         try {
             final String baseFolder = FileUtil.getDirectoryWithinUserHome(AZURE_TOOLS_FOLDER).toString();
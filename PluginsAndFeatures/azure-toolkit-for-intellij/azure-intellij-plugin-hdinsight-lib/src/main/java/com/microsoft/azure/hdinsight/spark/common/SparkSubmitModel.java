@@ -13,6 +13,7 @@ import com.intellij.packaging.artifacts.Artifact;
 import com.intellij.packaging.artifacts.ArtifactManager;
 import com.intellij.util.xmlb.XmlSerializer;
 import com.intellij.util.xmlb.annotations.*;
+import com.microsoft.azure.hdinsight.spark.run.SparkBatchJobRemoteProcess;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import com.microsoft.azuretools.utils.Pair;
@@ -58,6 +59,8 @@ public class SparkSubmitModel {
     @NotNull
     private SubmissionTableModel tableModel = new SubmissionTableModel();
 
+    private long metricsSampleIntervalMillis = SparkBatchJobRemoteProcess.DEFAULT_METRICS_SAMPLE_INTERVAL_MILLIS;
+
     public SparkSubmitModel() {
         this(DummyProject.getInstance());
     }
@@ -145,6 +148,19 @@ public class SparkSubmitModel {
         this.clusterMappedId = clusterMappedId;
     }
 
+    /**
+     * The interval to sample the metrics of the running job into the job console, 0 to disable the sampling
+     */
+    @Attribute("metrics_sample_interval_millis")
+    public long getMetricsSampleIntervalMillis() {
+        return metricsSampleIntervalMillis;
+    }
+
+    @Attribute("metrics_sample_interval_millis")
+    public void setMetricsSampleIntervalMillis(long metricsSampleIntervalMillis) {
+        this.metricsSampleIntervalMillis = metricsSampleIntervalMillis;
+    }
+
     @Attribute("is_local_artifact")
     public boolean getIsLocalArtifact() {
         return getSubmissionParameter().isLocalArtifact();
@@ -13,6 +13,7 @@ import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
 
 import java.nio.charset.Charset;
 import java.util.concurrent.Future;
@@ -113,7 +114,7 @@ public class SparkBatchJobRunProcessHandler extends BaseProcessHandler<SparkBatc
 
     @NotNull
     @Override
-    public PublishSubject<SparkBatchJobSubmissionEvent> getEventSubject() {
+    public Subject<SparkBatchJobSubmissionEvent, SparkBatchJobSubmissionEvent> getEventSubject() {
         return getProcess().getSparkJobProcess().getEventSubject();
     }
 }
@@ -232,6 +232,7 @@ public class SparkBatchJobRunner extends DefaultProgramRunner implements SparkSu
                 artifactPath,
                 submitModel.getSubmissionParameter().getMainClassName(),
                 ctrlSubject);
+        remoteProcess.setMetricsSampleIntervalMillis(submitModel.getMetricsSampleIntervalMillis());
         final SparkBatchJobRunProcessHandler processHandler = new SparkBatchJobRunProcessHandler(remoteProcess,
                 "Package and deploy the job to Spark cluster",
                 null);
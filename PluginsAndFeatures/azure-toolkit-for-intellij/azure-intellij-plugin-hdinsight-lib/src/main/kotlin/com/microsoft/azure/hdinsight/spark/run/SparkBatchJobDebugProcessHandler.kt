@@ -30,6 +30,7 @@ import com.intellij.execution.process.ProcessOutputTypes.STDOUT
 import com.intellij.openapi.project.Project
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine
 import rx.subjects.PublishSubject
+import rx.subjects.Subject
 
 class SparkBatchJobDebugProcessHandler(project: Project,
                                        val remoteDebugProcess: SparkBatchJobRemoteProcess,
@@ -78,7 +79,7 @@ class SparkBatchJobDebugProcessHandler(project: Project,
         return remoteDebugProcess.ctrlSubject
     }
 
-    override fun getEventSubject(): PublishSubject<SparkBatchJobSubmissionEvent> {
+    override fun getEventSubject(): Subject<SparkBatchJobSubmissionEvent, SparkBatchJobSubmissionEvent> {
         return remoteDebugProcess.eventSubject
     }
 
@@ -25,9 +25,10 @@ package com.microsoft.azure.hdinsight.spark.run
 import com.intellij.openapi.util.UserDataHolder
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine
 import rx.subjects.PublishSubject
+import rx.subjects.Subject
 
 interface SparkBatchJobProcessCtrlLogOut: UserDataHolder {
     fun getCtrlSubject() : PublishSubject<SparkLogLine>
 
-    fun getEventSubject(): PublishSubject<SparkBatchJobSubmissionEvent>
+    fun getEventSubject(): Subject<SparkBatchJobSubmissionEvent, SparkBatchJobSubmissionEvent>
 }
\ No newline at end of file
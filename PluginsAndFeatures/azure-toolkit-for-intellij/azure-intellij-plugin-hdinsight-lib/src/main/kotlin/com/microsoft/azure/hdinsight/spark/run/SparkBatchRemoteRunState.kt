@@ -33,6 +33,7 @@ import com.microsoft.azure.hdinsight.common.classifiedexception.ClassifiedExcept
 import com.microsoft.azure.hdinsight.common.print
 import com.microsoft.azure.hdinsight.spark.common.ISparkBatchJob
 import com.microsoft.azure.hdinsight.spark.common.SparkSubmitModel
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsSample
 import com.microsoft.azuretools.telemetry.TelemetryProperties
 import com.microsoft.azuretools.telemetrywrapper.Operation
 import com.microsoft.intellij.hdinsight.messages.HDInsightBundle
@@ -58,6 +59,7 @@ open class SparkBatchRemoteRunState(private val sparkSubmitModel: SparkSubmitMod
     private var isJobRunSucceed: Boolean? = null
     private var jobState: String? = null
     private var diagnostics: String? = null
+    private var lastMetrics: SparkMetricsSample? = null
 
     override fun execute(executor: Executor?, programRunner: ProgramRunner<*>): ExecutionResult? {
         val sparkConsoleView = consoleView
@@ -78,6 +80,10 @@ open class SparkBatchRemoteRunState(private val sparkSubmitModel: SparkSubmitMod
                                 this.diagnostics = it.diagnostics
                             }
                             is SparkBatchJobDisconnectEvent -> this.isDisconnectButtonClicked = true
+                            is SparkBatchJobMetricsEvent -> {
+                                this.lastMetrics = it.sample
+                                sparkConsoleView.print("Spark metrics: ${it.sample}\n", ConsoleViewContentType.SYSTEM_OUTPUT)
+                            }
                             else -> {
                             }
                         }
@@ -111,7 +117,7 @@ open class SparkBatchRemoteRunState(private val sparkSubmitModel: SparkSubmitMod
     }
 
     override fun toProperties(): MutableMap<String, String> {
-        return mutableMapOf(
+        val properties = mutableMapOf(
                 "isArtifactUploaded" to isArtifactUploaded.toString(),
                 "isJobSubmitSucceed" to isSubmitSucceed.toString(),
                 "isJobKilled" to isJobKilled.toString(),
@@ -120,5 +126,12 @@ open class SparkBatchRemoteRunState(private val sparkSubmitModel: SparkSubmitMod
                 "livyDiagnostics" to (diagnostics ?: "null"),
                 "isDisconnectButtonClicked" to isDisconnectButtonClicked.toString(),
                 "isStopButtonClicked" to isStopButtonClicked.toString())
+        // only when the metrics sampling is enabled for the job
+        lastMetrics?.let {
+            properties["completedTasks"] = it.completedTasks.toString()
+            properties["failedTasks"] = it.failedTasks.toString()
+            properties["gcTimeMillis"] = it.gcTimeMillis.toString()
+        }
+        return properties
     }
 }
\ No newline at end of file
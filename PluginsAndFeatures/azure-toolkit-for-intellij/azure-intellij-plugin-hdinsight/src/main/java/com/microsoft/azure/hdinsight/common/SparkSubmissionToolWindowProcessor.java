@@ -26,6 +26,11 @@ import com.microsoft.tooling.msservices.components.DefaultLoader;
 
 import javax.swing.*;
 import javax.swing.event.HyperlinkEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
 import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
@@ -34,7 +39,11 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import static com.microsoft.azuretools.telemetry.TelemetryConstants.HDINSIGHT;
@@ -49,8 +58,13 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
     private JButton openSparkUIButton;
 
     private String fontFace;
-    private final List<IHtmlElement> cachedInfo = new ArrayList<>();
-    private String toolWindowText;
+    // All retained elements, the oldest ones are dropped when exceeding MAX_RETAINED_SIZE
+    private final Deque<IHtmlElement> cachedInfo = new ArrayDeque<>();
+    // The elements not appended into the document yet
+    private final List<IHtmlElement> pendingInfo = new ArrayList<>();
+    private boolean isFullRenderRequired = false;
+    private boolean isFlushScheduled = false;
+    private boolean isDocumentRendered = false;     // only accessed in dispatch thread
 
     private PropertyChangeSupport changeSupport;
     private final ToolWindow toolWindow;
@@ -69,14 +83,7 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
         UISettings.getInstance().addUISettingsListener(new UISettingsListener() {
             @Override
             public void uiSettingsChanged(final UISettings uiSettings) {
-                synchronized (this) {
-                    for (final IHtmlElement htmlElement : cachedInfo) {
-                        htmlElement.changeTheme();
-                    }
-
-                    setToolWindowText(parserHtmlElementList(cachedInfo));
-                }
-
+                changeTheme();
             }
         }, ApplicationManager.getApplication());
 
@@ -216,9 +223,7 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
             }
 
             private void changeSupportHandler(final PropertyChangeEvent evt) {
-                if ("toolWindowText".equals(evt.getPropertyName())) {
-                    jEditorPanel.setText(evt.getNewValue().toString());
-                } else if ("isStopButtonEnable".equals(evt.getPropertyName())) {
+                if ("isStopButtonEnable".equals(evt.getPropertyName())) {
                     stopButton.setEnabled(Boolean.parseBoolean(evt.getNewValue().toString()));
                 } else if ("isBrowserButtonEnable".equals(evt.getPropertyName())) {
                     openSparkUIButton.setEnabled(Boolean.parseBoolean(evt.getNewValue().toString()));
@@ -243,41 +248,37 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
     }
 
     public synchronized void setHyperlink(final String hyperlinkUrl, final String anchorText) {
-        cachedInfo.add(new HyperLinkElement(fontFace,
+        appendElement(new HyperLinkElement(fontFace,
                                             DarkThemeManager.getInstance().getInfoColor(),
                                             DarkThemeManager.getInstance().getHyperLinkColor(),
                                             "",
                                             hyperlinkUrl,
                                             anchorText));
-        setToolWindowText(parserHtmlElementList(cachedInfo));
     }
 
     public synchronized void setHyperLinkWithText(final String text,
                                                   final String hyperlinkUrl,
                                                   final String anchorText) {
-        cachedInfo.add(new HyperLinkElement(fontFace,
+        appendElement(new HyperLinkElement(fontFace,
                                             DarkThemeManager.getInstance().getInfoColor(),
                                             DarkThemeManager.getInstance().getHyperLinkColor(),
                                             text,
                                             hyperlinkUrl,
                                             anchorText));
-        setToolWindowText(parserHtmlElementList(cachedInfo));
     }
 
     public synchronized void setError(final String errorInfo) {
-        cachedInfo.add(new TextElement(fontFace,
+        appendElement(new TextElement(fontFace,
                                        DarkThemeManager.getInstance().getErrorColor(),
                                        errorInfo,
                                        MessageInfoType.Error));
-        setToolWindowText(parserHtmlElementList(cachedInfo));
     }
 
     public synchronized void setWarning(final String warningInfo) {
-        cachedInfo.add(new TextElement(fontFace,
+        appendElement(new TextElement(fontFace,
                                        DarkThemeManager.getInstance().getWarningColor(),
                                        warningInfo,
                                        MessageInfoType.Warning));
-        setToolWindowText(parserHtmlElementList(cachedInfo));
     }
 
     public synchronized void setInfo(final String info, final boolean isCleanable) {
@@ -297,9 +298,7 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
             adjustCleanableMessage();
         }
 
-        cachedInfo.add(element);
-
-        setToolWindowText(parserHtmlElementList(cachedInfo));
+        appendElement(element);
     }
 
     public void setInfo(final String info) {
@@ -308,32 +307,104 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
 
     private static final int MAX_CLEANABLE_SIZE = 400;
     private static final int DELETE_SIZE = 100;
+    private static final int MAX_RETAINED_SIZE = 5000;
+    private static final int RETAINED_DELETE_SIZE = 1000;
     private int cleanableMessageCounter = 0;
 
     private void adjustCleanableMessage() {
         if (cleanableMessageCounter >= MAX_CLEANABLE_SIZE) {
-            int i = 0;
             int deleteMessageCounter = 0;
-            while (deleteMessageCounter < DELETE_SIZE && i < cachedInfo.size()) {
-                if (cachedInfo.get(i) instanceof CleanableTextElement) {
-                    cachedInfo.remove(i);
+            final Iterator<IHtmlElement> it = cachedInfo.iterator();
+            while (deleteMessageCounter < DELETE_SIZE && it.hasNext()) {
+                if (it.next() instanceof CleanableTextElement) {
+                    it.remove();
                     ++deleteMessageCounter;
                     --cleanableMessageCounter;
-                } else {
-                    ++i;
                 }
             }
+
+            isFullRenderRequired = true;
         }
     }
 
+    private void appendElement(final IHtmlElement element) {
+        cachedInfo.addLast(element);
+        pendingInfo.add(element);
+
+        if (cachedInfo.size() > MAX_RETAINED_SIZE) {
+            // Drop the oldest ones in batch, so that the whole document is re-rendered rarely
+            for (int i = 0; i < RETAINED_DELETE_SIZE && !cachedInfo.isEmpty(); i++) {
+                if (cachedInfo.pollFirst() instanceof CleanableTextElement) {
+                    --cleanableMessageCounter;
+                }
+            }
+
+            isFullRenderRequired = true;
+        }
+
+        scheduleFlush();
+    }
+
     public synchronized void clearAll() {
         cachedInfo.clear();
+        pendingInfo.clear();
         cleanableMessageCounter = 0;
+        isFullRenderRequired = true;
     }
 
-    private void setToolWindowText(final String toolWindowText) {
-        changeSupport.firePropertyChange("toolWindowText", this.toolWindowText, toolWindowText);
-        this.toolWindowText = toolWindowText;
+    private synchronized void changeTheme() {
+        for (final IHtmlElement htmlElement : cachedInfo) {
+            htmlElement.changeTheme();
+        }
+
+        isFullRenderRequired = true;
+        scheduleFlush();
+    }
+
+    // The elements added before the next UI frame are flushed together
+    private void scheduleFlush() {
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            SwingUtilities.invokeLater(this::flushToDocument);
+        }
+    }
+
+    private void flushToDocument() {
+        final boolean isFullRender;
+        final String html;
+
+        synchronized (this) {
+            isFlushScheduled = false;
+            isFullRender = isFullRenderRequired || !isDocumentRendered;
+            html = parserHtmlElementList(isFullRender ? cachedInfo : pendingInfo);
+            pendingInfo.clear();
+            isFullRenderRequired = false;
+        }
+
+        if (isFullRender) {
+            jEditorPanel.setText(html);
+            isDocumentRendered = !html.isEmpty();
+
+            return;
+        }
+
+        if (html.isEmpty()) {
+            return;
+        }
+
+        // Only append the new elements into the document model
+        final HTMLDocument document = (HTMLDocument) jEditorPanel.getDocument();
+        final Element body = document.getElement(
+                document.getDefaultRootElement(), StyleConstants.NameAttribute, HTML.Tag.BODY);
+
+        try {
+            document.insertBeforeEnd(body, html);
+        } catch (final BadLocationException | IOException ex) {
+            synchronized (this) {
+                isFullRenderRequired = true;
+                scheduleFlush();
+            }
+        }
     }
 
     public synchronized void setStopButtonState(final Boolean newState) {
@@ -346,7 +417,7 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
         changeSupport.firePropertyChange("isBrowserButtonEnable", oldState, newState);
     }
 
-    private String parserHtmlElementList(final List<? extends IHtmlElement> htmlElements) {
+    private String parserHtmlElementList(final Collection<? extends IHtmlElement> htmlElements) {
         final StringBuilder builder = new StringBuilder();
         for (final IHtmlElement e : htmlElements) {
             builder.append(e.getHtmlString());
@@ -379,7 +450,7 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
 
         @Override
         public String getHtmlString() {
-            return String.format("<font color=\"%s\" face=\"%s\">%s</font><br />", fontColor, fontFace, text);
+            return String.format("<div><font color=\"%s\" face=\"%s\">%s</font></div>", fontColor, fontFace, text);
         }
 
         @Override
@@ -428,8 +499,8 @@ public class SparkSubmissionToolWindowProcessor implements IToolWindowProcessor
         @Override
         public String getHtmlString() {
             return String.format(
-                    "<font color=\"%s\" face=\"%s\">%s</font><a href=\"%s\">"
-                            + "<font color=\"%s\" face=\"%s\">%s</font></a><br />",
+                    "<div><font color=\"%s\" face=\"%s\">%s</font><a href=\"%s\">"
+                            + "<font color=\"%s\" face=\"%s\">%s</font></a></div>",
                     fontColor,
                     fontFace,
                     text,
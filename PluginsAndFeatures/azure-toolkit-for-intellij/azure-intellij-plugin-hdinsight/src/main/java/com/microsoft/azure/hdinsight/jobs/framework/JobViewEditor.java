@@ -14,6 +14,7 @@ import com.intellij.openapi.fileEditor.FileEditorStateLevel;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.microsoft.azure.hdinsight.spark.jobs.JobViewCacheManager;
 import com.microsoft.azuretools.telemetry.AppInsightsClient;
 import com.microsoft.azuretools.telemetry.TelemetryConstants;
 import com.microsoft.azuretools.telemetrywrapper.EventType;
@@ -26,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
 import java.beans.PropertyChangeListener;
+import java.util.Map;
 import java.util.WeakHashMap;
 
 @Slf4j
@@ -133,9 +135,11 @@ public class JobViewEditor implements FileEditor {
 
     @Override
     public void dispose() {
-        AppInsightsClient.create(HDInsightBundle.message("HDInsightSparkJobView.Close"), null);
+        JobViewCacheManager.cancelTasksLoading(uuid);
+        final Map<String, String> cacheStats = JobViewCacheManager.getCacheStatsProperties();
+        AppInsightsClient.create(HDInsightBundle.message("HDInsightSparkJobView.Close"), null, cacheStats);
         EventUtil.logEvent(EventType.info, TelemetryConstants.HDINSIGHT,
-            HDInsightBundle.message("HDInsightSparkJobView.Close"), null);
+            HDInsightBundle.message("HDInsightSparkJobView.Close"), cacheStats);
     }
 
     @Nullable
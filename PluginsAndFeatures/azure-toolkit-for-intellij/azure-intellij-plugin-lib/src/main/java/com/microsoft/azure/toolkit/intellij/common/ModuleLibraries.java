@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * the libraries of a module, introspected once and cached on the module until the project roots change, so that the
+ * dependency checks of project explorer, facets and run configurations don't walk the order entries and match the library
+ * names on every call.
+ */
+public class ModuleLibraries {
+    private static final Pattern PATTERN = Pattern.compile("(Gradle|Maven): (.+):(.+):(.+)");
+    /**
+     * names of all the libraries, e.g. {@code Maven: com.azure:azure-core:1.45.0}
+     */
+    @Getter
+    private final Set<String> names;
+    /**
+     * the maven/gradle libraries keyed by {@code groupId:artifactId}
+     */
+    private final Map<String, Library> libraries;
+    /**
+     * results of the pattern queries keyed by the patterns
+     */
+    private final Map<String, Boolean> matches = new ConcurrentHashMap<>();
+
+    private ModuleLibraries(@Nonnull Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+        this.libraries = names.stream().map(PATTERN::matcher).filter(Matcher::matches)
+            .map(m -> new Library(m.group(2).trim(), m.group(3).trim(), m.group(4).trim()))
+            .collect(Collectors.toUnmodifiableMap(Library::getId, l -> l, (l1, l2) -> l1));
+    }
+
+    @Nonnull
+    public static ModuleLibraries of(@Nonnull final Module module) {
+        if (module.isDisposed()) {
+            return new ModuleLibraries(Collections.emptySet());
+        }
+        final Project project = module.getProject();
+        return CachedValuesManager.getManager(project).getCachedValue(module, () ->
+            CachedValueProvider.Result.create(load(module), ProjectRootModificationTracker.getInstance(project)));
+    }
+
+    /**
+     * @return the distinct maven/gradle libraries of all modules of the {@code project}
+     */
+    @Nonnull
+    public static List<Library> of(@Nonnull final Project project) {
+        if (project.isDisposed()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(ModuleManager.getInstance(project).getModules())
+            .flatMap(m -> of(m).getLibraries().stream())
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    private static ModuleLibraries load(@Nonnull final Module module) {
+        final Set<String> names = new LinkedHashSet<>();
+        OrderEnumerator.orderEntries(module).librariesOnly().forEachLibrary(library -> {
+            if (StringUtils.isNotBlank(library.getName())) {
+                names.add(library.getName());
+            }
+            return true;
+        });
+        return new ModuleLibraries(names);
+    }
+
+    @Nonnull
+    public List<Library> getLibraries() {
+        return List.copyOf(this.libraries.values());
+    }
+
+    public boolean contains(@Nonnull final String groupId, @Nonnull final String artifactId) {
+        return this.libraries.containsKey(groupId + ":" + artifactId);
+    }
+
+    /**
+     * @return true if the name of any library matches the {@code pattern}
+     */
+    public boolean anyMatch(@Nonnull final Pattern pattern) {
+        return this.matches.computeIfAbsent(pattern.pattern(), p -> this.names.stream().anyMatch(n -> pattern.matcher(n).matches()));
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Library {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+
+        @Nonnull
+        public String getId() {
+            return this.groupId + ":" + this.artifactId;
+        }
+    }
+}
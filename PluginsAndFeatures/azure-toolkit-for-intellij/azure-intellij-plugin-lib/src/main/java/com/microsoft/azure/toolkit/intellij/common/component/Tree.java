@@ -77,12 +77,14 @@ public class Tree extends SimpleTree implements DataProvider {
 
     @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
     public static class TreeNode<T> extends DefaultMutableTreeNode implements Node.ViewRenderer, Node.ChildrenRenderer {
+        private static final int CHILDREN_BATCH_SIZE = 200;
         @Nonnull
         @Getter
         @EqualsAndHashCode.Include
         protected final Node<T> inner;
         protected final JTree tree;
         Boolean loaded = null; //null:not loading/loaded, false: loading: true: loaded
+        private int childrenUpdates = 0; // changed on EDT only, to stop the batches of an outdated children update
 
         public TreeNode(@Nonnull Node<T> n, JTree tree) {
             super(n.getValue(), n.hasChildren());
@@ -154,14 +156,17 @@ public class Tree extends SimpleTree implements DataProvider {
         public void updateChildren(boolean... incremental) {
             AzureTaskManager.getInstance().runLater(() -> {
                 if (this.getAllowsChildren() && BooleanUtils.isNotFalse(this.loaded)) {
+                    this.childrenUpdates++;
                     final DefaultTreeModel model = (DefaultTreeModel) this.tree.getModel();
                     if (incremental.length > 0 && incremental[0] && Objects.nonNull(model)) {
-                        this.removeLoadMoreNode();
+                        // notify the changed rows only, to keep the expanded descendants and avoid re-rendering the subtree.
+                        this.findChildren(LoadMoreNode.class).forEach(c -> this.removeChild(model, c));
+                        this.addChild(model, new LoadingNode());
                     } else {
                         this.removeAllChildren();
+                        this.add(new LoadingNode());
+                        this.doUpdateChildren();
                     }
-                    this.add(new LoadingNode());
-                    this.doUpdateChildren();
                     this.loaded = null;
                     this.loadChildren(incremental);
                 }
@@ -185,6 +190,7 @@ public class Tree extends SimpleTree implements DataProvider {
 
         private void setChildren(List<Node<?>> children) {
             AzureTaskManager.getInstance().runLater(() -> {
+                this.childrenUpdates++;
                 this.removeAllChildren();
                 children.stream().map(n -> new TreeNode<>(n, this.tree)).forEach(this::add);
                 this.addLoadMoreNode();
@@ -195,28 +201,81 @@ public class Tree extends SimpleTree implements DataProvider {
 
         private void updateChildren(List<Node<?>> children) {
             AzureTaskManager.getInstance().runLater(() -> {
+                final int update = ++this.childrenUpdates;
+                final DefaultTreeModel model = (DefaultTreeModel) this.tree.getModel();
                 final Map<Node<?>, TreeNode<?>> oldChildren = IntStream.range(0, this.getChildCount() - 1).mapToObj(this::getChildAt)
                     .filter(n -> n instanceof TreeNode<?>).map(n -> ((TreeNode<?>) n))
                     .collect(Collectors.toMap(n -> n.inner, n -> n));
 
                 final Set<Node<?>> newChildrenNodes = new HashSet<>(children);
                 final Set<Node<?>> oldChildrenNodes = oldChildren.keySet();
-                Sets.difference(oldChildrenNodes, newChildrenNodes).forEach(o -> oldChildren.get(o).removeFromParent());
-
-                for (int i = 0; i < children.size(); i++) {
-                    final Node<?> node = children.get(i);
-                    if (!oldChildrenNodes.contains(node)) {
-                        this.insert(new TreeNode<>(node, this.tree), i);
-                    } else { // discarded nodes should be disposed manually to unregister listeners.
+                Sets.difference(oldChildrenNodes, newChildrenNodes).forEach(o -> this.removeChild(model, oldChildren.get(o)));
+                this.findChildren(LoadingNode.class).forEach(c -> this.removeChild(model, c));
+                for (final Node<?> node : children) {
+                    final TreeNode<?> old = oldChildren.get(node);
+                    if (Objects.nonNull(old) && old.inner != node) { // discarded nodes should be disposed manually to unregister listeners.
                         node.dispose();
                     }
                 }
+                this.insertChildren(model, children, update, 0);
+            });
+        }
 
-                this.removeLoadingNode();
-                this.addLoadMoreNode();
-                this.doUpdateChildren();
+        /**
+         * insert the new children in batches, one batch per EDT event, so that thousands of children won't freeze the UI.
+         * the batches stop once a later children update starts, and every batch checks the children present right then.
+         */
+        private void insertChildren(DefaultTreeModel model, List<Node<?>> children, int update, int from) {
+            if (update != this.childrenUpdates) {
+                return;
+            }
+            final Set<Node<?>> existing = this.findChildren(TreeNode.class).stream().<Node<?>>map(n -> n.inner).collect(Collectors.toSet());
+            final int to = Math.min(from + CHILDREN_BATCH_SIZE, children.size());
+            final List<Integer> inserted = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                final Node<?> node = children.get(i);
+                if (!existing.contains(node)) {
+                    final int index = Math.min(i, this.getChildCount());
+                    this.insert(new TreeNode<>(node, this.tree), index);
+                    inserted.add(index);
+                }
+            }
+            if (!inserted.isEmpty() && this.isAttached(model)) {
+                model.nodesWereInserted(this, inserted.stream().mapToInt(Integer::intValue).toArray());
+            }
+            if (to < children.size()) {
+                AzureTaskManager.getInstance().runLater(() -> this.insertChildren(model, children, update, to));
+            } else {
+                if (this.inner.hasMoreChildren()) {
+                    this.addChild(model, new LoadMoreNode());
+                }
                 this.loaded = true;
-            });
+            }
+        }
+
+        private boolean isAttached(@Nullable DefaultTreeModel model) {
+            return Objects.nonNull(model) && (Objects.nonNull(this.getParent()) || Objects.equals(model.getRoot(), this));
+        }
+
+        private <N extends javax.swing.tree.TreeNode> List<N> findChildren(Class<N> type) {
+            return Collections.list(this.children()).stream().filter(type::isInstance).map(type::cast).collect(Collectors.toList());
+        }
+
+        private void addChild(@Nullable DefaultTreeModel model, MutableTreeNode child) {
+            this.add(child);
+            if (this.isAttached(model)) {
+                model.nodesWereInserted(this, new int[]{this.getChildCount() - 1});
+            }
+        }
+
+        private void removeChild(@Nullable DefaultTreeModel model, javax.swing.tree.TreeNode child) {
+            final int index = this.getIndex(child);
+            if (index >= 0) {
+                this.remove(index);
+                if (this.isAttached(model)) {
+                    model.nodesWereRemoved(this, new int[]{index}, new Object[]{child});
+                }
+            }
         }
 
         public void clearChildren() {
@@ -239,28 +298,12 @@ public class Tree extends SimpleTree implements DataProvider {
             }
         }
 
-        private void removeLoadingNode() {
-            this.children().asIterator().forEachRemaining(c -> {
-                if (c instanceof LoadingNode) {
-                    ((LoadingNode) c).removeFromParent();
-                }
-            });
-        }
-
         private void addLoadMoreNode() {
             if (this.inner.hasMoreChildren()) {
                 this.add(new LoadMoreNode());
             }
         }
 
-        private void removeLoadMoreNode() {
-            this.children().asIterator().forEachRemaining(c -> {
-                if (c instanceof LoadMoreNode) {
-                    ((LoadMoreNode) c).removeFromParent();
-                }
-            });
-        }
-
         @Override
         public String toString() {
             return this.inner.getView().getLabel();
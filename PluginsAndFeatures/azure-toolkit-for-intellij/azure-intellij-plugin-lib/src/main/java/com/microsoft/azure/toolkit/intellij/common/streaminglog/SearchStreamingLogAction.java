@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.streaminglog;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.ui.content.Content;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * searches the recent lines of the selected streaming log console of the tool window by level and keyword.
+ */
+public class SearchStreamingLogAction extends AnAction implements DumbAware {
+    private final ToolWindow toolWindow;
+
+    public SearchStreamingLogAction(@NotNull ToolWindow toolWindow) {
+        super("Search Recent Logs", "Search the recent lines of the log stream by level and keyword", AllIcons.Actions.Find);
+        this.toolWindow = toolWindow;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(getSelectedContent() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final Content content = getSelectedContent();
+        if (content != null) {
+            new StreamingLogSearchDialog(e.getProject(), content.getDisplayName(), (StreamingLogsConsoleView) content.getDisposer()).show();
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.EDT;
+    }
+
+    @Nullable
+    private Content getSelectedContent() {
+        return Optional.ofNullable(this.toolWindow.getContentManager().getSelectedContent())
+            .filter(c -> c.getDisposer() instanceof StreamingLogsConsoleView)
+            .orElse(null);
+    }
+}
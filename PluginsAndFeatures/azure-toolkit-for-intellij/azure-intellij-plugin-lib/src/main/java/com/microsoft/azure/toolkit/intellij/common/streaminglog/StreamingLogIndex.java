@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.streaminglog;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * in-memory index of the recent lines of a log stream, kept in a ring buffer so that the oldest lines are dropped
+ * when the capacity is reached. lines can be searched by level and keyword without touching the console.
+ */
+public class StreamingLogIndex {
+    private static final Pattern LEVEL_PATTERN =
+        Pattern.compile("\\b(TRACE|DEBUG|INFO|WARN|WARNING|ERROR|FATAL|CRITICAL)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final String[] lines;
+    private final String[] levels;
+    private int head = 0;
+    private int size = 0;
+
+    public StreamingLogIndex(int capacity) {
+        this.lines = new String[capacity];
+        this.levels = new String[capacity];
+    }
+
+    public synchronized void addAll(@NotNull Collection<String> newLines) {
+        for (final String line : newLines) {
+            final int tail = (head + size) % lines.length;
+            lines[tail] = line;
+            levels[tail] = getLevel(line);
+            if (size < lines.length) {
+                size++;
+            } else {
+                head = (head + 1) % lines.length;
+            }
+        }
+    }
+
+    /**
+     * @param level   the log level, e.g. {@code ERROR}, null to match all levels
+     * @param keyword the keyword to search case-insensitively, blank to match all lines
+     * @return the matched lines, the oldest first
+     */
+    @NotNull
+    public synchronized List<String> search(@Nullable String level, @Nullable String keyword) {
+        final String expectedLevel = StringUtils.isBlank(level) ? null : normalizeLevel(level);
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final int index = (head + i) % lines.length;
+            if ((expectedLevel == null || expectedLevel.equals(levels[index])) &&
+                (StringUtils.isBlank(keyword) || StringUtils.containsIgnoreCase(lines[index], keyword))) {
+                result.add(lines[index]);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    @Nullable
+    static String getLevel(@NotNull String line) {
+        final Matcher matcher = LEVEL_PATTERN.matcher(line);
+        return matcher.find() ? normalizeLevel(matcher.group(1)) : null;
+    }
+
+    @NotNull
+    private static String normalizeLevel(@NotNull String level) {
+        final String upper = level.trim().toUpperCase(Locale.ROOT);
+        switch (upper) {
+            case "WARNING":
+                return "WARN";
+            case "CRITICAL":
+                return "FATAL";
+            default:
+                return upper;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.streaminglog;
+
+import com.intellij.openapi.editor.colors.EditorColorsManager;
+import com.intellij.openapi.editor.colors.EditorFontType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * searches the recent lines of a streaming log console by level and keyword as they are typed, the matched lines are
+ * listed in the dialog and the console is not changed.
+ */
+public class StreamingLogSearchDialog extends DialogWrapper {
+    private static final String ALL_LEVELS = "All Levels";
+    private static final String[] LEVELS = {ALL_LEVELS, "FATAL", "ERROR", "WARN", "INFO", "DEBUG", "TRACE"};
+
+    private final StreamingLogsConsoleView consoleView;
+    private final ComboBox<String> levelBox = new ComboBox<>(LEVELS);
+    private final JBTextField keywordField = new JBTextField();
+    private final JBTextArea resultArea = new JBTextArea();
+    private final JBLabel resultLabel = new JBLabel();
+
+    public StreamingLogSearchDialog(@Nullable Project project, @NotNull String consoleName, @NotNull StreamingLogsConsoleView consoleView) {
+        super(project, false);
+        this.consoleView = consoleView;
+        this.setTitle(String.format("Search Recent Logs of %s", consoleName));
+        this.setModal(false);
+        this.init();
+        this.levelBox.addItemListener(e -> this.search());
+        this.keywordField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                search();
+            }
+        });
+        this.search();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        this.keywordField.getEmptyText().setText("Keyword");
+        this.resultArea.setEditable(false);
+        this.resultArea.setFont(EditorColorsManager.getInstance().getGlobalScheme().getFont(EditorFontType.PLAIN));
+        final JPanel filters = new JPanel(new BorderLayout(JBUI.scale(8), 0));
+        filters.add(this.levelBox, BorderLayout.WEST);
+        filters.add(this.keywordField, BorderLayout.CENTER);
+        final JBScrollPane results = new JBScrollPane(this.resultArea);
+        results.setPreferredSize(new Dimension(JBUI.scale(800), JBUI.scale(400)));
+        final JPanel panel = new JPanel(new BorderLayout(0, JBUI.scale(8)));
+        panel.add(filters, BorderLayout.NORTH);
+        panel.add(results, BorderLayout.CENTER);
+        panel.add(this.resultLabel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    @Override
+    public @Nullable JComponent getPreferredFocusedComponent() {
+        return this.keywordField;
+    }
+
+    @Override
+    protected Action @NotNull [] createActions() {
+        return new Action[]{getOKAction()};
+    }
+
+    private void search() {
+        final String level = ALL_LEVELS.equals(this.levelBox.getItem()) ? null : this.levelBox.getItem();
+        final List<String> lines = this.consoleView.findRecentLines(level, this.keywordField.getText());
+        this.resultArea.setText(String.join("\n", lines));
+        this.resultArea.setCaretPosition(this.resultArea.getDocument().getLength());
+        this.resultLabel.setText(String.format("%d matched lines in the recent logs", lines.size()));
+    }
+}
@@ -1,21 +1,41 @@
 package com.microsoft.azure.toolkit.intellij.common.streaminglog;
 
+import com.intellij.execution.impl.ConsoleBuffer;
 import com.intellij.execution.impl.ConsoleViewImpl;
 import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.ex.DocumentEx;
 import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Subscription;
 import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
 import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static com.intellij.execution.ui.ConsoleViewContentType.NORMAL_OUTPUT;
 import static com.intellij.execution.ui.ConsoleViewContentType.SYSTEM_OUTPUT;
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
 public class StreamingLogsConsoleView extends ConsoleViewImpl {
     private static final String SEPARATOR = System.getProperty("line.separator");
+    // lines are printed in batches, at most MAX_BATCH_LINES lines are requested from the log stream before printed
+    private static final int MAX_BATCH_LINES = 500;
+    private static final long FLUSH_INTERVAL_MILLIS = 100;
+    private static final int MAX_RETAINED_LINES = 10000;
+    // the size limit of the console if the "cycle buffer" of consoles is disabled by the user
+    private static final int MAX_DOCUMENT_SIZE = 4 * 1024 * 1024;
     private boolean isDisposed;
+    private boolean isDocumentLimited;
     private Disposable subscription;
+    private final StreamingLogIndex recentLines = new StreamingLogIndex(MAX_RETAINED_LINES);
 
     public StreamingLogsConsoleView(@NotNull Project project) {
         super(project, true);
@@ -26,9 +46,11 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
     public void startStreamingLog(Flux<String> logStreaming) {
         if (!isActive()) {
             printlnToConsole(message("app.logStreaming.hint.connect"), SYSTEM_OUTPUT);
-            subscription = logStreaming.subscribeOn(Schedulers.boundedElastic())
+            final BatchingLogSubscriber subscriber = new BatchingLogSubscriber();
+            subscription = subscriber;
+            logStreaming.subscribeOn(Schedulers.boundedElastic())
                     .doAfterTerminate(() -> printlnToConsole(message("appService.logStreaming.hint.disconnected"), SYSTEM_OUTPUT))
-                    .subscribe((log) -> printlnToConsole(log, NORMAL_OUTPUT));
+                    .subscribe(subscriber);
         }
     }
 
@@ -47,8 +69,37 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
         return this.isDisposed;
     }
 
+    /**
+     * search the recent lines of the log stream, the console is not changed.
+     *
+     * @param level   the log level, e.g. {@code ERROR}, null for all levels
+     * @param keyword the keyword to search, null for all lines
+     */
+    @NotNull
+    public List<String> findRecentLines(@Nullable String level, @Nullable String keyword) {
+        return recentLines.search(level, keyword);
+    }
+
+    // printed on the UI thread as the log lines are, so that the hints keep their order with the lines
     private void printlnToConsole(String message, ConsoleViewContentType consoleViewContentType) {
-        this.print(message + SEPARATOR, consoleViewContentType);
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (!this.isDisposed) {
+                this.print(message + SEPARATOR, consoleViewContentType);
+            }
+        });
+    }
+
+    // the console drops its oldest contents by the user's "cycle buffer" setting, otherwise limit its size here instead
+    // of growing without limit
+    private void limitDocumentSize() {
+        final Editor editor = getEditor();
+        if (isDocumentLimited || ConsoleBuffer.useCycleBuffer() || editor == null || editor.isDisposed()) {
+            return;
+        }
+        if (editor.getDocument() instanceof DocumentEx document) {
+            document.setCyclicBufferSize(MAX_DOCUMENT_SIZE);
+            isDocumentLimited = true;
+        }
     }
 
     @Override
@@ -57,4 +108,64 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
         this.isDisposed = true;
         closeStreamingLog();
     }
+
+    /**
+     * buffers the lines and prints them in batches, either every {@link #FLUSH_INTERVAL_MILLIS} or when
+     * {@link #MAX_BATCH_LINES} lines are buffered. the batches are printed on the UI thread in the order they are
+     * taken, and more lines are requested only after a batch is printed there, so that a fast log stream is slowed
+     * down to what the console can show instead of queued without limit.
+     */
+    private class BatchingLogSubscriber extends BaseSubscriber<String> {
+        private final List<String> pending = new ArrayList<>();
+        private Disposable flusher;
+
+        @Override
+        protected void hookOnSubscribe(@NotNull Subscription s) {
+            flusher = Schedulers.parallel().schedulePeriodically(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            request(MAX_BATCH_LINES);
+        }
+
+        @Override
+        protected void hookOnNext(@NotNull String line) {
+            final boolean isFull;
+            synchronized (pending) {
+                pending.add(line);
+                isFull = pending.size() >= MAX_BATCH_LINES;
+            }
+            if (isFull) {
+                flush();
+            }
+        }
+
+        @Override
+        protected void hookFinally(@NotNull SignalType type) {
+            if (flusher != null) {
+                flusher.dispose();
+            }
+            flush();
+        }
+
+        private void flush() {
+            // the batch is taken and queued to the UI thread under the same lock, so that the batches of the timer
+            // and of the log stream can't be printed out of order
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                final List<String> lines = new ArrayList<>(pending);
+                pending.clear();
+                ApplicationManager.getApplication().invokeLater(() -> printBatch(lines));
+            }
+        }
+
+        private void printBatch(List<String> lines) {
+            if (StreamingLogsConsoleView.this.isDisposed()) {
+                return;
+            }
+            recentLines.addAll(lines);
+            print(String.join(SEPARATOR, lines) + SEPARATOR, NORMAL_OUTPUT);
+            limitDocumentSize();
+            request(lines.size());
+        }
+    }
 }
@@ -15,6 +15,8 @@ import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public class StreamingLogsToolWindowFactory implements ToolWindowFactory {
 
     @Override
@@ -29,6 +31,7 @@ public class StreamingLogsToolWindowFactory implements ToolWindowFactory {
 
     @Override
     public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        toolWindow.setTitleActions(List.of(new SearchStreamingLogAction(toolWindow)));
         toolWindow.getContentManager().addContentManagerListener(new ContentManagerListener() {
             @Override
             public void contentRemoved(ContentManagerEvent contentManagerEvent) {
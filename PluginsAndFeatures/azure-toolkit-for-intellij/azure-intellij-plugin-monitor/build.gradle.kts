@@ -33,6 +33,8 @@ dependencies {
     implementation(libs.azureToolkitIdeApplicationinsightsLib)
     implementation("com.azure:azure-monitor-query:1.0.10")
     implementation("org.apache.commons:commons-csv:1.9.0")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.mockito:mockito-core:3.9.0")
 
     compileOnly("org.projectlombok:lombok:1.18.24")
     compileOnly("org.jetbrains:annotations:24.0.0")
@@ -8,6 +8,8 @@ package com.microsoft.azure.toolkit.intellij.monitor.view.right;
 import com.azure.monitor.query.models.LogsTable;
 import com.azure.monitor.query.models.LogsTableCell;
 import com.azure.monitor.query.models.LogsTableRow;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.ActionUpdateThread;
@@ -30,8 +32,8 @@ import com.microsoft.azure.toolkit.intellij.common.TextDocumentListenerAdapter;
 import com.microsoft.azure.toolkit.intellij.common.component.HighLightedCellRenderer;
 import com.microsoft.azure.toolkit.intellij.monitor.view.right.filter.KustoFilterComboBox;
 import com.microsoft.azure.toolkit.intellij.monitor.view.right.filter.TimeRangeFilterComboBox;
+import com.microsoft.azure.toolkit.intellij.monitor.view.right.table.LogQueryPager;
 import com.microsoft.azure.toolkit.intellij.monitor.view.right.table.LogTable;
-import com.microsoft.azure.toolkit.intellij.monitor.view.right.table.LogTableModel;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
@@ -41,6 +43,8 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
+import com.microsoft.azure.toolkit.lib.common.utils.TailingDebouncer;
 import com.microsoft.azure.toolkit.lib.monitor.LogAnalyticsWorkspace;
 import lombok.Setter;
 import org.apache.commons.csv.CSVFormat;
@@ -53,9 +57,13 @@ import javax.annotation.Nullable;
 import javax.swing.*;
 import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionListener;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
@@ -79,8 +87,23 @@ public class MonitorLogTablePanel implements Disposable {
     private final static String[] RESOURCE_COMBOBOX_COLUMN_NAMES = {"_ResourceId", "ResourceId"};
     private final static String[] LEVEL_COMBOBOX_COLUMN = {"Level"};
     private final static String RESULT_CSV_FILE = "result.csv";
+    /**
+     * distinct values of the filter columns, keyed by workspace and table.
+     */
+    private final static Cache<String, Map<String, List<String>>> FILTER_VALUES_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(64).expireAfterWrite(10, TimeUnit.MINUTES).build();
     @Setter
     private String initResourceId;
+    /**
+     * reloads the paged logs with the current filters, null if the logs are not paged.
+     * the paged rows can't be filtered in the table, so the search text reloads them instead.
+     */
+    @Nullable
+    private Runnable reloadPagedLogs;
+    // only the logs of the latest load are shown, e.g. when the search text reloads them while they are loading
+    private final AtomicInteger loadSequence = new AtomicInteger();
+    private final Debouncer searchPagedLogsLater = new TailingDebouncer(() -> AzureTaskManager.getInstance()
+            .runLater(() -> Optional.ofNullable(reloadPagedLogs).ifPresent(Runnable::run), AzureTask.Modality.ANY), 500);
 
     public MonitorLogTablePanel() {
         $$$setupUI$$$(); // tell IntelliJ to call createUIComponents() here.
@@ -97,6 +120,15 @@ public class MonitorLogTablePanel implements Disposable {
     }
 
     public String getQueryStringFromFilters(String tableName) {
+        final List<String> queryParams = getFilterQueryParams(tableName);
+        // display logs with latest time
+        queryParams.add("sort by TimeGenerated desc");
+        final String rowNumberLimitation = String.format("take %s", Azure.az().config().getMonitorQueryRowNumber());
+        queryParams.add(rowNumberLimitation);
+        return StringUtils.join(queryParams.stream().filter(StringUtils::isNotBlank).toList(), " | ");
+    }
+
+    private List<String> getFilterQueryParams(String tableName) {
         final List<String> queryParams = new ArrayList<>(Arrays.asList(tableName, timeRangeFilterComboBox.getKustoString()));
         if (Objects.nonNull(initResourceId)) {
             queryParams.add(String.format("where _ResourceId == \"%s\"", initResourceId));
@@ -106,14 +138,30 @@ public class MonitorLogTablePanel implements Disposable {
         if (logLevelLabel.isEnabled() && StringUtils.isNotBlank(levelComboBox.getKustoString())) {
             queryParams.add(levelComboBox.getKustoString());
         }
-        // display logs with latest time
-        queryParams.add("sort by TimeGenerated desc");
-        final String rowNumberLimitation = String.format("take %s", Azure.az().config().getMonitorQueryRowNumber());
-        queryParams.add(rowNumberLimitation);
-        return StringUtils.join(queryParams.stream().filter(StringUtils::isNotBlank).toList(), " | ");
+        return queryParams;
+    }
+
+    /**
+     * load the logs of the table with the filters page by page, the configured row number is the size of a page.
+     * the paged rows can't be filtered in the table, so the search text is filtered in the query.
+     */
+    public void loadPagedTableModel(@Nullable LogAnalyticsWorkspace selectedWorkspace, String tableName) {
+        this.reloadPagedLogs = () -> loadPagedTableModel(selectedWorkspace, tableName);
+        final List<String> queryParams = getFilterQueryParams(tableName);
+        if (StringUtils.isNotBlank(searchField.getText())) {
+            final String keyword = searchField.getText().trim().replace("\\", "\\\\").replace("\"", "\\\"");
+            queryParams.add(String.format("where * contains \"%s\"", keyword));
+        }
+        final String baseQuery = StringUtils.join(queryParams.stream().filter(StringUtils::isNotBlank).toList(), " | ");
+        loadTableModel(selectedWorkspace, w -> LogQueryPager.paged(w, baseQuery, Azure.az().config().getMonitorQueryRowNumber()));
     }
 
     public void loadTableModel(@Nullable LogAnalyticsWorkspace selectedWorkspace, String queryString) {
+        this.reloadPagedLogs = null;
+        loadTableModel(selectedWorkspace, w -> LogQueryPager.single(w, queryString));
+    }
+
+    private void loadTableModel(@Nullable LogAnalyticsWorkspace selectedWorkspace, Function<LogAnalyticsWorkspace, LogQueryPager> pagerFactory) {
         runButton.setEnabled(false);
         exportAction.setEnabled(false);
         saveFiltersButton.setEnabled(false);
@@ -123,16 +171,15 @@ public class MonitorLogTablePanel implements Disposable {
         }
         logTable.clearModel();
         logTable.setLoading(true);
+        final int sequence = loadSequence.incrementAndGet();
         AzureTaskManager.getInstance().runInBackground("load Azure Monitor data", () -> {
             try {
-                final LogsTable result = selectedWorkspace.executeQuery(queryString);
+                final LogQueryPager pager = pagerFactory.apply(selectedWorkspace);
+                final List<LogsTableRow> firstPage = pager.loadPage(0);
                 AzureTaskManager.getInstance().runLater(() -> {
-                    if (Objects.isNull(result)) {
-                        return;
-                    }
-                    if (result.getAllTableCells().size() > 0) {
+                    if (!firstPage.isEmpty() && sequence == loadSequence.get()) {
                         this.exportAction.setEnabled(true);
-                        this.logTable.setModel(result.getRows());
+                        this.logTable.setModel(pager, firstPage);
                     }
                 }, AzureTask.Modality.ANY);
             } catch (final Exception e) {
@@ -160,10 +207,15 @@ public class MonitorLogTablePanel implements Disposable {
         AzureTaskManager.getInstance().runInBackground("load filters", () -> {
             final Map<String, List<String>> result = new HashMap<>();
             try {
-                final List<String> tableColumns = queryColumnNameList(selectedWorkspace, tableName);
-                final List<String> specificColumnNames = new ArrayList<>(Arrays.asList(RESOURCE_COMBOBOX_COLUMN_NAMES));
-                specificColumnNames.addAll(Arrays.asList(LEVEL_COMBOBOX_COLUMN));
-                result.putAll(queryCellValueList(selectedWorkspace, tableName, specificColumnNames, tableColumns));
+                final String cacheKey = String.format("%s/%s", selectedWorkspace.getId(), tableName).toLowerCase();
+                final Map<String, List<String>> values = FILTER_VALUES_CACHE.get(cacheKey, () -> {
+                    final List<String> tableColumns = queryColumnNameList(selectedWorkspace, tableName);
+                    final List<String> specificColumnNames = new ArrayList<>(Arrays.asList(RESOURCE_COMBOBOX_COLUMN_NAMES));
+                    specificColumnNames.addAll(Arrays.asList(LEVEL_COMBOBOX_COLUMN));
+                    return queryCellValueList(selectedWorkspace, tableName, specificColumnNames, tableColumns);
+                });
+                // the combo box items may be modified, e.g. to add the initial resource id.
+                values.forEach((column, items) -> result.put(column, new ArrayList<>(items)));
             } catch (final Exception e) {
                 throw new AzureToolkitRuntimeException(e);
             } finally {
@@ -200,7 +252,13 @@ public class MonitorLogTablePanel implements Disposable {
         this.logTable.setDefaultRenderer(String.class, new HighLightedCellRenderer(searchField.getTextEditor()));
         this.logTable.setFont(JBUI.Fonts.create("JetBrains Mono", 12));
         this.logTable.getTableHeader().setFont(JBUI.Fonts.create("JetBrains Mono", 12));
-        searchField.addDocumentListener((TextDocumentListenerAdapter) () -> logTable.filter(searchField.getText()));
+        searchField.addDocumentListener((TextDocumentListenerAdapter) () -> {
+            if (Objects.nonNull(reloadPagedLogs)) {
+                searchPagedLogsLater.debounce();
+            } else {
+                logTable.filter(searchField.getText());
+            }
+        });
     }
 
     private void updateCombobox(Map<String, List<String>> map) {
@@ -280,10 +338,14 @@ public class MonitorLogTablePanel implements Disposable {
         final VirtualFile userHome = LocalFileSystem.getInstance().findFileByPath(System.getProperty("user.home"));
         final VirtualFileWrapper fileWrapper = dialog.save(userHome, RESULT_CSV_FILE);
         Optional.ofNullable(fileWrapper).map(VirtualFileWrapper::getFile).ifPresent(it ->
-                AzureTaskManager.getInstance().runInBackground("Export query data", () -> exportTableData(it, logTable.getLogTableModel())));
+                Optional.ofNullable(logTable.getLogTableModel().getPager()).ifPresent(pager ->
+                        AzureTaskManager.getInstance().runInBackground("Export query data", () -> exportTableData(it, pager.copy()))));
     }
 
-    private void exportTableData(File target, LogTableModel tableModel) {
+    /**
+     * write all the pages of the query to the csv file one by one, without keeping them in memory.
+     */
+    private void exportTableData(File target, LogQueryPager pager) {
         try {
             if (target == null) {
                 return;
@@ -295,12 +357,20 @@ public class MonitorLogTablePanel implements Disposable {
             if (!target.exists()) {
                 target.createNewFile();
             }
-            final CSVPrinter csvPrinter = new CSVPrinter(new FileWriter(target),
-                    CSVFormat.Builder.create().setHeader(tableModel.getColumnNames().toArray(new String[0])).build());
-            for (final LogsTableRow row : tableModel.getLogsTableRows()) {
-                csvPrinter.printRecord(row.getRow().stream().map(LogsTableCell::getValueAsString).toList());
+            List<LogsTableRow> rows = pager.loadPage(0);
+            if (rows.isEmpty()) {
+                return;
+            }
+            final String[] header = rows.get(0).getRow().stream().map(LogsTableCell::getColumnName).toArray(String[]::new);
+            try (final CSVPrinter csvPrinter = new CSVPrinter(new BufferedWriter(new FileWriter(target)),
+                    CSVFormat.Builder.create().setHeader(header).build())) {
+                for (int page = 1; !rows.isEmpty(); page++) {
+                    for (final LogsTableRow row : rows) {
+                        csvPrinter.printRecord(row.getRow().stream().map(LogsTableCell::getValueAsString).toList());
+                    }
+                    rows = pager.loadPage(page);
+                }
             }
-            csvPrinter.close();
             AzureMessager.getMessager().success(message("azure.monitor.export.succeed.message", target.getAbsolutePath()),
                    null, newShowInExplorerAction(target));
         } catch (final Exception e) {
@@ -343,6 +413,7 @@ public class MonitorLogTablePanel implements Disposable {
 
     @Override
     public void dispose() {
+        this.reloadPagedLogs = null;
         AzureEventBus.off("azure.monitor.change_workspace", onWorkspaceChanged);
     }
 }
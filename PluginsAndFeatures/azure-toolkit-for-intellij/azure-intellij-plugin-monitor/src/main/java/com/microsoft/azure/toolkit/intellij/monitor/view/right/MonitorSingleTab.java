@@ -87,8 +87,11 @@ public class MonitorSingleTab {
 
     private void loadLogs() {
         final LogAnalyticsWorkspace selectedWorkspace = this.parentView.getSelectedWorkspace();
-        final String queryString = this.isTableTab ? this.monitorLogTablePanel.getQueryStringFromFilters(tabName) : this.parentView.getQueryString(tabName);
-        this.monitorLogTablePanel.loadTableModel(selectedWorkspace, queryString);
+        if (this.isTableTab) {
+            this.monitorLogTablePanel.loadPagedTableModel(selectedWorkspace, tabName);
+        } else {
+            this.monitorLogTablePanel.loadTableModel(selectedWorkspace, this.parentView.getQueryString(tabName));
+        }
         this.monitorLogDetailsPanel.setStatus("No table cell is selected");
     }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.monitor.view.right.table;
+
+import com.azure.monitor.query.models.LogsTable;
+import com.azure.monitor.query.models.LogsTableCell;
+import com.azure.monitor.query.models.LogsTableRow;
+import com.microsoft.azure.toolkit.lib.monitor.LogAnalyticsWorkspace;
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * fetches the rows of a Kusto query page by page, the latest logs first.
+ * pages are sliced by {@code TimeGenerated} with a cursor (the time of the last fetched row and the number of fetched rows at
+ * that time) instead of fetching all the rows with {@code take}, so any fetched page can be fetched again by its cursor.
+ * the rows at the same time are ordered by {@code _ItemId}, so that the rows skipped by the cursor are always the same ones.
+ */
+public class LogQueryPager {
+    private static final String TIME_COLUMN = "TimeGenerated";
+    private static final String TIEBREAKER_COLUMN = "_ItemId";
+
+    private final LogAnalyticsWorkspace workspace;
+    private final String query;
+    /**
+     * the max rows of a page, or 0 if the query is not paged
+     */
+    @Getter
+    private final int pageSize;
+    /**
+     * the cursor of each fetched page and of the page next to them
+     */
+    private final List<Cursor> cursors = new ArrayList<>();
+    private boolean exhausted;
+
+    private LogQueryPager(@Nonnull LogAnalyticsWorkspace workspace, @Nonnull String query, int pageSize) {
+        this.workspace = workspace;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.cursors.add(null);
+    }
+
+    /**
+     * @param baseQuery query of the table with filters but without sort and take, e.g. {@code AppTraces | where TimeGenerated > ago(24h)}
+     */
+    @Nonnull
+    public static LogQueryPager paged(@Nonnull LogAnalyticsWorkspace workspace, @Nonnull String baseQuery, int pageSize) {
+        return new LogQueryPager(workspace, baseQuery, Math.max(pageSize, 1));
+    }
+
+    /**
+     * for the custom queries, which are executed as is in one page.
+     */
+    @Nonnull
+    public static LogQueryPager single(@Nonnull LogAnalyticsWorkspace workspace, @Nonnull String query) {
+        return new LogQueryPager(workspace, query, 0);
+    }
+
+    /**
+     * @return a new pager of the same query, starting from the first page
+     */
+    @Nonnull
+    public LogQueryPager copy() {
+        return new LogQueryPager(this.workspace, this.query, this.pageSize);
+    }
+
+    public boolean isPaged() {
+        return this.pageSize > 0;
+    }
+
+    public synchronized boolean hasPage(int page) {
+        return page < this.cursors.size() - 1 || (page == this.cursors.size() - 1 && !this.exhausted);
+    }
+
+    /**
+     * fetch the {@code page}, which should be fetched before or next to the fetched pages.
+     *
+     * @return the rows of the page, empty if there is no such page.
+     */
+    @Nonnull
+    public List<LogsTableRow> loadPage(int page) {
+        final Cursor cursor;
+        synchronized (this) {
+            if (!this.hasPage(page)) {
+                return Collections.emptyList();
+            }
+            cursor = this.cursors.get(page);
+        }
+        final List<LogsTableRow> rows = Optional.ofNullable(this.workspace.executeQuery(this.getPageQuery(cursor)))
+            .map(LogsTable::getRows).orElse(Collections.emptyList());
+        if (!this.isPaged()) {
+            this.onPageLoaded(page, null, true);
+            return rows;
+        }
+        final int skip = Objects.isNull(cursor) ? 0 : cursor.skip;
+        final List<LogsTableRow> result = rows.size() > skip ? new ArrayList<>(rows.subList(skip, rows.size())) : Collections.emptyList();
+        this.onPageLoaded(page, this.getNextCursor(cursor, result), result.size() < this.pageSize);
+        return result;
+    }
+
+    private synchronized void onPageLoaded(int page, @Nullable Cursor next, boolean last) {
+        if (page != this.cursors.size() - 1) {
+            return; // fetched again, keep the known cursors.
+        }
+        if (last || Objects.isNull(next)) {
+            this.exhausted = true;
+        } else {
+            this.cursors.add(next);
+        }
+    }
+
+    @Nonnull
+    private String getPageQuery(@Nullable Cursor cursor) {
+        if (!this.isPaged()) {
+            return this.query;
+        }
+        final StringBuilder builder = new StringBuilder(this.query);
+        int take = this.pageSize;
+        if (Objects.nonNull(cursor)) {
+            builder.append(String.format(" | where %s <= datetime(%s)", TIME_COLUMN, cursor.time.toInstant()));
+            take += cursor.skip;
+        }
+        return builder.append(String.format(" | sort by %s desc, %s desc | take %s", TIME_COLUMN, TIEBREAKER_COLUMN, take)).toString();
+    }
+
+    @Nullable
+    private Cursor getNextCursor(@Nullable Cursor cursor, @Nonnull List<LogsTableRow> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        final OffsetDateTime last = getTime(rows.get(rows.size() - 1));
+        if (Objects.isNull(last)) {
+            return null;
+        }
+        int skip = (int) rows.stream().map(LogQueryPager::getTime).filter(t -> Objects.nonNull(t) && last.isEqual(t)).count();
+        if (Objects.nonNull(cursor) && last.isEqual(cursor.time)) {
+            skip += cursor.skip;
+        }
+        return new Cursor(last.withOffsetSameInstant(ZoneOffset.UTC), skip);
+    }
+
+    @Nullable
+    private static OffsetDateTime getTime(@Nonnull LogsTableRow row) {
+        return row.getColumnValue(TIME_COLUMN).map(LogsTableCell::getValueAsDateTime).orElse(null);
+    }
+
+    private static class Cursor {
+        private final OffsetDateTime time;
+        /**
+         * rows at {@link #time} that are fetched in the previous pages
+         */
+        private final int skip;
+
+        private Cursor(OffsetDateTime time, int skip) {
+            this.time = time;
+            this.skip = skip;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
@@ -47,11 +48,26 @@ public class LogTable extends JBTable {
     }
 
     public void setModel(List<LogsTableRow> logsTableRows) {
-        logTableModel = new LogTableModel(logsTableRows);
+        this.setModel(null, logsTableRows);
+    }
+
+    public void setModel(@Nullable LogQueryPager pager, List<LogsTableRow> firstPage) {
+        logTableModel = new LogTableModel(pager, firstPage);
         this.setModel(logTableModel);
+        if (logTableModel.isPaged()) {
+            // only the fetched rows could be sorted or filtered, the query is sorted and filtered instead.
+            this.setRowSorter(null);
+        }
         this.setColumnWidth();
     }
 
+    @Override
+    public Component prepareRenderer(@Nonnull TableCellRenderer renderer, int row, int column) {
+        // only the visible rows are rendered, so the pages are fetched as the user scrolls.
+        logTableModel.onRowRendered(convertRowIndexToModel(row));
+        return super.prepareRenderer(renderer, row, column);
+    }
+
     public void clearModel() {
         this.logTableModel = new LogTableModel();
         this.setModel(logTableModel);
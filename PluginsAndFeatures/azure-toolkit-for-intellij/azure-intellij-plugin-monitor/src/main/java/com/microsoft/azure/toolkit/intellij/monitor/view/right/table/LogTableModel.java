@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.intellij.monitor.view.right.table;
 import com.azure.monitor.query.models.LogsColumnType;
 import com.azure.monitor.query.models.LogsTableCell;
 import com.azure.monitor.query.models.LogsTableRow;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
@@ -20,33 +21,73 @@ import javax.swing.table.TableModel;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
+/**
+ * keeps a window of the fetched pages only, the pages out of the window are fetched again by the {@link LogQueryPager} when
+ * they are rendered, and the page next to the last one is fetched when the last page is rendered. a page failed to be fetched
+ * is not fetched again until the query is run again.
+ * all the methods should be called on the EDT.
+ */
 public class LogTableModel implements TableModel {
+    private static final int MAX_CACHED_PAGES = 10;
     @Getter
     private final List<String> columnNames = new ArrayList<>();
     private final List<LogsColumnType> columnClasses = new ArrayList<>();
-    @Getter
-    private final List<LogsTableRow> logsTableRows = new ArrayList<>();
+    private final Map<Integer, List<LogsTableRow>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<LogsTableRow>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private final Set<Integer> failedPages = new HashSet<>();
     private final List<TableModelListener> tableModelListenerList = new ArrayList<>();
-
+    @Nullable
+    @Getter
+    private final LogQueryPager pager;
+    private final int pageSize;
+    private int rowCount;
 
     public LogTableModel() {
+        this.pager = null;
+        this.pageSize = Integer.MAX_VALUE;
+    }
+
+    public LogTableModel(List<LogsTableRow> logsTableRows) {
+        this(null, logsTableRows);
     }
 
-    public LogTableModel(List<LogsTableRow> logsTableRows ) {
-        this.columnClasses.addAll(logsTableRows.get(0).getRow().stream().map(LogsTableCell::getColumnType).toList());
-        this.columnNames.addAll(logsTableRows.get(0).getRow().stream().map(LogsTableCell::getColumnName).toList());
-        this.logsTableRows.addAll(logsTableRows);
+    /**
+     * @param firstPage the rows of the first page of the {@code pager}, should not be empty
+     */
+    public LogTableModel(@Nullable LogQueryPager pager, List<LogsTableRow> firstPage) {
+        this.columnClasses.addAll(firstPage.get(0).getRow().stream().map(LogsTableCell::getColumnType).toList());
+        this.columnNames.addAll(firstPage.get(0).getRow().stream().map(LogsTableCell::getColumnName).toList());
+        this.pager = pager;
+        this.pageSize = Objects.nonNull(pager) && pager.isPaged() ? pager.getPageSize() : Integer.MAX_VALUE;
+        this.pages.put(0, new ArrayList<>(firstPage));
+        this.rowCount = firstPage.size();
+    }
+
+    /**
+     * the rows of a paged model are fetched only when they are rendered, so they can't be sorted or filtered in the table.
+     */
+    public boolean isPaged() {
+        return Objects.nonNull(this.pager) && this.pager.isPaged();
     }
 
     @Override
     public int getRowCount() {
-        return this.logsTableRows.size();
+        return this.rowCount;
     }
 
     @Override
@@ -87,25 +128,26 @@ public class LogTableModel implements TableModel {
     @Override
     @Nullable
     public Object getValueAt(int rowIndex, int columnIndex) {
-        if (isRowInvalid(rowIndex)) {
+        final LogsTableRow row = getRow(rowIndex);
+        if (Objects.isNull(row)) {
             return null;
         }
         final LogsColumnType type = this.columnClasses.get(columnIndex);
         if (LogsColumnType.BOOL.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsBoolean();
+            return row.getRow().get(columnIndex).getValueAsBoolean();
         }
         if (LogsColumnType.INT.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsInteger();
+            return row.getRow().get(columnIndex).getValueAsInteger();
         }
         if (LogsColumnType.LONG.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsLong();
+            return row.getRow().get(columnIndex).getValueAsLong();
         }
         if (LogsColumnType.DATETIME.equals(type)) {
-            final OffsetDateTime dateTime = this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsDateTime();
+            final OffsetDateTime dateTime = row.getRow().get(columnIndex).getValueAsDateTime();
             final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.n a");
             return Optional.ofNullable(dateTime).map(d -> dateTime.format(dateTimeFormatter)).orElse(StringUtils.EMPTY);
         }
-        return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsString();
+        return row.getRow().get(columnIndex).getValueAsString();
     }
 
     @Override
@@ -113,13 +155,12 @@ public class LogTableModel implements TableModel {
         if (value != null && !(value instanceof String)) {
             throw new IllegalArgumentException(message("function.appSettings.validate.illegalType"));
         }
-        while (rowIndex >= this.logsTableRows.size()) {
-            final LogsTableCell newCell = new LogsTableCell(columnNames.get(columnIndex), LogsColumnType.STRING, columnIndex, rowIndex, value);
-            final LogsTableRow newRow = new LogsTableRow(rowIndex, List.of(newCell));
-            this.logsTableRows.add(newRow);
+        final LogsTableRow row = getRow(rowIndex);
+        if (Objects.isNull(row)) {
+            return;
         }
-        this.logsTableRows.get(rowIndex).getRow().add(columnIndex, new LogsTableCell(columnNames.get(columnIndex), LogsColumnType.STRING, columnIndex, rowIndex, value));
-        fireTableChanged();
+        row.getRow().set(columnIndex, new LogsTableCell(columnNames.get(columnIndex), LogsColumnType.STRING, columnIndex, rowIndex, value));
+        fireTableChanged(new TableModelEvent(this, rowIndex, rowIndex, columnIndex));
     }
 
     @Override
@@ -134,16 +175,84 @@ public class LogTableModel implements TableModel {
 
     public void clear() {
         this.columnNames.clear();
-        this.logsTableRows.clear();
-        fireTableChanged();
+        this.pages.clear();
+        this.failedPages.clear();
+        this.rowCount = 0;
+        fireTableChanged(new TableModelEvent(this));
+    }
+
+    /**
+     * fetch the page of the rendered row if it's out of the window, and the next page if the row is in the last page.
+     */
+    public void onRowRendered(int rowIndex) {
+        if (isRowInvalid(rowIndex)) {
+            return;
+        }
+        final int page = rowIndex / this.pageSize;
+        if (!this.pages.containsKey(page)) {
+            this.loadPage(page);
+        }
+        final int lastPage = (this.rowCount - 1) / this.pageSize;
+        if (page == lastPage && Objects.nonNull(this.pager) && this.pager.hasPage(lastPage + 1)) {
+            this.loadPage(lastPage + 1);
+        }
+    }
+
+    @Nullable
+    private LogsTableRow getRow(int rowIndex) {
+        if (isRowInvalid(rowIndex)) {
+            return null;
+        }
+        final List<LogsTableRow> rows = this.pages.get(rowIndex / this.pageSize);
+        final int index = rowIndex % this.pageSize;
+        return Objects.nonNull(rows) && index < rows.size() ? rows.get(index) : null;
+    }
+
+    private void loadPage(int page) {
+        final LogQueryPager pager = this.pager;
+        if (Objects.isNull(pager) || this.failedPages.contains(page) || !this.loadingPages.add(page)) {
+            return;
+        }
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            List<LogsTableRow> rows = null;
+            try {
+                rows = pager.loadPage(page);
+            } finally {
+                final List<LogsTableRow> loaded = rows;
+                AzureTaskManager.getInstance().runLater(() -> onPageLoaded(page, loaded), AzureTask.Modality.ANY);
+            }
+        });
+    }
+
+    private void onPageLoaded(int page, @Nullable List<LogsTableRow> rows) {
+        this.loadingPages.remove(page);
+        if (Objects.isNull(rows)) { // failed, don't fetch it again on every repaint
+            this.failedPages.add(page);
+            return;
+        }
+        if (rows.isEmpty() || this.columnNames.isEmpty()) { // cleared in the meantime
+            return;
+        }
+        final int first = page * this.pageSize;
+        this.pages.put(page, rows);
+        final TableModelEvent event;
+        if (first >= this.rowCount) {
+            this.rowCount = first + rows.size();
+            event = new TableModelEvent(this, first, this.rowCount - 1, TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT);
+        } else {
+            final int last = Math.min(first + rows.size(), this.rowCount) - 1;
+            event = new TableModelEvent(this, first, last, TableModelEvent.ALL_COLUMNS, TableModelEvent.UPDATE);
+        }
+        // notify right away, the row sorter requires the row count to be consistent with the insertion events.
+        List.copyOf(tableModelListenerList).forEach(listener -> listener.tableChanged(event));
     }
 
-    private void fireTableChanged() {
+    private void fireTableChanged(TableModelEvent event) {
         tableModelListenerList.forEach(listener ->
-                AzureTaskManager.getInstance().runLater(() -> listener.tableChanged(new TableModelEvent(this))));
+                AzureTaskManager.getInstance().runLater(() -> listener.tableChanged(event)));
     }
 
     private boolean isRowInvalid(int row) {
-        return row < 0 || row >= this.logsTableRows.size();
+        return row < 0 || row >= this.rowCount;
     }
 }
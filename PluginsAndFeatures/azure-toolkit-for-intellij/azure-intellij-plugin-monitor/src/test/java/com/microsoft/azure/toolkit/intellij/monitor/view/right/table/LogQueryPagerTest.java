@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.monitor.view.right.table;
+
+import com.azure.monitor.query.models.LogsColumnType;
+import com.azure.monitor.query.models.LogsTable;
+import com.azure.monitor.query.models.LogsTableCell;
+import com.azure.monitor.query.models.LogsTableRow;
+import com.microsoft.azure.toolkit.lib.monitor.LogAnalyticsWorkspace;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class LogQueryPagerTest {
+    private static final Pattern TIME_FILTER = Pattern.compile("where TimeGenerated <= datetime\\(([^)]+)\\)");
+    private static final Pattern TAKE = Pattern.compile("take (\\d+)$");
+
+    private final List<String> queries = new ArrayList<>();
+    private LogAnalyticsWorkspace workspace;
+    private List<LogsTableRow> table;
+
+    @Before
+    public void setUp() {
+        // the rows sorted by TimeGenerated and _ItemId desc, as the workspace returns them
+        table = Arrays.asList(
+            row("e", "2023-01-01T00:00:03Z"),
+            row("d", "2023-01-01T00:00:02Z"),
+            row("c", "2023-01-01T00:00:02Z"),
+            row("b", "2023-01-01T00:00:02Z"),
+            row("a", "2023-01-01T00:00:01Z"));
+        workspace = Mockito.mock(LogAnalyticsWorkspace.class);
+        Mockito.when(workspace.executeQuery(Mockito.anyString())).thenAnswer(invocation -> execute(invocation.getArgument(0)));
+    }
+
+    @Test
+    public void pagesAllRowsOnceWithTiedTimes() {
+        final LogQueryPager pager = LogQueryPager.paged(workspace, "AppTraces", 2);
+        Assert.assertEquals(Arrays.asList("e", "d"), ids(pager.loadPage(0)));
+        Assert.assertEquals(Arrays.asList("c", "b"), ids(pager.loadPage(1)));
+        Assert.assertEquals(Collections.singletonList("a"), ids(pager.loadPage(2)));
+        Assert.assertFalse(pager.hasPage(3));
+    }
+
+    @Test
+    public void fetchesPageAgainByItsCursor() {
+        final LogQueryPager pager = LogQueryPager.paged(workspace, "AppTraces", 2);
+        pager.loadPage(0);
+        pager.loadPage(1);
+        pager.loadPage(2);
+        Assert.assertEquals(Arrays.asList("c", "b"), ids(pager.loadPage(1)));
+        Assert.assertEquals(Arrays.asList("e", "d"), ids(pager.loadPage(0)));
+        Assert.assertFalse(pager.hasPage(3));
+    }
+
+    @Test
+    public void skipsTiedRowsOfPreviousPages() {
+        final LogQueryPager pager = LogQueryPager.paged(workspace, "AppTraces", 1);
+        Assert.assertEquals(Collections.singletonList("e"), ids(pager.loadPage(0)));
+        Assert.assertEquals(Collections.singletonList("d"), ids(pager.loadPage(1)));
+        Assert.assertEquals(Collections.singletonList("c"), ids(pager.loadPage(2)));
+        Assert.assertEquals("AppTraces | where TimeGenerated <= datetime(2023-01-01T00:00:02Z) | sort by TimeGenerated desc, _ItemId desc | take 2",
+            queries.get(queries.size() - 1));
+    }
+
+    @Test
+    public void sortsByTimeAndTiebreaker() {
+        LogQueryPager.paged(workspace, "AppTraces | where TimeGenerated > ago(24h)", 2).loadPage(0);
+        Assert.assertEquals("AppTraces | where TimeGenerated > ago(24h) | sort by TimeGenerated desc, _ItemId desc | take 2", queries.get(0));
+    }
+
+    @Test
+    public void doesNotFetchPagesNotNextToFetchedOnes() {
+        final LogQueryPager pager = LogQueryPager.paged(workspace, "AppTraces", 2);
+        Assert.assertFalse(pager.hasPage(1));
+        Assert.assertTrue(pager.loadPage(1).isEmpty());
+        Assert.assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    public void runsSingleQueryAsIs() {
+        final LogQueryPager pager = LogQueryPager.single(workspace, "AppTraces | take 3");
+        Assert.assertFalse(pager.isPaged());
+        Assert.assertEquals(5, pager.loadPage(0).size());
+        Assert.assertEquals(Collections.singletonList("AppTraces | take 3"), queries);
+        Assert.assertFalse(pager.hasPage(1));
+    }
+
+    private LogsTable execute(String query) {
+        queries.add(query);
+        List<LogsTableRow> rows = table;
+        final Matcher time = TIME_FILTER.matcher(query);
+        if (time.find()) {
+            final OffsetDateTime to = OffsetDateTime.parse(time.group(1));
+            rows = rows.stream().filter(r -> !OffsetDateTime.parse(timeOf(r)).isAfter(to)).collect(Collectors.toList());
+        }
+        final Matcher take = TAKE.matcher(query);
+        if (query.contains("sort by") && take.find()) {
+            rows = rows.subList(0, Math.min(rows.size(), Integer.parseInt(take.group(1))));
+        }
+        return new LogsTable(Collections.emptyList(), rows, Collections.emptyList());
+    }
+
+    private static LogsTableRow row(String id, String time) {
+        return new LogsTableRow(0, Arrays.asList(
+            new LogsTableCell("TimeGenerated", LogsColumnType.DATETIME, 0, 0, time),
+            new LogsTableCell("Message", LogsColumnType.STRING, 1, 0, id)));
+    }
+
+    private static String timeOf(LogsTableRow row) {
+        return row.getRow().get(0).getValueAsString();
+    }
+
+    private static List<String> ids(List<LogsTableRow> rows) {
+        return rows.stream().map(r -> r.getRow().get(1).getValueAsString()).collect(Collectors.toList());
+    }
+}
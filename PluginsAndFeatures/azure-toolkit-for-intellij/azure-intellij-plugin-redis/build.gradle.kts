@@ -33,6 +33,8 @@ dependencies {
     implementation(libs.azureToolkitIdeCommonLib)
     implementation(libs.azureToolkitIdeRedisLib)
     implementation("redis.clients:jedis:3.6.3")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.mockito:mockito-core:3.9.0")
 
     compileOnly("org.projectlombok:lombok:1.18.24")
     compileOnly("org.jetbrains:annotations:24.0.0")
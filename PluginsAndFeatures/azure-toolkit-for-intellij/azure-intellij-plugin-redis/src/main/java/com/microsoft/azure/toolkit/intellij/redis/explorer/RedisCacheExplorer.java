@@ -6,18 +6,19 @@
 package com.microsoft.azure.toolkit.intellij.redis.explorer;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
 import com.microsoft.azure.toolkit.intellij.common.AzureActionButton;
 import com.microsoft.azure.toolkit.intellij.common.properties.AzResourcePropertiesEditor;
+import com.microsoft.azure.toolkit.intellij.redis.explorer.RedisKeyIndex.KeyInfo;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.redis.RedisCache;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.StringUtils;
 import redis.clients.jedis.Jedis;
-import redis.clients.jedis.ScanParams;
-import redis.clients.jedis.ScanResult;
-import redis.clients.jedis.Tuple;
 import redis.clients.jedis.exceptions.JedisException;
 
 import javax.annotation.Nonnull;
@@ -28,13 +29,12 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Function;
-
-import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
+import java.util.stream.Collectors;
 
 
 public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
@@ -43,7 +43,14 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     public static final String INSIGHT_NAME = "AzurePlugin.IntelliJ.Editor.RedisCacheExplorer";
     private final RedisCache redis;
 
-    private String currentCursor;
+    private final KeyListModel keyModel = new KeyListModel();
+    @Nullable
+    private RedisKeyIndex keyIndex;
+    private boolean keyHasMore;
+    @Nullable
+    private RedisValuePager valuePager;
+    private boolean valueHasMore;
+    private boolean valueLoading;
     private String lastChosenKey;
 
     private static final String[] LIST_TITLE = new String[]{" Index", " Item"};
@@ -55,11 +62,10 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     private static final int TABLE_HEADER_FONT_SIZE = 16;
     private static final int SPLIT_PANE_DIVIDER_SIZE = 2;
     private static final double SPLIT_PANE_WEIGHT = 0.4;
-    private static final int DEFAULT_KEY_COUNT = 50;
     private static final int DEFAULT_REDIS_DB_NUMBER = 16;
     private static final int MAX_DATABASE_NUMBER = 64;
-    private static final long DEFAULT_RANGE_START = 0;
-    private static final int DEFAULT_VAL_COUNT = 500;
+    // the cells are sized by this key, the longer keys are shown in the tooltips
+    private static final String KEY_CELL_PROTOTYPE = "cache:session:00000000-0000-0000-0000-000000000000  string, TTL 59m";
 
     private static final String DEFAULT_SCAN_PATTERN = "*";
     private static final String ACTION_GET = "GET";
@@ -87,9 +93,14 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         this.redis = redis;
         final AzureTaskManager manager = AzureTaskManager.getInstance();
 
-        currentCursor = SCAN_POINTER_START;
         lastChosenKey = "";
 
+        // fixed cell size, so that the list only renders the visible keys instead of measuring all of them.
+        lstKey.setModel(keyModel);
+        lstKey.setCellRenderer(new KeyCellRenderer());
+        lstKey.setPrototypeCellValue(KEY_CELL_PROTOTYPE);
+        ToolTipManager.sharedInstance().registerComponent(lstKey);
+
         cbActionType.addItem(ACTION_SCAN);
         cbActionType.addItem(ACTION_GET);
 
@@ -103,6 +114,12 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
             .getDefaultRenderer();
         cellRenderer.setHorizontalAlignment(JLabel.LEFT);
         pnlInnerValue.setBackground(lstKey.getBackground());
+        pnlInnerValue.getVerticalScrollBar().addAdjustmentListener(event -> {
+            final BoundedRangeModel model = pnlInnerValue.getVerticalScrollBar().getModel();
+            if (!event.getValueIsAdjusting() && model.getValue() + model.getExtent() >= model.getMaximum()) {
+                RedisCacheExplorer.this.loadMoreValues();
+            }
+        });
 
         progressBar.setIndeterminate(true);
 
@@ -122,9 +139,17 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
             }
             RedisCacheExplorer.this.setWidgetEnableStatus(false);
             lastChosenKey = selectedKey;
+            final int database = cbDatabase.getSelectedIndex();
+            final KeyInfo info = keyModel.getInfo(selectedKey);
             manager.runOnPooledThread(() -> {
-                final Pair<String, ArrayList<String[]>> data = doWithRedis(jedis -> getValueByKey(jedis, selectedKey));
-                manager.runLater(() -> RedisCacheExplorer.this.showContent(data));
+                final String type = Objects.nonNull(info) && StringUtils.isNotBlank(info.getType()) ? info.getType() : doWithRedis(jedis -> {
+                    jedis.select(database);
+                    return jedis.type(selectedKey).toUpperCase();
+                });
+                final RedisValuePager pager = new RedisValuePager(this::connect, database, selectedKey, type);
+                final List<String[]> rows = pager.nextPage();
+                final boolean more = pager.hasMore();
+                manager.runLater(() -> RedisCacheExplorer.this.showContent(pager, rows, more));
             });
         });
 
@@ -139,14 +164,12 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
                 .withAuthRequired(true)
                 .withSource(this.redis)
                 .withIdParam(this.redis.getName())
-                .withHandler(ignore -> {
-                    RedisCacheExplorer.this.setWidgetEnableStatus(false);
-                    manager.runOnPooledThread(() -> {
-                        final ScanResult<String> r = doWithRedis(jedis -> jedis.scan(currentCursor, new ScanParams()
-                                .match(txtKeyPattern.getText()).count(DEFAULT_KEY_COUNT)));
-                        manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
-                    });
-                });
+                .withHandler(ignore -> manager.runLater(() -> {
+                    final RedisKeyIndex index = RedisCacheExplorer.this.keyIndex;
+                    if (Objects.nonNull(index)) {
+                        RedisCacheExplorer.this.loadMoreKeys(index);
+                    }
+                }));
         btnScanMore.setAction(scanMoreAction);
 
         txtKeyPattern.addActionListener(event -> onBtnSearchClick());
@@ -156,7 +179,7 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
             if (Objects.equals(selected, ACTION_GET)) {
                 btnScanMore.setEnabled(false);
             } else if (Objects.equals(selected, ACTION_SCAN)) {
-                btnScanMore.setEnabled(true);
+                btnScanMore.setEnabled(keyHasMore);
             }
         });
 
@@ -167,11 +190,16 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     }
 
     private <T> T doWithRedis(Function<Jedis, T> func) {
-        try (final Jedis jedis = this.redis.getJedisPool().getResource()) {
+        try (final Jedis jedis = this.connect()) {
             return func.apply(jedis);
         }
     }
 
+    @Nonnull
+    private Jedis connect() {
+        return this.redis.getJedisPool().getResource();
+    }
+
     @Nonnull
     @Override
     public JComponent getComponent() {
@@ -187,32 +215,39 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         }
     }
 
-    public void showScanResult(ScanResult<String> result) {
-        lstKey.removeAll();
-        final DefaultListModel<String> listModel = new DefaultListModel<>();
-        final List<String> keys = result.getResult();
-        Collections.sort(keys);
-        for (final String key : keys) {
-            listModel.addElement(key);
+    /**
+     * show the keys scanned by {@code index}, merged into the sorted keys shown before.
+     */
+    public void showKeys(@Nonnull RedisKeyIndex index, @Nonnull List<KeyInfo> keys, boolean hasMore) {
+        if (index != this.keyIndex) { // the pattern or database is changed
+            return;
+        }
+        keyModel.addAll(keys);
+        keyHasMore = hasMore;
+        if (StringUtils.isNotBlank(lastChosenKey)) {
+            final int selected = keyModel.indexOf(lastChosenKey);
+            if (selected >= 0) {
+                lstKey.setSelectedIndex(selected);
+            }
         }
-        lstKey.setModel(listModel);
-        currentCursor = result.getCursor();
         setWidgetEnableStatus(true);
-        clearValueArea();
     }
 
-    public void showContent(Pair<String, ArrayList<String[]>> val) {
-        if (Objects.isNull(val)) {
+    public void showContent(@Nullable RedisValuePager pager, @Nullable List<String[]> rows, boolean hasMore) {
+        this.valuePager = pager;
+        this.valueHasMore = hasMore;
+        this.valueLoading = false;
+        if (Objects.isNull(pager) || Objects.isNull(rows)) {
+            clearValueArea();
             setWidgetEnableStatus(true);
             return;
         }
-        final String type = val.getKey();
-        final ArrayList<String[]> value = val.getValue();
+        final String type = pager.getType();
         lblTypeValue.setText(type);
-        lblKeyValue.setText(lstKey.getSelectedValue());
+        lblKeyValue.setText(pager.getKey());
         if (Objects.equals(type, "STRING")) {
-            if (value.size() > 0 && value.get(0).length > 0) {
-                txtStringValue.setText(value.get(0)[0]);
+            if (rows.size() > 0 && rows.get(0).length > 0) {
+                txtStringValue.setText(rows.get(0)[0]);
             }
             setValueCompositeVisible(false);
         } else {
@@ -231,11 +266,10 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
                     columnNames = HASH_TITLE;
                     break;
                 default:
+                    setWidgetEnableStatus(true);
                     return;
             }
-            String[][] data = new String[value.size()][columnNames.length];
-            data = value.toArray(data);
-            final ReadOnlyTableModel tableModel = new ReadOnlyTableModel(data, columnNames);
+            final ReadOnlyTableModel tableModel = new ReadOnlyTableModel(rows.toArray(new String[0][]), columnNames);
             setValueCompositeVisible(true);
             tblInnerValue.setModel(tableModel);
         }
@@ -243,28 +277,72 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     }
 
     public void updateKeyList() {
-        final DefaultListModel<String> listModel = (DefaultListModel<String>) lstKey.getModel();
-        listModel.removeAllElements();
-        listModel.addElement(txtKeyPattern.getText());
-        lstKey.setModel(listModel);
+        final String key = txtKeyPattern.getText();
+        keyModel.clear();
+        keyModel.addAll(Collections.singletonList(new KeyInfo(key, "", -1)));
+        lastChosenKey = key;
         lstKey.setSelectedIndex(0);
     }
 
     public void getKeyFail() {
-        final DefaultListModel<String> listModel = (DefaultListModel<String>) lstKey.getModel();
-        listModel.removeAllElements();
+        keyModel.clear();
         setWidgetEnableStatus(true);
         clearValueArea();
     }
 
     private void onDataBaseSelect() {
+        this.startScan(DEFAULT_SCAN_PATTERN);
+    }
+
+    /**
+     * restart scanning the keys of the selected database with a new key index.
+     */
+    private void startScan(@Nonnull String pattern) {
+        if (Objects.nonNull(this.keyIndex)) {
+            this.keyIndex.close();
+        }
+        final RedisKeyIndex index = new RedisKeyIndex(this::connect, cbDatabase.getSelectedIndex(), pattern);
+        this.keyIndex = index;
+        this.keyHasMore = true;
+        this.keyModel.clear();
+        this.lastChosenKey = "";
+        this.valuePager = null;
+        clearValueArea();
+        loadMoreKeys(index);
+    }
+
+    private void loadMoreKeys(@Nonnull RedisKeyIndex index) {
+        setWidgetEnableStatus(false);
         final AzureTaskManager manager = AzureTaskManager.getInstance();
         manager.runOnPooledThread(() -> {
-            final ScanResult<String> r = doWithRedis(jedis -> {
-                jedis.select(cbDatabase.getSelectedIndex());
-                return jedis.scan(SCAN_POINTER_START, new ScanParams().match(DEFAULT_SCAN_PATTERN).count(DEFAULT_KEY_COUNT));
+            final List<KeyInfo> keys = index.nextPage();
+            final boolean more = index.hasMore();
+            manager.runLater(() -> RedisCacheExplorer.this.showKeys(index, keys, more));
+        });
+    }
+
+    /**
+     * append the next page of the shown value to the value table, e.g. when it's scrolled to the bottom.
+     */
+    private void loadMoreValues() {
+        final RedisValuePager pager = this.valuePager;
+        if (Objects.isNull(pager) || !valueHasMore || valueLoading) {
+            return;
+        }
+        valueLoading = true;
+        final AzureTaskManager manager = AzureTaskManager.getInstance();
+        manager.runOnPooledThread(() -> {
+            final List<String[]> rows = pager.nextPage();
+            final boolean more = pager.hasMore();
+            manager.runLater(() -> {
+                if (pager != this.valuePager || !(tblInnerValue.getModel() instanceof ReadOnlyTableModel)) {
+                    return;
+                }
+                final ReadOnlyTableModel model = (ReadOnlyTableModel) tblInnerValue.getModel();
+                rows.forEach(model::addRow);
+                valueHasMore = more;
+                valueLoading = false;
             });
-            manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
         });
     }
 
@@ -276,7 +354,7 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         lstKey.setEnabled(enabled);
         cbActionType.setEnabled(enabled);
         final String actionType = (String) cbActionType.getSelectedItem();
-        btnScanMore.setEnabled(enabled && Objects.equals(actionType, ACTION_SCAN));
+        btnScanMore.setEnabled(enabled && Objects.equals(actionType, ACTION_SCAN) && keyHasMore);
     }
 
     private void clearValueArea() {
@@ -298,21 +376,23 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         final String key = txtKeyPattern.getText();
         if (Objects.equals(actionType, ACTION_GET)) {
             final AzureTaskManager manager = AzureTaskManager.getInstance();
+            final int database = cbDatabase.getSelectedIndex();
             manager.runOnPooledThread(() -> {
-                final Pair<String, ArrayList<String[]>> result = doWithRedis(jedis ->
-                    jedis.exists(key) ? getValueByKey(jedis, key) : Pair.of("", new ArrayList<>()));
-                this.updateKeyList();
-                this.showContent(result);
+                final String type = doWithRedis(jedis -> {
+                    jedis.select(database);
+                    return jedis.exists(key) ? jedis.type(key).toUpperCase() : null;
+                });
+                final RedisValuePager pager = Objects.isNull(type) ? null : new RedisValuePager(this::connect, database, key, type);
+                final List<String[]> rows = Objects.isNull(pager) ? null : pager.nextPage();
+                final boolean more = Objects.nonNull(pager) && pager.hasMore();
+                manager.runLater(() -> {
+                    this.updateKeyList();
+                    this.showContent(pager, rows, more);
+                });
             });
         } else if (Objects.equals(actionType, ACTION_SCAN)) {
-            final AzureTaskManager manager = AzureTaskManager.getInstance();
-            manager.runOnPooledThread(() -> {
-                final ScanResult<String> r = doWithRedis(jedis -> jedis.scan(SCAN_POINTER_START, new ScanParams().match(key).count(DEFAULT_KEY_COUNT)));
-                manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
-            });
-            currentCursor = SCAN_POINTER_START;
+            this.startScan(key);
         }
-        lastChosenKey = "";
     }
 
     @Override
@@ -320,6 +400,81 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
 
     }
 
+    /**
+     * sorted keys of the list, merged with the newly scanned keys page by page.
+     */
+    private static class KeyListModel extends AbstractListModel<String> {
+        private List<String> keys = new ArrayList<>();
+        private final Map<String, KeyInfo> infos = new HashMap<>();
+
+        @Override
+        public int getSize() {
+            return keys.size();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return keys.get(index);
+        }
+
+        @Nullable
+        KeyInfo getInfo(@Nonnull String key) {
+            return infos.get(key);
+        }
+
+        int indexOf(@Nonnull String key) {
+            return Collections.binarySearch(keys, key);
+        }
+
+        void clear() {
+            final int size = keys.size();
+            keys = new ArrayList<>();
+            infos.clear();
+            if (size > 0) {
+                fireIntervalRemoved(this, 0, size - 1);
+            }
+        }
+
+        void addAll(@Nonnull List<KeyInfo> page) {
+            // a key may be returned more than once by SCAN
+            final List<String> added = page.stream().filter(i -> Objects.isNull(infos.putIfAbsent(i.getKey(), i)))
+                .map(KeyInfo::getKey).sorted().collect(Collectors.toList());
+            if (added.isEmpty()) {
+                return;
+            }
+            final List<String> merged = new ArrayList<>(keys.size() + added.size());
+            int i = 0, j = 0;
+            while (i < keys.size() || j < added.size()) {
+                if (j >= added.size() || (i < keys.size() && keys.get(i).compareTo(added.get(j)) < 0)) {
+                    merged.add(keys.get(i++));
+                } else {
+                    merged.add(added.get(j++));
+                }
+            }
+            final int oldSize = keys.size();
+            keys = merged;
+            if (oldSize > 0) {
+                fireContentsChanged(this, 0, oldSize - 1);
+            }
+            fireIntervalAdded(this, oldSize, merged.size() - 1);
+        }
+    }
+
+    private class KeyCellRenderer extends ColoredListCellRenderer<String> {
+        @Override
+        protected void customizeCellRenderer(@Nonnull JList<? extends String> list, String key, int index, boolean selected, boolean hasFocus) {
+            append(key);
+            setToolTipText(key);
+            final KeyInfo info = keyModel.getInfo(key);
+            if (Objects.isNull(info) || StringUtils.isBlank(info.getType())) {
+                return;
+            }
+            final String ttl = info.getTtl() >= 0 ? ", TTL " + StringUtil.formatDuration(info.getTtl()) : "";
+            append("  " + info.getType() + ttl, SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            setToolTipText(key + " (" + info.getType() + ttl + ")");
+        }
+    }
+
     private static class ReadOnlyTableModel extends DefaultTableModel {
         ReadOnlyTableModel(Object[][] data, String[] columnNames) {
             super(data, columnNames);
@@ -362,49 +517,6 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         }
     }
 
-    @Nullable
-    private Pair<String, ArrayList<String[]>> getValueByKey(Jedis jedis, String key) {
-        jedis.select(cbDatabase.getSelectedIndex());
-        final String type = jedis.type(key).toUpperCase();
-        final ArrayList<String[]> columnData = new ArrayList<>();
-        switch (type) {
-            case "STRING":
-                final String stringVal = jedis.get(key);
-                columnData.add(new String[]{stringVal});
-                return Pair.of("STRING", columnData);
-            case "LIST":
-                final long listLength = jedis.llen(key);
-                final List<String> listVal = jedis.lrange(key, DEFAULT_RANGE_START,
-                    listLength < DEFAULT_VAL_COUNT ? listLength : DEFAULT_VAL_COUNT);
-                for (int i = 0; i < listVal.size(); i++) {
-                    columnData.add(new String[]{String.valueOf(i + 1), listVal.get(i)});
-                }
-                return Pair.of("LIST", columnData);
-            case "SET":
-                final ScanResult<String> setVal = jedis.sscan(key, SCAN_POINTER_START, new ScanParams().count(DEFAULT_VAL_COUNT));
-                for (final String row : setVal.getResult()) {
-                    columnData.add(new String[]{row});
-                }
-                return Pair.of("SET", columnData);
-            case "ZSET":
-                final long zsetLength = jedis.zcard(key);
-                final Set<Tuple> zsetVal = jedis.zrangeWithScores(key, DEFAULT_RANGE_START,
-                    zsetLength < DEFAULT_VAL_COUNT ? zsetLength : DEFAULT_VAL_COUNT);
-                for (final Tuple tuple : zsetVal) {
-                    columnData.add(new String[]{String.valueOf(tuple.getScore()), tuple.getElement()});
-                }
-                return Pair.of("ZSET", columnData);
-            case "HASH":
-                final ScanResult<Map.Entry<String, String>> hashVal = jedis.hscan(key, SCAN_POINTER_START, new ScanParams().count(DEFAULT_VAL_COUNT));
-                for (final Map.Entry<String, String> hash : hashVal.getResult()) {
-                    columnData.add(new String[]{hash.getKey(), hash.getValue()});
-                }
-                return Pair.of("HASH", columnData);
-            default:
-                return null;
-        }
-    }
-
     @Override
     protected void onResourceDeleted() {
         this.manager.closeEditor(this.redis, project);
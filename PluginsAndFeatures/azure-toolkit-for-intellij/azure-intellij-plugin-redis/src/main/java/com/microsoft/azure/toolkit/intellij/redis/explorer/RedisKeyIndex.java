@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.explorer;
+
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisException;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
+
+/**
+ * scans the keys of a redis database matching a pattern for {@link RedisCacheExplorer}. keys are scanned in batches of
+ * {@link #SCAN_BATCH_SIZE} and one page ahead of the shown ones in background, so that "scan more" returns the prefetched
+ * page at once. the types and ttls of the scanned keys are fetched by pipelined {@code TYPE}/{@code PTTL} commands.
+ * the connections are provided by {@code connector}, e.g. a jedis pool of an embedded redis server.
+ */
+@Slf4j
+public class RedisKeyIndex {
+    public static final int PAGE_SIZE = 500;
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final Supplier<Jedis> connector;
+    private final int database;
+    private final String pattern;
+    private final Deque<KeyInfo> prefetched = new ArrayDeque<>();
+    private String cursor = SCAN_POINTER_START;
+    @Getter
+    private boolean exhausted;
+    private volatile boolean closed;
+
+    public RedisKeyIndex(@Nonnull Supplier<Jedis> connector, int database, @Nonnull String pattern) {
+        this.connector = connector;
+        this.database = database;
+        this.pattern = pattern;
+    }
+
+    /**
+     * take the next page of keys, scanning the rest of the page if not prefetched, and start prefetching the page after.
+     * should be called in background.
+     */
+    @Nonnull
+    public synchronized List<KeyInfo> nextPage() {
+        this.fill();
+        final List<KeyInfo> page = new ArrayList<>(Math.min(PAGE_SIZE, this.prefetched.size()));
+        while (page.size() < PAGE_SIZE && !this.prefetched.isEmpty()) {
+            page.add(this.prefetched.poll());
+        }
+        if (!this.exhausted && !this.closed) {
+            AzureTaskManager.getInstance().runOnPooledThread(this::prefetch);
+        }
+        return page;
+    }
+
+    public synchronized boolean hasMore() {
+        return !this.exhausted || !this.prefetched.isEmpty();
+    }
+
+    /**
+     * stop scanning, e.g. when the pattern or the database is changed.
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    private synchronized void prefetch() {
+        try {
+            this.fill();
+        } catch (final JedisException e) {
+            // the failure is thrown again by the next page.
+            log.debug("failed to prefetch redis keys.", e);
+        }
+    }
+
+    private void fill() {
+        if (this.exhausted || this.closed || this.prefetched.size() >= PAGE_SIZE) {
+            return;
+        }
+        try (final Jedis jedis = this.connector.get()) {
+            jedis.select(this.database);
+            final ScanParams params = new ScanParams().match(this.pattern).count(SCAN_BATCH_SIZE);
+            while (!this.exhausted && !this.closed && this.prefetched.size() < PAGE_SIZE) {
+                final ScanResult<String> result = jedis.scan(this.cursor, params);
+                this.cursor = result.getCursor();
+                this.exhausted = Objects.equals(this.cursor, SCAN_POINTER_START);
+                this.prefetched.addAll(describe(jedis, result.getResult()));
+            }
+        }
+    }
+
+    @Nonnull
+    private static List<KeyInfo> describe(@Nonnull Jedis jedis, @Nonnull List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Pipeline pipeline = jedis.pipelined();
+        final List<Response<String>> types = new ArrayList<>(keys.size());
+        final List<Response<Long>> ttls = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+            types.add(pipeline.type(key));
+            ttls.add(pipeline.pttl(key));
+        }
+        pipeline.sync();
+        final List<KeyInfo> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            result.add(new KeyInfo(keys.get(i), types.get(i).get().toUpperCase(), ttls.get(i).get()));
+        }
+        return result;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class KeyInfo {
+        private final String key;
+        private final String type;
+        /**
+         * remaining time to live in milliseconds, negative if the key has no expiration (-1) or is expired (-2)
+         */
+        private final long ttl;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.explorer;
+
+import lombok.Getter;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Tuple;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
+
+/**
+ * loads the value of a key page by page, instead of only the first range/scan page of the value: lists and zsets by
+ * index ranges, sets and hashes by {@code SSCAN}/{@code HSCAN} cursors until a page is filled. each row of a page is the
+ * cells of a row of the value table, e.g. {@code [index, item]} of a list.
+ */
+public class RedisValuePager {
+    public static final int PAGE_SIZE = 500;
+
+    private final Supplier<Jedis> connector;
+    private final int database;
+    @Getter
+    private final String key;
+    @Getter
+    private final String type;
+    private String cursor = SCAN_POINTER_START;
+    private long offset;
+    private boolean exhausted;
+
+    public RedisValuePager(@Nonnull Supplier<Jedis> connector, int database, @Nonnull String key, @Nonnull String type) {
+        this.connector = connector;
+        this.database = database;
+        this.key = key;
+        this.type = type;
+    }
+
+    public synchronized boolean hasMore() {
+        return !this.exhausted;
+    }
+
+    /**
+     * load the next page of the value, should be called in background.
+     */
+    @Nonnull
+    public synchronized List<String[]> nextPage() {
+        if (this.exhausted) {
+            return new ArrayList<>();
+        }
+        try (final Jedis jedis = this.connector.get()) {
+            jedis.select(this.database);
+            final List<String[]> rows = new ArrayList<>();
+            switch (this.type) {
+                case "STRING":
+                    rows.add(new String[]{jedis.get(this.key)});
+                    this.exhausted = true;
+                    break;
+                case "LIST":
+                    final List<String> items = jedis.lrange(this.key, this.offset, this.offset + PAGE_SIZE - 1);
+                    for (int i = 0; i < items.size(); i++) {
+                        rows.add(new String[]{String.valueOf(this.offset + i + 1), items.get(i)});
+                    }
+                    this.offset += items.size();
+                    this.exhausted = items.size() < PAGE_SIZE;
+                    break;
+                case "ZSET":
+                    final List<Tuple> tuples = new ArrayList<>(jedis.zrangeWithScores(this.key, this.offset, this.offset + PAGE_SIZE - 1));
+                    for (final Tuple tuple : tuples) {
+                        rows.add(new String[]{String.valueOf(tuple.getScore()), tuple.getElement()});
+                    }
+                    this.offset += tuples.size();
+                    this.exhausted = tuples.size() < PAGE_SIZE;
+                    break;
+                case "SET":
+                    // a scan page may contain less members than the count hint, so scan until the page is filled
+                    while (!this.exhausted && rows.size() < PAGE_SIZE) {
+                        final ScanResult<String> members = jedis.sscan(this.key, this.cursor, new ScanParams().count(PAGE_SIZE));
+                        members.getResult().forEach(m -> rows.add(new String[]{m}));
+                        this.moveCursor(members.getCursor());
+                    }
+                    break;
+                case "HASH":
+                    while (!this.exhausted && rows.size() < PAGE_SIZE) {
+                        final ScanResult<Map.Entry<String, String>> fields = jedis.hscan(this.key, this.cursor, new ScanParams().count(PAGE_SIZE));
+                        fields.getResult().forEach(f -> rows.add(new String[]{f.getKey(), f.getValue()}));
+                        this.moveCursor(fields.getCursor());
+                    }
+                    break;
+                default:
+                    this.exhausted = true;
+            }
+            return rows;
+        }
+    }
+
+    private void moveCursor(@Nonnull String cursor) {
+        this.cursor = cursor;
+        this.exhausted = Objects.equals(cursor, SCAN_POINTER_START);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.explorer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class RedisKeyIndexTest {
+    private static final int DATABASE = 3;
+
+    private Jedis jedis;
+    private Pipeline pipeline;
+    private int connects;
+
+    @Before
+    public void setUp() {
+        jedis = Mockito.mock(Jedis.class);
+        pipeline = Mockito.mock(Pipeline.class);
+        Mockito.when(jedis.pipelined()).thenReturn(pipeline);
+        Mockito.when(pipeline.type(Mockito.anyString())).thenAnswer(invocation -> response("string"));
+        Mockito.when(pipeline.pttl(Mockito.anyString())).thenAnswer(invocation -> response(-1L));
+        Mockito.doAnswer(invocation -> response(60000L)).when(pipeline).pttl("session:1");
+    }
+
+    @Test
+    public void scansByCursorUntilExhausted() {
+        scan("0", "17", "session:1", "session:2");
+        scan("17", "0", "session:3");
+
+        final RedisKeyIndex index = index();
+        final List<RedisKeyIndex.KeyInfo> page = index.nextPage();
+
+        Assert.assertEquals(Arrays.asList("session:1", "session:2", "session:3"), keys(page));
+        Assert.assertFalse(index.hasMore());
+        Assert.assertEquals(1, connects);
+        Mockito.verify(jedis).select(DATABASE);
+        Mockito.verify(jedis).scan(Mockito.eq("0"), Mockito.any(ScanParams.class));
+        Mockito.verify(jedis).scan(Mockito.eq("17"), Mockito.any(ScanParams.class));
+    }
+
+    @Test
+    public void describesEachScanBatchInOnePipeline() {
+        scan("0", "17", "session:1", "session:2");
+        scan("17", "0", "session:3");
+
+        final List<RedisKeyIndex.KeyInfo> page = index().nextPage();
+
+        Mockito.verify(pipeline, Mockito.times(3)).type(Mockito.anyString());
+        Mockito.verify(pipeline, Mockito.times(3)).pttl(Mockito.anyString());
+        Mockito.verify(pipeline, Mockito.times(2)).sync();
+        Assert.assertEquals("STRING", page.get(0).getType());
+        Assert.assertEquals(60000L, page.get(0).getTtl());
+        Assert.assertEquals(-1L, page.get(2).getTtl());
+    }
+
+    @Test
+    public void skipsPipelineOfEmptyScanBatch() {
+        scan("0", "17");
+        scan("17", "0", "session:1");
+
+        final List<RedisKeyIndex.KeyInfo> page = index().nextPage();
+
+        Assert.assertEquals(Collections.singletonList("session:1"), keys(page));
+        Mockito.verify(jedis, Mockito.times(1)).pipelined();
+    }
+
+    @Test
+    public void splitsScannedKeysIntoPages() {
+        final int total = RedisKeyIndex.PAGE_SIZE + 100;
+        scan("0", "0", IntStream.range(0, total).mapToObj(i -> "key:" + i).toArray(String[]::new));
+
+        final RedisKeyIndex index = index();
+        final List<RedisKeyIndex.KeyInfo> first = index.nextPage();
+        Assert.assertEquals(RedisKeyIndex.PAGE_SIZE, first.size());
+        Assert.assertTrue(index.hasMore());
+        final List<RedisKeyIndex.KeyInfo> second = index.nextPage();
+
+        Assert.assertEquals(100, second.size());
+        Assert.assertEquals("key:" + RedisKeyIndex.PAGE_SIZE, second.get(0).getKey());
+        Assert.assertFalse(index.hasMore());
+        // the rest of the keys are taken from the scanned ones without connecting again
+        Assert.assertEquals(1, connects);
+        Mockito.verify(jedis, Mockito.times(1)).scan(Mockito.anyString(), Mockito.any(ScanParams.class));
+    }
+
+    private RedisKeyIndex index() {
+        return new RedisKeyIndex(() -> {
+            connects++;
+            return jedis;
+        }, DATABASE, "session:*");
+    }
+
+    private void scan(String cursor, String next, String... keys) {
+        Mockito.when(jedis.scan(Mockito.eq(cursor), Mockito.any(ScanParams.class)))
+            .thenReturn(new ScanResult<>(next, new ArrayList<>(Arrays.asList(keys))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Response<T> response(T value) {
+        final Response<T> response = Mockito.mock(Response.class);
+        Mockito.when(response.get()).thenReturn(value);
+        return response;
+    }
+
+    private static List<String> keys(List<RedisKeyIndex.KeyInfo> page) {
+        return page.stream().map(RedisKeyIndex.KeyInfo::getKey).collect(Collectors.toList());
+    }
+}
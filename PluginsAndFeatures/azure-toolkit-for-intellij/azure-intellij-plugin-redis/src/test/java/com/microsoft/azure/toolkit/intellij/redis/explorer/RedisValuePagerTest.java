@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.explorer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class RedisValuePagerTest {
+    private static final int DATABASE = 2;
+    private static final String KEY = "value";
+
+    private Jedis jedis;
+
+    @Before
+    public void setUp() {
+        jedis = Mockito.mock(Jedis.class);
+    }
+
+    @Test
+    public void pagesListByIndexRanges() {
+        final int size = RedisValuePager.PAGE_SIZE;
+        Mockito.when(jedis.lrange(KEY, 0, size - 1)).thenReturn(items("item:", 0, size));
+        Mockito.when(jedis.lrange(KEY, size, 2L * size - 1)).thenReturn(items("item:", size, 2));
+
+        final RedisValuePager pager = pager("LIST");
+        final List<String[]> first = pager.nextPage();
+        Assert.assertEquals(size, first.size());
+        Assert.assertArrayEquals(new String[]{"1", "item:0"}, first.get(0));
+        Assert.assertTrue(pager.hasMore());
+        final List<String[]> second = pager.nextPage();
+
+        Assert.assertEquals(2, second.size());
+        Assert.assertArrayEquals(new String[]{String.valueOf(size + 1), "item:" + size}, second.get(0));
+        Assert.assertFalse(pager.hasMore());
+        Mockito.verify(jedis, Mockito.times(2)).select(DATABASE);
+    }
+
+    @Test
+    public void scansSetUntilPageFilled() {
+        final int half = RedisValuePager.PAGE_SIZE / 2;
+        Mockito.when(jedis.sscan(Mockito.eq(KEY), Mockito.eq("0"), Mockito.any(ScanParams.class)))
+            .thenReturn(new ScanResult<>("4", items("member:", 0, half)));
+        Mockito.when(jedis.sscan(Mockito.eq(KEY), Mockito.eq("4"), Mockito.any(ScanParams.class)))
+            .thenReturn(new ScanResult<>("9", items("member:", half, half)));
+        Mockito.when(jedis.sscan(Mockito.eq(KEY), Mockito.eq("9"), Mockito.any(ScanParams.class)))
+            .thenReturn(new ScanResult<>("0", items("member:", 2 * half, 1)));
+
+        final RedisValuePager pager = pager("SET");
+        final List<String[]> first = pager.nextPage();
+        Assert.assertEquals(2 * half, first.size());
+        Assert.assertTrue(pager.hasMore());
+        Mockito.verify(jedis, Mockito.never()).sscan(Mockito.eq(KEY), Mockito.eq("9"), Mockito.any(ScanParams.class));
+        final List<String[]> second = pager.nextPage();
+
+        Assert.assertEquals(1, second.size());
+        Assert.assertArrayEquals(new String[]{"member:" + 2 * half}, second.get(0));
+        Assert.assertFalse(pager.hasMore());
+    }
+
+    @Test
+    public void scansHashFieldsAndValues() {
+        final List<Map.Entry<String, String>> fields = new ArrayList<>();
+        fields.add(new AbstractMap.SimpleEntry<>("name", "redis"));
+        fields.add(new AbstractMap.SimpleEntry<>("port", "6380"));
+        Mockito.when(jedis.hscan(Mockito.eq(KEY), Mockito.eq("0"), Mockito.any(ScanParams.class)))
+            .thenReturn(new ScanResult<>("0", fields));
+
+        final RedisValuePager pager = pager("HASH");
+        final List<String[]> page = pager.nextPage();
+
+        Assert.assertEquals(2, page.size());
+        Assert.assertArrayEquals(new String[]{"port", "6380"}, page.get(1));
+        Assert.assertFalse(pager.hasMore());
+    }
+
+    @Test
+    public void loadsStringOnce() {
+        Mockito.when(jedis.get(KEY)).thenReturn("hello");
+
+        final RedisValuePager pager = pager("STRING");
+        final List<String[]> page = pager.nextPage();
+
+        Assert.assertArrayEquals(new String[]{"hello"}, page.get(0));
+        Assert.assertFalse(pager.hasMore());
+        Assert.assertEquals(Collections.emptyList(), pager.nextPage());
+        Mockito.verify(jedis, Mockito.times(1)).get(KEY);
+    }
+
+    private RedisValuePager pager(String type) {
+        return new RedisValuePager(() -> jedis, DATABASE, KEY, type);
+    }
+
+    private static List<String> items(String prefix, int from, int count) {
+        return IntStream.range(from, from + count).mapToObj(i -> prefix + i).collect(Collectors.toList());
+    }
+}
@@ -9,10 +9,10 @@ import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.module.ModuleUtil;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
-import com.intellij.openapi.roots.OrderEnumerator;
 import com.intellij.openapi.util.JDOMUtil;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.microsoft.azure.toolkit.intellij.common.ModuleLibraries;
 import com.microsoft.azure.toolkit.intellij.common.runconfig.IWebAppRunConfiguration;
 import com.microsoft.azure.toolkit.intellij.connector.*;
 import com.microsoft.azure.toolkit.intellij.facet.AzureFacet;
@@ -32,14 +32,11 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class AzureModule {
-    private static final Pattern PATTERN = Pattern.compile("(Gradle|Maven): (.+):(.+):(.+)");
-
     public static final String DOT_AZURE = ".azure";
     public static final String PROFILES_XML = "profiles.xml";
     static final String DOT_GITIGNORE = ".gitignore";
@@ -241,27 +238,14 @@ public class AzureModule {
     }
 
     public boolean hasAzureDependencies() {
-        final List<String> libs = new ArrayList<>();
-        OrderEnumerator.orderEntries(this.module).librariesOnly().forEachLibrary(l -> libs.add(l.getName()));
-        return libs.stream().filter(StringUtils::isNotBlank)
-            .map(PATTERN::matcher).filter(Matcher::matches)
-            .anyMatch(m -> {
-                final String artifactId = m.group(2).trim() + ":" + m.group(3).trim();
-                return StringUtils.equals(artifactId, "com.azure:azure-core") ||
-                    StringUtils.equals(artifactId, "com.microsoft.azure:azure-client-runtime") ||
-                    StringUtils.equals(artifactId, "com.microsoft.azure.functions:azure-functions-java-library");
-            });
+        final ModuleLibraries libraries = ModuleLibraries.of(this.module);
+        return libraries.contains("com.azure", "azure-core") ||
+            libraries.contains("com.microsoft.azure", "azure-client-runtime") ||
+            libraries.contains("com.microsoft.azure.functions", "azure-functions-java-library");
     }
 
     public boolean hasDependencies(@Nonnull final Pattern libPattern) {
-        final boolean[] hasDependencies = {false};
-        OrderEnumerator.orderEntries(this.module).forEachLibrary(library -> {
-            Optional.ofNullable(library.getName()).filter(StringUtils::isNotBlank)
-                .map(libPattern::matcher).filter(Matcher::matches)
-                .ifPresent(m -> hasDependencies[0] = true);
-            return !hasDependencies[0];
-        });
-        return hasDependencies[0];
+        return ModuleLibraries.of(this.module).anyMatch(libPattern);
     }
 
     public boolean hasValidConnections(@Nonnull final ResourceDefinition<?> definition) {
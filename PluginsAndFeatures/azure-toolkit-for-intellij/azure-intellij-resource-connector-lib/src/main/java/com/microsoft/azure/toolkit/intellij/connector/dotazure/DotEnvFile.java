@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.connector.dotazure;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import io.github.cdimascio.dotenv.internal.DotenvParser;
+import io.github.cdimascio.dotenv.internal.DotenvReader;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModule.DOT_ENV;
+
+/**
+ * in-memory model of a profile {@code .env} file, split into the sections generated for connections (starting with
+ * {@code # connection.id=<id>}) and the other contents, which are kept as they are. adding/removing a connection only
+ * updates its own section and the file is written atomically. the models are cached and shared by connection writes,
+ * env injection of runs and the code annotators, and evicted by VFS events of the files changed outside.
+ */
+public class DotEnvFile {
+    static final String CONNECTION_MARK = "# connection.id=";
+    private static final Map<Path, DotEnvFile> files = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final List<Section> sections;
+    @Nullable
+    private List<Pair<String, String>> variables;
+
+    private DotEnvFile(@Nonnull Path path, @Nonnull List<Section> sections) {
+        this.path = path;
+        this.sections = sections;
+    }
+
+    @Nonnull
+    public static DotEnvFile of(@Nonnull VirtualFile file) {
+        return files.computeIfAbsent(file.toNioPath(), DotEnvFile::read);
+    }
+
+    /**
+     * @return all variables defined in the file
+     */
+    @Nonnull
+    public synchronized List<Pair<String, String>> getVariables() {
+        if (Objects.isNull(this.variables)) {
+            if (!Files.isRegularFile(this.path)) {
+                return Collections.emptyList();
+            }
+            final DotenvReader reader = new DotenvReader(this.path.getParent().toString(), this.path.getFileName().toString());
+            final DotenvParser parser = new DotenvParser(reader, false, false);
+            this.variables = parser.parse().stream().map(e -> Pair.of(e.getKey(), e.getValue())).toList();
+        }
+        return this.variables;
+    }
+
+    /**
+     * @return the variables generated for the connection, values are kept as they are in the file (quoted).
+     */
+    @Nonnull
+    public synchronized List<Pair<String, String>> getGeneratedVariables(@Nonnull String connectionId) {
+        final Section section = this.findSection(connectionId);
+        if (Objects.isNull(section)) {
+            return Collections.emptyList();
+        }
+        return section.lines.stream().skip(1).filter(StringUtils::isNotBlank)
+            .map(l -> l.split("=", 2)).filter(a -> a.length == 2)
+            .map(a -> Pair.of(a[0], a[1])).toList();
+    }
+
+    /**
+     * replace the section of the connection with the {@code lines} if it exists, otherwise append a new section.
+     */
+    public synchronized void putConnection(@Nonnull String connectionId, @Nonnull List<String> lines) {
+        final List<String> sectionLines = new ArrayList<>();
+        sectionLines.add(CONNECTION_MARK + connectionId);
+        sectionLines.addAll(lines);
+        final Section section = this.findSection(connectionId);
+        if (Objects.nonNull(section)) {
+            if (section.lines.equals(sectionLines)) {
+                return;
+            }
+            section.lines.clear();
+            section.lines.addAll(sectionLines);
+        } else {
+            this.sections.add(new Section(connectionId, sectionLines));
+            this.sections.add(new Section(null, new ArrayList<>(List.of(""))));
+        }
+        this.save();
+    }
+
+    public synchronized void removeConnection(@Nonnull String connectionId) {
+        final Section section = this.findSection(connectionId);
+        if (Objects.isNull(section)) {
+            return;
+        }
+        final int index = this.sections.indexOf(section);
+        this.sections.remove(index);
+        // remove the blank line ending the section
+        if (index < this.sections.size()) {
+            final Section next = this.sections.get(index);
+            if (Objects.isNull(next.connectionId) && !next.lines.isEmpty() && StringUtils.isBlank(next.lines.get(0))) {
+                next.lines.remove(0);
+            }
+        }
+        this.save();
+    }
+
+    @Nullable
+    private Section findSection(@Nonnull String connectionId) {
+        return this.sections.stream().filter(s -> StringUtils.equalsIgnoreCase(s.connectionId, connectionId)).findFirst().orElse(null);
+    }
+
+    private void save() {
+        final String content = this.sections.stream().flatMap(s -> s.lines.stream())
+            .map(l -> l + System.lineSeparator()).collect(Collectors.joining());
+        final Path temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            files.remove(this.path); // reload from disk next time
+            throw new AzureToolkitRuntimeException(String.format("failed to write '%s'.", this.path), e);
+        }
+        this.variables = null;
+    }
+
+    @Nonnull
+    private static DotEnvFile read(@Nonnull Path path) {
+        final List<String> lines;
+        try {
+            lines = Files.isRegularFile(path) ? Files.readAllLines(path, StandardCharsets.UTF_8) : Collections.emptyList();
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to read '%s'.", path), e);
+        }
+        final List<Section> sections = new ArrayList<>();
+        Section current = null;
+        for (final String line : lines) {
+            final String trimmed = line.trim();
+            if (trimmed.startsWith(CONNECTION_MARK)) {
+                current = new Section(trimmed.substring(CONNECTION_MARK.length()), new ArrayList<>());
+                sections.add(current);
+            } else if (Objects.isNull(current) || (Objects.nonNull(current.connectionId) && StringUtils.isBlank(line))) {
+                current = new Section(null, new ArrayList<>());
+                sections.add(current);
+            }
+            current.lines.add(line);
+        }
+        return new DotEnvFile(path, sections);
+    }
+
+    @RequiredArgsConstructor
+    private static class Section {
+        /**
+         * null for the contents not generated for connections
+         */
+        @Nullable
+        private final String connectionId;
+        private final List<String> lines;
+    }
+
+    /**
+     * evicts the cached models of the {@code .env} files changed/moved/deleted outside.
+     */
+    public static class Listener implements BulkFileListener {
+        @Override
+        public void after(@Nonnull List<? extends VFileEvent> events) {
+            if (files.isEmpty()) {
+                return;
+            }
+            for (final VFileEvent event : events) {
+                if (event.getPath().endsWith(DOT_ENV)) {
+                    files.remove(Paths.get(event.getPath()));
+                }
+            }
+        }
+    }
+}
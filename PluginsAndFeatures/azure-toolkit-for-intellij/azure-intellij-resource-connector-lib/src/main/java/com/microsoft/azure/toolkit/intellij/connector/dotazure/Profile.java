@@ -22,23 +22,16 @@ import com.microsoft.azure.toolkit.lib.common.operation.OperationBundle;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.identities.Identity;
-import io.github.cdimascio.dotenv.internal.DotenvParser;
-import io.github.cdimascio.dotenv.internal.DotenvReader;
 import lombok.Getter;
 import lombok.SneakyThrows;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.intellij.connector.ConnectionTopics.CONNECTION_CHANGED;
 import static com.microsoft.azure.toolkit.intellij.connector.IManagedIdentitySupported.*;
@@ -77,9 +70,7 @@ public class Profile {
     }
 
     public static List<Pair<String, String>> load(@Nonnull VirtualFile dotEnv) {
-        final DotenvReader reader = new DotenvReader(dotEnv.getParent().getPath(), dotEnv.getName());
-        final DotenvParser parser = new DotenvParser(reader, false, false);
-        return parser.parse().stream().map(e -> Pair.of(e.getKey(), e.getValue())).toList();
+        return DotEnvFile.of(dotEnv).getVariables();
     }
 
     public synchronized Profile addApp(@Nonnull final AbstractAzResource<?, ?, ?> app) {
@@ -156,37 +147,18 @@ public class Profile {
 
     @AzureOperation(value = "internal/connector.generate_env_variables.resource", params = "connection.getResource().getName()")
     private static List<String> generateEnvLines(@Nonnull final Project project, @Nonnull final Connection<?, ?> connection) {
-        final ArrayList<String> lines = new ArrayList<>();
-        lines.add("# connection.id=" + connection.getId());
-        lines.addAll(connection.getEnvironmentVariables(project).entrySet().stream()
+        return connection.getEnvironmentVariables(project).entrySet().stream()
             .map((e) -> String.format("%s=\"%s\"", e.getKey(), e.getValue()))
-            .toList());
-        return lines;
+            .toList();
     }
 
-    @SneakyThrows(IOException.class)
     @AzureOperation(value = "boundary/connector.remove_connection_from_dotenv.resource", params = "connection.getResource().getName()")
     private void removeConnectionFromDotEnv(@Nonnull Connection<?, ?> connection) {
         if (Objects.isNull(this.dotEnvFile) || !this.dotEnvFile.isValid()) {
             // users may not have env file when they clone project from repo, so just return here
             return;
         }
-        final List<String> lines = Files.readAllLines(this.dotEnvFile.toNioPath());
-        final String startMark = "# connection.id=" + connection.getId();
-        boolean started = false;
-        final Iterator<String> each = lines.iterator();
-        while (each.hasNext()) {
-            final String line = each.next();
-            started = started || line.equalsIgnoreCase(startMark);
-            final boolean ended = started && !line.equalsIgnoreCase(startMark) && (StringUtils.isBlank(line.trim()) || line.trim().startsWith("# connection.id="));
-            if (started && (!ended || StringUtils.isBlank(line.trim()))) {
-                each.remove();
-            }
-            if (ended) {
-                break;
-            }
-        }
-        FileUtils.write(this.dotEnvFile.toNioPath().toFile(), lines.stream().collect(Collectors.joining(System.lineSeparator())) + System.lineSeparator(), StandardCharsets.UTF_8);
+        DotEnvFile.of(this.dotEnvFile).removeConnection(connection.getId());
     }
 
     @SneakyThrows(IOException.class)
@@ -200,8 +172,7 @@ public class Profile {
         final AzureString description = OperationBundle.description("boundary/connector.load_env.resource", connection.getResource().getDataId());
         return ApplicationManager.getApplication().executeOnPooledThread(() -> {
             try {
-                final String envVariables = generateEnvLines(module.getProject(), connection).stream().collect(Collectors.joining(System.lineSeparator()));
-                Files.writeString(this.dotEnvFile.toNioPath(), envVariables + System.lineSeparator() + System.lineSeparator(), StandardOpenOption.APPEND);
+                DotEnvFile.of(this.dotEnvFile).putConnection(connection.getId(), generateEnvLines(module.getProject(), connection));
                 this.profileDir.refresh(true, true);
                 final String message = String.format("The connection between %s and %s has been successfully created/updated.", connection.getResource().getName(), connection.getConsumer().getName());
                 AzureMessager.getMessager().success(message);
@@ -218,26 +189,11 @@ public class Profile {
     }
 
     @Nonnull
-    @SneakyThrows(IOException.class)
     public List<Pair<String, String>> getGeneratedEnvironmentVariables(@Nonnull Connection<?, ?> connection) {
         if (Objects.isNull(this.dotEnvFile) || !this.dotEnvFile.isValid()) {
             return Collections.emptyList();
         }
-        final List<String> lines = Files.readAllLines(this.dotEnvFile.toNioPath());
-        final String startMark = "# connection.id=" + connection.getId();
-        boolean started = false;
-        final List<String> generated = new ArrayList<>();
-        for (final String line : lines) {
-            started = started || line.equalsIgnoreCase(startMark);
-            final boolean ended = started && !line.equalsIgnoreCase(startMark) && (StringUtils.isBlank(line.trim()) || line.trim().startsWith("# connection.id="));
-            if (started && !ended && !line.equalsIgnoreCase(startMark) && StringUtils.isNotBlank(line)) {
-                generated.add(line);
-            }
-            if (ended) {
-                break;
-            }
-        }
-        return generated.stream().map(g -> g.split("=", 2)).map(a -> Pair.of(a[0], a[1])).toList();
+        return DotEnvFile.of(this.dotEnvFile).getGeneratedVariables(connection.getId());
     }
 
     public List<Connection<?, ?>> getConnections() {
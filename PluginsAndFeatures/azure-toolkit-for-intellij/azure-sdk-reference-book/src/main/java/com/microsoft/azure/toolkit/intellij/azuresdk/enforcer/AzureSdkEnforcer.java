@@ -9,9 +9,7 @@ import com.intellij.openapi.project.Project;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureJavaSdkEntity;
 import com.microsoft.azure.toolkit.intellij.azuresdk.referencebook.OpenReferenceBookAction;
-import com.microsoft.azure.toolkit.intellij.azuresdk.service.AzureSdkLibraryService;
 import com.microsoft.azure.toolkit.intellij.azuresdk.service.ProjectLibraryService;
-import com.microsoft.azure.toolkit.intellij.azuresdk.service.ProjectLibraryService.ProjectLibEntity;
 import com.microsoft.azure.toolkit.intellij.common.messager.IntellijAzureMessage;
 import com.microsoft.azure.toolkit.intellij.common.settings.IntellijStore;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
@@ -20,16 +18,13 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,18 +34,12 @@ import java.util.stream.Stream;
 public class AzureSdkEnforcer {
 
     public static void enforce(Project project) {
-        final Map<String, AzureJavaSdkEntity> allDeprecatedAzureLibs = AzureSdkLibraryService.getDeprecatedAzureSDKEntities().stream()
-            .collect(Collectors.toMap(AzureJavaSdkEntity::getPackageName, e -> e));
-        final Set<String> allDeprecatedAzureLibNames = allDeprecatedAzureLibs.keySet();
-        final Set<String> projectLibPackageNames = ProjectLibraryService.getProjectLibraries(project).stream()
-            .map(ProjectLibEntity::getPackageName).collect(Collectors.toSet());
-        final SetUtils.SetView<String> deprecatedProjectLibNames = SetUtils.intersection(projectLibPackageNames, allDeprecatedAzureLibNames);
         final String neverShowGainActionId = "user/common.never_show_again";
         if (Boolean.TRUE.equals(IntellijStore.getInstance().getState().getSuppressedActions().get(neverShowGainActionId))) {
             return;
         }
-        if (CollectionUtils.isNotEmpty(deprecatedProjectLibNames)) {
-            final List<AzureJavaSdkEntity> libs = deprecatedProjectLibNames.stream().map(allDeprecatedAzureLibs::get).collect(Collectors.toList());
+        final List<AzureJavaSdkEntity> libs = ProjectLibraryService.getDeprecatedProjectLibraries(project);
+        if (CollectionUtils.isNotEmpty(libs)) {
             AzureSdkEnforcer.warnDeprecatedLibs(libs, project);
         }
     }
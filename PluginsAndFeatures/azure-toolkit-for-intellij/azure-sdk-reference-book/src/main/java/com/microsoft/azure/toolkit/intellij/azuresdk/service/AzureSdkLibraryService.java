@@ -23,20 +23,20 @@ import com.microsoft.azure.toolkit.lib.common.cache.CacheManager;
 import com.microsoft.azure.toolkit.lib.common.cache.Cacheable;
 import com.microsoft.azure.toolkit.lib.common.cache.Preload;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -158,6 +158,39 @@ public class AzureSdkLibraryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return the Azure SDK libs of the {@code groupId} and {@code artifactId}, looked up from the index of all libs.
+     */
+    @Nonnull
+    public static List<AzureJavaSdkEntity> getAzureSDKEntities(@Nonnull final String groupId, @Nonnull final String artifactId) {
+        return getAzureSDKEntityIndex().getOrDefault(toPackageKey(groupId, artifactId), Collections.emptyList());
+    }
+
+    /**
+     * @return the deprecated Azure SDK lib of the {@code groupId} and {@code artifactId}, or null if it's not deprecated.
+     */
+    @Nullable
+    public static AzureJavaSdkEntity getDeprecatedAzureSDKEntity(@Nonnull final String groupId, @Nonnull final String artifactId) {
+        return getDeprecatedAzureSDKEntityIndex().get(toPackageKey(groupId, artifactId));
+    }
+
+    @Cacheable("sdk/packages/index")
+    private static Map<String, List<AzureJavaSdkEntity>> getAzureSDKEntityIndex() {
+        return loadAzureSDKEntities().stream()
+                .collect(Collectors.groupingBy(e -> toPackageKey(e.getGroupId(), e.getArtifactId())));
+    }
+
+    @Cacheable("sdk/packages/deprecated")
+    private static Map<String, AzureJavaSdkEntity> getDeprecatedAzureSDKEntityIndex() {
+        return getDeprecatedAzureSDKEntities().stream()
+                .collect(Collectors.toMap(e -> toPackageKey(e.getGroupId(), e.getArtifactId()), e -> e, (e1, e2) -> e1));
+    }
+
+    @Nonnull
+    private static String toPackageKey(@Nonnull final String groupId, @Nonnull final String artifactId) {
+        return (groupId.trim() + ":" + artifactId.trim()).toLowerCase();
+    }
+
     /**
      * get deprecated Azure SDK libs.
      * refer https://github.com/Azure/azure-sdk/blob/master/eng/README.md
@@ -173,26 +206,34 @@ public class AzureSdkLibraryService {
                 .collect(Collectors.toList());
     }
 
-    @SneakyThrows(MalformedURLException.class)
+    /**
+     * load from the on-disk cache of the remote metadata, which is revalidated in background, or the bundled copy if
+     * the remote metadata is never downloaded.
+     */
     @Cacheable("sdk/packages/spring")
     @AzureOperation(name = "boundary/sdk.load_spring_libs_metadata")
     private static List<AzureSdkServiceEntity> loadSpringSDKEntities() {
-        final List<AzureSdkServiceEntity> remote = loadSpringSDKEntities(new URL(SPRING_SDK_METADATA_URL));
-        if (CollectionUtils.isEmpty(remote)) {
+        final URL cached = AzureSdkMetadataCache.get(SPRING_SDK_METADATA_URL, AzureSdkLibraryService::evictCaches);
+        final List<AzureSdkServiceEntity> entities = Objects.isNull(cached) ? Collections.emptyList() : loadSpringSDKEntities(cached);
+        if (CollectionUtils.isEmpty(entities)) {
             return loadSpringSDKEntities(AzureSdkLibraryService.class.getResource(SDK_SPRING_SERVICES_BACKUP));
         }
-        return remote;
+        return entities;
     }
 
-    @SneakyThrows(MalformedURLException.class)
+    /**
+     * load from the on-disk cache of the remote metadata, which is revalidated in background, or the bundled copy if
+     * the remote metadata is never downloaded.
+     */
     @Cacheable("sdk/packages")
     @AzureOperation(name = "boundary/sdk.load_java_libs_meta_data")
     public static List<AzureJavaSdkEntity> loadAzureSDKEntities() {
-        final List<AzureJavaSdkEntity> remote = loadAzureSDKEntities(new URL(CLIENT_MGMT_SDK_METADATA_URL));
-        if (CollectionUtils.isEmpty(remote)) {
+        final URL cached = AzureSdkMetadataCache.get(CLIENT_MGMT_SDK_METADATA_URL, AzureSdkLibraryService::evictCaches);
+        final List<AzureJavaSdkEntity> entities = Objects.isNull(cached) ? Collections.emptyList() : loadAzureSDKEntities(cached);
+        if (CollectionUtils.isEmpty(entities)) {
             return loadAzureSDKEntities(AzureSdkLibraryService.class.getResource(SDK_JAVA_PACKAGES_BACKUP));
         }
-        return remote;
+        return entities;
     }
 
     public static List<AzureSdkServiceEntity> loadSpringSDKEntities(final URL destination) {
@@ -236,10 +277,20 @@ public class AzureSdkLibraryService {
         return Collections.emptySet();
     }
 
+    /**
+     * reload the metadata from the on-disk cache, and revalidate the cache in background.
+     */
     public static void refresh() {
+        evictCaches();
+        AzureSdkMetadataCache.refresh(AzureSdkLibraryService::evictCaches, SPRING_SDK_METADATA_URL, CLIENT_MGMT_SDK_METADATA_URL);
+    }
+
+    private static void evictCaches() {
         try {
             CacheManager.evictCache("sdk/services", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages", CacheEvict.ALL);
+            CacheManager.evictCache("sdk/packages/index", CacheEvict.ALL);
+            CacheManager.evictCache("sdk/packages/deprecated", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/spring", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/whitelist", CacheEvict.ALL);
         } catch (final ExecutionException e) {
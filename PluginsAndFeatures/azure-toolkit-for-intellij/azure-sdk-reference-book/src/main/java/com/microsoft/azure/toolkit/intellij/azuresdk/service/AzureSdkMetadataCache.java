@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import com.intellij.openapi.application.PathManager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * on-disk cache of the remote Azure SDK metadata files, so that the metadata is always loaded from disk (or the bundled
+ * copies if never downloaded) without waiting for the network. the cached files are revalidated in background once per
+ * session with conditional requests ({@code If-None-Match}/{@code If-Modified-Since}), and {@code onUpdated} is called
+ * once a newer version is downloaded.
+ */
+@Slf4j
+public class AzureSdkMetadataCache {
+    private static final int TIMEOUT_MILLIS = 10_000;
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return the cached copy of the {@code url}, or null if it's never downloaded.
+     */
+    @Nullable
+    public static URL get(@Nonnull final String url, @Nonnull final Runnable onUpdated) {
+        if (revalidating.add(url)) {
+            AzureTaskManager.getInstance().runOnPooledThread(() -> revalidate(url, onUpdated));
+        }
+        final Path file = getCacheFile(url);
+        try {
+            return Files.isRegularFile(file) ? file.toUri().toURL() : null;
+        } catch (final MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * revalidate the cached copies of the {@code urls} in background, even if they are revalidated in this session.
+     */
+    public static void refresh(@Nonnull final Runnable onUpdated, @Nonnull final String... urls) {
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            for (final String url : urls) {
+                revalidating.add(url);
+                revalidate(url, onUpdated);
+            }
+        });
+    }
+
+    private static synchronized void revalidate(@Nonnull final String url, @Nonnull final Runnable onUpdated) {
+        final Path file = getCacheFile(url);
+        final Path metaFile = getMetaFile(url);
+        final Properties meta = new Properties();
+        if (Files.isRegularFile(file) && Files.isRegularFile(metaFile)) {
+            try (final InputStream input = Files.newInputStream(metaFile)) {
+                meta.load(input);
+            } catch (final IOException e) {
+                meta.clear();
+            }
+        }
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            if (StringUtils.isNotBlank(meta.getProperty(ETAG))) {
+                connection.setRequestProperty("If-None-Match", meta.getProperty(ETAG));
+            }
+            if (StringUtils.isNotBlank(meta.getProperty(LAST_MODIFIED))) {
+                connection.setRequestProperty("If-Modified-Since", meta.getProperty(LAST_MODIFIED));
+            }
+            final int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return;
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                log.warn("failed to revalidate Azure SDK metadata \"{}\", status code: {}", url, code);
+                return;
+            }
+            final byte[] content;
+            try (final InputStream input = connection.getInputStream()) {
+                content = IOUtils.toByteArray(input);
+            }
+            if (ArrayUtils.isEmpty(content)) {
+                return;
+            }
+            final Properties newMeta = new Properties();
+            newMeta.setProperty(ETAG, StringUtils.defaultString(connection.getHeaderField("ETag")));
+            newMeta.setProperty(LAST_MODIFIED, StringUtils.defaultString(connection.getHeaderField("Last-Modified")));
+            Files.createDirectories(file.getParent());
+            writeAtomically(file, content);
+            final Path tempMeta = metaFile.resolveSibling(metaFile.getFileName() + ".tmp");
+            try (final OutputStream output = Files.newOutputStream(tempMeta)) {
+                newMeta.store(output, url);
+            }
+            Files.move(tempMeta, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            onUpdated.run();
+        } catch (final IOException e) {
+            log.warn(String.format("failed to revalidate Azure SDK metadata \"%s\"", url), e);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static void writeAtomically(@Nonnull final Path file, @Nonnull final byte[] content) throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Nonnull
+    private static Path getCacheFile(@Nonnull final String url) {
+        return getCacheDir().resolve(Integer.toHexString(url.hashCode()) + "-" + FilenameUtils.getName(url));
+    }
+
+    @Nonnull
+    private static Path getMetaFile(@Nonnull final String url) {
+        final Path file = getCacheFile(url);
+        return file.resolveSibling(file.getFileName() + ".properties");
+    }
+
+    @Nonnull
+    private static Path getCacheDir() {
+        return Paths.get(PathManager.getSystemPath(), "azure-sdk-reference-book");
+    }
+}
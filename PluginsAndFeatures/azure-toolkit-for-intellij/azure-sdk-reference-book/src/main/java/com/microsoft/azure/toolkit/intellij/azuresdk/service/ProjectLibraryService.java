@@ -6,33 +6,38 @@
 package com.microsoft.azure.toolkit.intellij.azuresdk.service;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.roots.OrderEnumerator;
+import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureJavaSdkEntity;
+import com.microsoft.azure.toolkit.intellij.common.ModuleLibraries;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class ProjectLibraryService {
-    private static final Pattern PATTERN = Pattern.compile("(Gradle|Maven): (.+):(.+):(.+)");
-
+    /**
+     * @return the maven/gradle libraries of the {@code project}, shared with the other dependency checks through
+     * {@link ModuleLibraries}, which is invalidated when the project roots change.
+     */
     @Nonnull
     public static List<ProjectLibEntity> getProjectLibraries(@Nonnull Project project) {
-        if (project.isDisposed()) {
-            return Collections.emptyList();
-        }
-        final List<String> libs = new ArrayList<>();
-        OrderEnumerator.orderEntries(project).forEachLibrary(library -> libs.add(library.getName()));
-        return libs.stream().filter(StringUtils::isNotBlank)
-            .map(PATTERN::matcher)
-            .filter(Matcher::matches)
-            .map(m -> new ProjectLibEntity(m.group(2).trim(), m.group(3).trim(), m.group(4).trim()))
+        return ModuleLibraries.of(project).stream()
+            .map(l -> new ProjectLibEntity(l.getGroupId(), l.getArtifactId(), l.getVersion()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the deprecated Azure SDK libs used by the {@code project}, each project lib is looked up in the index of
+     * deprecated libs instead of scanning all of them.
+     */
+    @Nonnull
+    public static List<AzureJavaSdkEntity> getDeprecatedProjectLibraries(@Nonnull Project project) {
+        return getProjectLibraries(project).stream()
+            .map(l -> AzureSdkLibraryService.getDeprecatedAzureSDKEntity(l.getGroupId(), l.getArtifactId()))
+            .filter(Objects::nonNull)
+            .distinct()
             .collect(Collectors.toList());
     }
 
@@ -50,11 +50,9 @@ public class WorkspaceTaggingService {
     }
 
     private static Set<String> getAzureDependencyTags(final String groupId, final String artifactId) {
-        return AzureSdkLibraryService.loadAzureSDKEntities()
+        return AzureSdkLibraryService.getAzureSDKEntities(groupId, artifactId)
             .stream()
-            .filter(entity -> StringUtils.isNotEmpty(entity.getType())
-                && StringUtils.equalsIgnoreCase(entity.getGroupId(), groupId)
-                && StringUtils.equalsIgnoreCase(entity.getArtifactId(), artifactId))
+            .filter(entity -> StringUtils.isNotEmpty(entity.getType()))
             .map(AzureJavaSdkEntity::getType)
             .collect(Collectors.toSet());
     }
@@ -8,6 +8,7 @@ import com.google.common.collect.ImmutableList;
 import com.microsoft.azure.hdinsight.common.ClusterManagerEx;
 import com.microsoft.azure.hdinsight.common.JobViewManager;
 import com.microsoft.azure.hdinsight.sdk.cluster.*;
+import com.microsoft.azure.hdinsight.spark.jobs.JobViewCacheManager;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
@@ -56,6 +57,8 @@ public class SparkClusterModule extends AbstractAzResourceModule<SparkClusterNod
             for (IClusterDetail detail : clusterDetails) {
                 JobViewManager.registerJovViewNode(detail.getName(), detail);
             }
+            // the clusters are refreshed, the job views load the data of their applications again
+            JobViewCacheManager.invalidateAll();
 
             // Remove duplicate clusters that share the same cluster name
             List<IClusterDetail> additionalClusterDetails = ClusterManagerEx.getInstance().getAdditionalClusterDetails();
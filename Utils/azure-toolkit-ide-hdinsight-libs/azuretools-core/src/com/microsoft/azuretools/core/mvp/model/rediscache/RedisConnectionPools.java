@@ -5,25 +5,86 @@
 
 package com.microsoft.azuretools.core.mvp.model.rediscache;
 
+import com.azure.core.http.policy.HttpLogDetailLevel;
+import com.azure.core.http.policy.HttpLogOptions;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.redis.RedisManager;
 import com.azure.resourcemanager.redis.models.RedisCache;
+import com.azure.resourcemanager.redis.models.SkuName;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.auth.Account;
+import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
+/**
+ * Registry of the Jedis connection pools of several Redis Caches.
+ * The pools are kept up to {@link #MAX_POOLS} caches in LRU order and destroyed after being idle for
+ * {@link #IDLE_TIMEOUT_MILLIS}, the pools with connections in use are never destroyed by either. The pools are
+ * created and destroyed under striped locks, so that connecting to one cache doesn't block getting connections
+ * of the others.
+ */
 public class RedisConnectionPools {
 
     private static final int TIMEOUT = 500;
-    private static final int MAX_CONNECTIONS = 1;
+    static final int MAX_POOLS = 4;
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int LOCK_STRIPES = 16;
+    private static final int BASIC_MAX_CONNECTIONS = 2;
+    private static final int STANDARD_MAX_CONNECTIONS = 4;
+    private static final int PREMIUM_MAX_CONNECTIONS = 8;
     private static final String GANNOT_GET_RESID = "Cannot get Redis Cache from Azure.";
 
-    private LinkedHashMap<String, JedisPool> pools;
+    private final Map<String, PoolEntry> pools = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxConnections = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Connector connector;
+    private final LongSupplier clock;
 
     private RedisConnectionPools() {
-        this.pools = new LinkedHashMap<String, JedisPool>(MAX_CONNECTIONS);
+        this.connector = this::connect;
+        this.clock = System::currentTimeMillis;
+        initLocks();
+
+        final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "redis-connection-pools-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::releaseIdlePools, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Create the pools with the given connector and clock, the idle pools are only released by
+     * {@link #releaseIdlePools()}.
+     */
+    RedisConnectionPools(Connector connector, LongSupplier clock) {
+        this.connector = connector;
+        this.clock = clock;
+        initLocks();
+    }
+
+    private void initLocks() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
     }
 
     private static final class RedisConnectionFactoryHolder {
@@ -34,6 +95,79 @@ public class RedisConnectionPools {
         return RedisConnectionFactoryHolder.INSTANCE;
     }
 
+    /**
+     * Create the connection pool of a Redis Cache.
+     */
+    @FunctionalInterface
+    interface Connector {
+        PoolEntry connect(String sid, String id) throws Exception;
+    }
+
+    static final class PoolEntry {
+        private final JedisPool pool;
+        private final int maxTotal;
+        // the callers between getting the entry and borrowing a connection from its pool
+        private final AtomicInteger borrowers = new AtomicInteger();
+        private volatile long lastAccess;
+
+        PoolEntry(JedisPool pool, int maxTotal) {
+            this.pool = pool;
+            this.maxTotal = maxTotal;
+        }
+
+        private boolean isInUse() {
+            return borrowers.get() > 0 || pool.getNumActive() > 0;
+        }
+    }
+
+    /**
+     * Utilization of the connection pool of a Redis Cache.
+     */
+    public static final class PoolUsage {
+        private final String id;
+        private final int active;
+        private final int idle;
+        private final int waiters;
+        private final int maxTotal;
+
+        private PoolUsage(String id, int active, int idle, int waiters, int maxTotal) {
+            this.id = id;
+            this.active = active;
+            this.idle = idle;
+            this.waiters = waiters;
+            this.maxTotal = maxTotal;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getWaiters() {
+            return waiters;
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public double getUtilization() {
+            return maxTotal == 0 ? 0 : (double) active / maxTotal;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d active, %d idle, %d waiting", id, active, maxTotal, idle, waiters);
+        }
+    }
+
     /**
      * Get Jedis connection.
      *
@@ -44,14 +178,29 @@ public class RedisConnectionPools {
      * @return jedis connection
      * @throws IOException Error getting the Redis Cache
      */
-    public synchronized Jedis getJedis(String sid, String id) throws Exception  {
-        if (pools.get(id) == null) {
-            if (pools.size() == MAX_CONNECTIONS) {
-                releasePool(pools.keySet().iterator().next());
+    public Jedis getJedis(String sid, String id) throws Exception  {
+        final PoolEntry entry;
+        final boolean isCreated;
+        // the entry is got and marked as being borrowed from under the lock, so that it can't be destroyed by
+        // the LRU eviction or the idle reaper before the connection is borrowed
+        synchronized (lockOf(id)) {
+            final PoolEntry existing = pools.get(id);
+            isCreated = existing == null;
+            entry = isCreated ? connector.connect(sid, id) : existing;
+            if (isCreated) {
+                pools.put(id, entry);
+            }
+            entry.lastAccess = clock.getAsLong();
+            entry.borrowers.incrementAndGet();
+        }
+        try {
+            if (isCreated) {
+                releaseLeastRecentlyUsedPools();
             }
-            connect(sid, id);
+            return entry.pool.getResource();
+        } finally {
+            entry.borrowers.decrementAndGet();
         }
-        return pools.get(id).getResource();
     }
 
     /**
@@ -60,20 +209,82 @@ public class RedisConnectionPools {
      * @param id
      *            id of the jedisPool which needs to be destroyed
      */
-    public synchronized void releasePool(String id) {
-        if (pools.containsKey(id)) {
-            JedisPool jedisPool = pools.get(id);
-            if (jedisPool != null) {
-                jedisPool.destroy();
+    public void releasePool(String id) {
+        synchronized (lockOf(id)) {
+            final PoolEntry entry = pools.remove(id);
+            if (entry != null) {
+                entry.pool.destroy();
+            }
+        }
+    }
+
+    /**
+     * Set the max connections of the Redis Cache pool, it takes effect when the pool is created next time.
+     *
+     * @param id
+     *            resource id of Redis Cache
+     * @param max
+     *            max connections, which is decided by the pricing tier of Redis Cache if not set
+     */
+    public void setMaxConnections(String id, int max) {
+        maxConnections.put(id, max);
+    }
+
+    /**
+     * Get the utilization of all connection pools.
+     *
+     * @return pool usages, the most recently used first
+     */
+    public List<PoolUsage> getPoolUsages() {
+        final List<Map.Entry<String, PoolEntry>> entries = new ArrayList<>(pools.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, PoolEntry> e) -> e.getValue().lastAccess).reversed());
+        final List<PoolUsage> usages = new ArrayList<>();
+        for (final Map.Entry<String, PoolEntry> e : entries) {
+            final JedisPool pool = e.getValue().pool;
+            usages.add(new PoolUsage(e.getKey(), pool.getNumActive(), pool.getNumIdle(), pool.getNumWaiters(),
+                    e.getValue().maxTotal));
+        }
+        return usages;
+    }
+
+    // the pools with connections in use are kept, even if there are more than MAX_POOLS pools then
+    private void releaseLeastRecentlyUsedPools() {
+        final List<Map.Entry<String, PoolEntry>> entries = new ArrayList<>(pools.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (final Map.Entry<String, PoolEntry> e : entries) {
+            if (pools.size() <= MAX_POOLS) {
+                return;
+            }
+            releaseUnusedPool(e.getKey(), e.getValue().lastAccess);
+        }
+    }
+
+    /**
+     * Destroy the pools which are idle for {@link #IDLE_TIMEOUT_MILLIS} and have no connections in use.
+     */
+    void releaseIdlePools() {
+        final long idleSince = clock.getAsLong() - IDLE_TIMEOUT_MILLIS;
+        new ArrayList<>(pools.keySet()).forEach(id -> releaseUnusedPool(id, idleSince));
+    }
+
+    // the pool is checked again under the lock, it may be used since it's chosen
+    private void releaseUnusedPool(String id, long accessedBefore) {
+        synchronized (lockOf(id)) {
+            final PoolEntry entry = pools.get(id);
+            if (entry == null || entry.lastAccess > accessedBefore || entry.isInUse()) {
+                return;
             }
             pools.remove(id);
+            entry.pool.destroy();
         }
     }
 
-    private void connect(String sid, String id) throws Exception {
-        // try to delete AzureRedisMvpModel
-        RedisCache redisCache = null;//AzureRedisMvpModel.getInstance().getRedisCache(sid, id);
+    private Object lockOf(String id) {
+        return locks[(id.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
 
+    private PoolEntry connect(String sid, String id) throws Exception {
+        final RedisCache redisCache = getRedisManager(sid).redisCaches().getById(id);
         if (redisCache == null) {
             throw new Exception(GANNOT_GET_RESID);
         }
@@ -83,8 +294,36 @@ public class RedisConnectionPools {
         String password = redisCache.keys().primaryKey();
         int port = redisCache.sslPort();
 
-        // create connection pool according to redis setting
-        JedisPool pool = new JedisPool(new JedisPoolConfig(), hostName, port, TIMEOUT, password, true);
-        pools.put(id, pool);
+        // create connection pool according to redis setting, the connections are validated before being used
+        final int maxTotal = maxConnections.getOrDefault(id, getDefaultMaxConnections(redisCache));
+        final JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(maxTotal);
+        config.setMaxIdle(maxTotal);
+        config.setTestOnBorrow(true);
+        config.setTestWhileIdle(true);
+        JedisPool pool = new JedisPool(config, hostName, port, TIMEOUT, password, true);
+        return new PoolEntry(pool, maxTotal);
+    }
+
+    private static RedisManager getRedisManager(String sid) {
+        final Account account = Azure.az(AzureAccount.class).account();
+        final AzureConfiguration config = Azure.az().config();
+        final HttpLogDetailLevel logLevel = Optional.ofNullable(config.getLogLevel()).map(HttpLogDetailLevel::valueOf).orElse(HttpLogDetailLevel.NONE);
+        final AzureProfile azureProfile = new AzureProfile(null, sid, account.getEnvironment());
+        return RedisManager.configure()
+                .withHttpClient(AbstractAzServiceSubscription.getDefaultHttpClient())
+                .withLogOptions(new HttpLogOptions().setLogLevel(logLevel))
+                .withPolicy(AbstractAzServiceSubscription.getUserAgentPolicy(config.getUserAgent()))
+                .authenticate(account.getTokenCredential(sid), azureProfile);
+    }
+
+    private static int getDefaultMaxConnections(RedisCache redisCache) {
+        final SkuName sku = Optional.ofNullable(redisCache.sku()).map(s -> s.name()).orElse(null);
+        if (SkuName.PREMIUM.equals(sku)) {
+            return PREMIUM_MAX_CONNECTIONS;
+        } else if (SkuName.STANDARD.equals(sku)) {
+            return STANDARD_MAX_CONNECTIONS;
+        }
+        return BASIC_MAX_CONNECTIONS;
     }
 }
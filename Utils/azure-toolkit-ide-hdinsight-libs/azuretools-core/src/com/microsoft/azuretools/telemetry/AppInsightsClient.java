@@ -15,11 +15,20 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class AppInsightsClient {
     static AppInsightsConfiguration configuration;
+    // The default properties of configuration, built once, except the installation id which could be changed
+    @Nullable
+    private static volatile Map<String, String> defaultProperties;
+
+    private static final class EventQueueHolder {
+        private static final TelemetryEventQueue QUEUE =
+                new TelemetryEventQueue(TelemetryEventQueue.DEFAULT_CAPACITY, AppInsightsClient::sendEvents);
+    }
 
     public enum EventType {
         Action,
@@ -43,6 +52,7 @@ public class AppInsightsClient {
         if (appInsightsConfiguration == null)
             throw new NullPointerException("AppInsights configuration cannot be null.");
         configuration = appInsightsConfiguration;
+        defaultProperties = null;
         initTelemetryManager();
     }
 
@@ -101,34 +111,74 @@ public class AppInsightsClient {
         if (isAppInsightsClientAvailable() && configuration.validated()) {
             String prefValue = configuration.preferenceVal();
             if (prefValue == null || prefValue.isEmpty() || prefValue.equalsIgnoreCase("true") || force) {
-                AzureTelemetryClient telemetry = TelemetryClientSingleton.getTelemetry();
-                Map<String, String> properties = buildProperties(version, myProperties);
-                synchronized (TelemetryClientSingleton.class) {
-                    telemetry.trackEvent(eventName, properties, metrics);
-                }
+                // The events are sent by the background flusher, copy the properties in case they are changed
+                final Map<String, String> properties = myProperties == null ? null : new HashMap<>(myProperties);
+                EventQueueHolder.QUEUE.offer(new TelemetryEventQueue.Event(eventName, version, properties, metrics));
+            }
+        }
+    }
+
+    /**
+     * Send all queued telemetry events at once, e.g. when the IDE is shutting down.
+     */
+    public static void flush() {
+        EventQueueHolder.QUEUE.flush();
+    }
+
+    /**
+     * @return the count of telemetry events dropped since the queue is full or sending failed
+     */
+    public static long getDroppedEventCount() {
+        return EventQueueHolder.QUEUE.getDroppedCount();
+    }
+
+    /**
+     * @return the count of telemetry events sent
+     */
+    public static long getSentEventCount() {
+        return EventQueueHolder.QUEUE.getSentCount();
+    }
+
+    private static void sendEvents(final List<TelemetryEventQueue.Event> events) {
+        final AzureTelemetryClient telemetry = TelemetryClientSingleton.getTelemetry();
+        synchronized (TelemetryClientSingleton.class) {
+            for (final TelemetryEventQueue.Event event : events) {
+                telemetry.trackEvent(event.name, buildProperties(event.version, event.properties), event.metrics);
             }
         }
     }
 
     private static Map<String, String> buildProperties(String version, Map<String, String> myProperties) {
         Map<String, String> properties = myProperties == null ? new HashMap<>() : new HashMap<>(myProperties);
-        properties.put("SessionId", configuration.sessionId());
-        properties.put("IDE", configuration.ide());
-        properties.put("AssignmentContext", Optional.ofNullable(ExperimentationClient.getExperimentationService()).map(ExperimentationService::getAssignmentContext).orElse(StringUtils.EMPTY));
 
         // Telemetry client doesn't accept null value for ConcurrentHashMap doesn't accept null as key or value..
         properties.entrySet().removeIf(entry -> StringUtils.isEmpty(entry.getKey()) || StringUtils.isEmpty(entry.getValue()));
+        properties.putAll(getDefaultProperties());
+        final String installationId = configuration.installationId();
+        if (!StringUtils.isEmpty(installationId)) {
+            properties.put("Installation ID", installationId);
+        }
+        final String assignmentContext = Optional.ofNullable(ExperimentationClient.getExperimentationService())
+                .map(ExperimentationService::getAssignmentContext).orElse(StringUtils.EMPTY);
+        if (!StringUtils.isEmpty(assignmentContext)) {
+            properties.put("AssignmentContext", assignmentContext);
+        }
         if (version != null && !version.isEmpty()) {
             properties.put("Library Version", version);
         }
-        String pluginVersion = configuration.pluginVersion();
-        if (!StringUtils.isEmpty(pluginVersion)) {
-            properties.put("Plugin Version", pluginVersion);
-        }
+        return properties;
+    }
 
-        String instID = configuration.installationId();
-        if (!StringUtils.isEmpty(instID)) {
-            properties.put("Installation ID", instID);
+    private static Map<String, String> getDefaultProperties() {
+        Map<String, String> properties = defaultProperties;
+        if (properties == null) {
+            properties = new HashMap<>();
+            properties.put("SessionId", configuration.sessionId());
+            properties.put("IDE", configuration.ide());
+            properties.put("Plugin Version", configuration.pluginVersion());
+            properties.entrySet().removeIf(entry -> StringUtils.isEmpty(entry.getValue()));
+            properties = Collections.unmodifiableMap(properties);
+            defaultProperties = properties;
         }
         return properties;
     }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.telemetry;
+
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue of telemetry events, the events are sent in batch by a single background flusher thread.
+ * New events are dropped when the queue is full, so that the producers are never blocked by telemetry.
+ */
+final class TelemetryEventQueue {
+    static final int DEFAULT_CAPACITY = 10000;
+    static final int BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    static final class Event {
+        final String name;
+        @Nullable
+        final String version;
+        @Nullable
+        final Map<String, String> properties;
+        @Nullable
+        final Map<String, Double> metrics;
+
+        Event(String name, @Nullable String version, @Nullable Map<String, String> properties,
+              @Nullable Map<String, Double> metrics) {
+            this.name = name;
+            this.version = version;
+            this.properties = properties;
+            this.metrics = metrics;
+        }
+    }
+
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final int capacity;
+    private final Consumer<List<Event>> sender;
+    private final Thread flusher;
+
+    TelemetryEventQueue(int capacity, Consumer<List<Event>> sender) {
+        this.capacity = capacity;
+        this.sender = sender;
+        this.flusher = new Thread(this::runFlusher, "azure-telemetry-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * @return false if the event is dropped since the queue is full
+     */
+    boolean offer(Event event) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        events.offer(event);
+        if (current + 1 >= BATCH_SIZE) {
+            LockSupport.unpark(flusher);
+        }
+
+        return true;
+    }
+
+    /**
+     * Send all queued events on the caller thread, e.g. when the IDE is shutting down.
+     */
+    synchronized void flush() {
+        List<Event> batch;
+        while (!(batch = poll()).isEmpty()) {
+            send(batch);
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getSentCount() {
+        return sent.get();
+    }
+
+    private void runFlusher() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (size.get() < BATCH_SIZE) {
+                LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+            }
+
+            try {
+                flush();
+            } catch (final Throwable ignored) {
+                // telemetry failures should never stop the flusher
+            }
+        }
+    }
+
+    private List<Event> poll() {
+        final List<Event> batch = new ArrayList<>(Math.min(BATCH_SIZE, Math.max(size.get(), 1)));
+        Event event;
+        while (batch.size() < BATCH_SIZE && (event = events.poll()) != null) {
+            batch.add(event);
+        }
+
+        size.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void send(List<Event> batch) {
+        try {
+            sender.accept(batch);
+            sent.addAndGet(batch.size());
+        } catch (final RuntimeException e) {
+            dropped.addAndGet(batch.size());
+        }
+    }
+}
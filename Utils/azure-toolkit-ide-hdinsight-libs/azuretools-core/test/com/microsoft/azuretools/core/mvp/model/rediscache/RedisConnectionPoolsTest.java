@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.core.mvp.model.rediscache;
+
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RedisConnectionPoolsTest {
+
+    private static final String MOCK_SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final Map<String, JedisPool> poolMocks = new HashMap<>();
+    private final Map<String, Integer> connects = new HashMap<>();
+    private RedisConnectionPools pools;
+
+    @Before
+    public void setUp() {
+        pools = new RedisConnectionPools((sid, id) -> {
+            connects.merge(id, 1, Integer::sum);
+            final JedisPool pool = mock(JedisPool.class);
+            when(pool.getResource()).thenReturn(mock(Jedis.class));
+            poolMocks.put(id, pool);
+            return new RedisConnectionPools.PoolEntry(pool, 2);
+        }, now::get);
+    }
+
+    @Test
+    public void testReuseThePoolOfCache() throws Exception {
+        pools.getJedis(MOCK_SUBSCRIPTION, "redis-0");
+        pools.getJedis(MOCK_SUBSCRIPTION, "redis-0");
+
+        assertEquals(1, (int) connects.get("redis-0"));
+        verify(poolMocks.get("redis-0"), times(2)).getResource();
+    }
+
+    @Test
+    public void testReleaseLeastRecentlyUsedPool() throws Exception {
+        for (int i = 0; i < RedisConnectionPools.MAX_POOLS; i++) {
+            getJedisLater("redis-" + i);
+        }
+        // redis-0 becomes the most recently used
+        getJedisLater("redis-0");
+        getJedisLater("redis-new");
+
+        verify(poolMocks.get("redis-1")).destroy();
+        verify(poolMocks.get("redis-0"), never()).destroy();
+        assertEquals(RedisConnectionPools.MAX_POOLS, pools.getPoolUsages().size());
+        assertEquals("redis-new", pools.getPoolUsages().get(0).getId());
+    }
+
+    @Test
+    public void testKeepLeastRecentlyUsedPoolInUse() throws Exception {
+        for (int i = 0; i < RedisConnectionPools.MAX_POOLS; i++) {
+            getJedisLater("redis-" + i);
+        }
+        when(poolMocks.get("redis-0").getNumActive()).thenReturn(1);
+        getJedisLater("redis-new");
+
+        verify(poolMocks.get("redis-0"), never()).destroy();
+        verify(poolMocks.get("redis-1")).destroy();
+    }
+
+    @Test
+    public void testReleaseIdlePools() throws Exception {
+        getJedisLater("redis-idle");
+        getJedisLater("redis-in-use");
+        when(poolMocks.get("redis-in-use").getNumActive()).thenReturn(1);
+        now.addAndGet(RedisConnectionPools.IDLE_TIMEOUT_MILLIS);
+        getJedisLater("redis-recent");
+        now.addAndGet(1);
+
+        pools.releaseIdlePools();
+
+        verify(poolMocks.get("redis-idle")).destroy();
+        verify(poolMocks.get("redis-in-use"), never()).destroy();
+        verify(poolMocks.get("redis-recent"), never()).destroy();
+        assertEquals(2, pools.getPoolUsages().size());
+    }
+
+    @Test
+    public void testConnectAgainAfterReleased() throws Exception {
+        getJedisLater("redis-0");
+        final JedisPool released = poolMocks.get("redis-0");
+        now.addAndGet(RedisConnectionPools.IDLE_TIMEOUT_MILLIS + 1);
+        pools.releaseIdlePools();
+        getJedisLater("redis-0");
+
+        assertEquals(2, (int) connects.get("redis-0"));
+        verify(released).destroy();
+        verify(poolMocks.get("redis-0")).getResource();
+        assertNotSame(released, poolMocks.get("redis-0"));
+    }
+
+    private void getJedisLater(String id) throws Exception {
+        now.incrementAndGet();
+        pools.getJedis(MOCK_SUBSCRIPTION, id);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.telemetry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryEventQueueTest {
+    private static final int PRODUCERS = 8;
+
+    private final List<List<TelemetryEventQueue.Event>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void dropsEventsWhenFull() {
+        // less than a batch, so the flusher waits for the flush interval before sending them
+        final TelemetryEventQueue queue = new TelemetryEventQueue(10, batches::add);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(event(i)));
+        }
+
+        assertFalse(queue.offer(event(10)));
+        assertFalse(queue.offer(event(11)));
+        assertEquals(2, queue.getDroppedCount());
+
+        queue.flush();
+        assertEquals(10, queue.getSentCount());
+        assertTrue(queue.offer(event(12)));
+    }
+
+    @Test
+    public void sendsEventsInBatches() {
+        final TelemetryEventQueue queue = new TelemetryEventQueue(1000, batches::add);
+        final int count = TelemetryEventQueue.BATCH_SIZE * 2 + 50;
+        for (int i = 0; i < count; i++) {
+            assertTrue(queue.offer(event(i)));
+        }
+
+        queue.flush();
+        assertEquals(count, queue.getSentCount());
+        assertEquals(0, queue.getDroppedCount());
+        synchronized (batches) {
+            assertTrue(batches.stream().allMatch(b -> !b.isEmpty() && b.size() <= TelemetryEventQueue.BATCH_SIZE));
+            assertEquals(count, batches.stream().mapToInt(List::size).sum());
+        }
+    }
+
+    @Test
+    public void countsFailedBatchesAsDropped() {
+        final TelemetryEventQueue queue = new TelemetryEventQueue(100, events -> {
+            throw new IllegalStateException("network is down");
+        });
+        for (int i = 0; i < 5; i++) {
+            queue.offer(event(i));
+        }
+
+        queue.flush();
+        assertEquals(0, queue.getSentCount());
+        assertEquals(5, queue.getDroppedCount());
+    }
+
+    @Test
+    public void flushDrainsEventsOfConcurrentProducers() throws Exception {
+        final int perProducer = 5000;
+        final TelemetryEventQueue queue = new TelemetryEventQueue(PRODUCERS * perProducer, batches::add);
+
+        produceConcurrently(queue, perProducer);
+        queue.flush();
+
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(PRODUCERS * perProducer, queue.getSentCount());
+        final Set<String> names = new HashSet<>();
+        synchronized (batches) {
+            batches.forEach(batch -> batch.forEach(event -> names.add(event.name)));
+        }
+        assertEquals(PRODUCERS * perProducer, names.size());
+    }
+
+    @Test
+    public void neverLosesEventsUnderContention() throws Exception {
+        final int perProducer = 20000;
+        // a slow sender and a small queue, so that the producers keep hitting the capacity while events are sent
+        final TelemetryEventQueue queue = new TelemetryEventQueue(TelemetryEventQueue.BATCH_SIZE * 2, events -> {
+            batches.add(events);
+            sleep(1);
+        });
+
+        produceConcurrently(queue, perProducer);
+        queue.flush();
+
+        assertEquals(PRODUCERS * perProducer, queue.getSentCount() + queue.getDroppedCount());
+        synchronized (batches) {
+            assertEquals(queue.getSentCount(), batches.stream().mapToInt(List::size).sum());
+        }
+    }
+
+    private static void produceConcurrently(TelemetryEventQueue queue, int perProducer) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                final int producer = p;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.offer(event(producer * perProducer + i));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (final Future<?> producer : producers) {
+                producer.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TelemetryEventQueue.Event event(int index) {
+        return new TelemetryEventQueue.Event("event-" + index, null, null, null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
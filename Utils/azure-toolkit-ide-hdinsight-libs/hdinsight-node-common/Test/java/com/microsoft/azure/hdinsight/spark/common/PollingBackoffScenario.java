@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PollingBackoffScenario {
+    private PollingBackoff backoff;
+
+    @Given("^create a polling backoff with the minimum interval (\\d+) ms$")
+    public void createBackoff(long minIntervalMillis) {
+        backoff = new PollingBackoff(minIntervalMillis);
+    }
+
+    @Given("^reset the polling backoff$")
+    public void resetBackoff() {
+        backoff.reset();
+    }
+
+    @Then("^the next polling delays capped by (\\d+) ms should be about:$")
+    public void checkNextDelays(long maxIntervalMillis, List<Long> expectDelays) {
+        for (long expect : expectDelays) {
+            assertThat(backoff.nextDelayMillis(maxIntervalMillis)).isBetween(
+                    Math.round(expect * 0.8), Math.round(expect * 1.2));
+        }
+    }
+
+    @Then("^the jitter of (\\d+) ms should be between (\\d+) and (\\d+) ms in (\\d+) tries$")
+    public void checkJitter(long delayMillis, long min, long max, int tries) {
+        for (int i = 0; i < tries; i++) {
+            assertThat(PollingBackoff.jitter(delayMillis)).isBetween(min, max);
+        }
+    }
+
+    @Then("^creating a polling backoff with the minimum interval (-?\\d+) ms should fail$")
+    public void checkInvalidMinInterval(long minIntervalMillis) {
+        assertThatThrownBy(() -> new PollingBackoff(minIntervalMillis))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
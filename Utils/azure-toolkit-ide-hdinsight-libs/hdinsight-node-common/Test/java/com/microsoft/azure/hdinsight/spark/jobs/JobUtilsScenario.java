@@ -10,6 +10,7 @@ import io.cucumber.java.Before;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 
+import java.io.StringReader;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,4 +60,9 @@ public class JobUtilsScenario {
 
         assertThat(actual).isEqualTo(expect);
     }
+
+    @Then("^parse Yarn log page '(.*)' for log '(.+)' should return '(.*)'$")
+    public void checkParseLogSection(String page, String type, String expect) throws Throwable {
+        assertThat(YarnContainerLogReader.parseLogSection(new StringReader(page), type)).isEqualTo(expect);
+    }
 }
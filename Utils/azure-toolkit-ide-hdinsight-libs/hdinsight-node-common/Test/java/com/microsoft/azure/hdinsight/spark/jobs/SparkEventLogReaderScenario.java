@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
+import io.cucumber.java.Before;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SparkEventLogReaderScenario {
+    private ByteArrayOutputStream zipContent;
+    private ZipOutputStream zipOutputStream;
+
+    @Before
+    public void setUp() {
+        zipContent = new ByteArrayOutputStream();
+        zipOutputStream = new ZipOutputStream(zipContent);
+    }
+
+    @Given("^Spark event log zip entry '(.+)' with lines:$")
+    public void addZipEntry(String entryName, List<String> lines) throws Throwable {
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        zipOutputStream.write(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        zipOutputStream.closeEntry();
+    }
+
+    @Then("^the event type of Spark event log line '(.*)' should be '(.*)'$")
+    public void checkPeekEventType(String line, String expect) {
+        assertThat(SparkEventLogReader.peekEventType(line)).isEqualTo(expect.isEmpty() ? null : expect);
+    }
+
+    @Then("^reading job start events of entry '(.+)' should get job IDs:$")
+    public void checkReadJobStartEvents(String entryName, List<Integer> expectJobIds) throws Throwable {
+        zipOutputStream.close();
+
+        List<JobStartEventLog> events = SparkEventLogReader.readEvents(
+                new ByteArrayInputStream(zipContent.toByteArray()),
+                entryName,
+                SparkEventLogReader.JOB_START_EVENT,
+                JobStartEventLog.class).orElseThrow(() -> new AssertionError("No entry " + entryName));
+
+        assertThat(events.stream().map(JobStartEventLog::getJobId).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expectJobIds);
+    }
+
+    @Then("^reading job start events of entry '(.+)' should find no entry$")
+    public void checkReadMissingEntry(String entryName) throws Throwable {
+        zipOutputStream.close();
+
+        assertThat(SparkEventLogReader.readEvents(
+                new ByteArrayInputStream(zipContent.toByteArray()),
+                entryName,
+                SparkEventLogReader.JOB_START_EVENT,
+                JobStartEventLog.class)).isEmpty();
+    }
+
+    @Then("^job start events of entry '(.+)' saved into index should be loaded with job IDs:$")
+    public void checkIndexRoundTrip(String entryName, List<Integer> expectJobIds) throws Throwable {
+        zipOutputStream.close();
+
+        List<JobStartEventLog> events = SparkEventLogReader.readEvents(
+                new ByteArrayInputStream(zipContent.toByteArray()),
+                entryName,
+                SparkEventLogReader.JOB_START_EVENT,
+                JobStartEventLog.class).orElseThrow(() -> new AssertionError("No entry " + entryName));
+
+        File root = Files.createTempDirectory("sparkEventLogIndex").toFile();
+        File indexFile = SparkEventLogReader.getIndexFile(root.getPath(), "app", "1", SparkEventLogReader.JOB_START_EVENT);
+        SparkEventLogReader.saveIndex(indexFile, events);
+
+        Optional<List<JobStartEventLog>> loaded = SparkEventLogReader.loadIndex(indexFile, JobStartEventLog.class);
+
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().stream().map(JobStartEventLog::getJobId).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expectJobIds);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
+import io.cucumber.java.Before;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import rx.subjects.PublishSubject;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SparkTasksLoaderScenario {
+    private IClusterDetail cluster;
+    private PublishSubject<SimpleImmutableEntry<Integer, List<Task>>> stageTasks;
+    private SparkTasksLoader.LoadedTasks loadedTasks;
+    private CompletableFuture<List<Task>> loading;
+
+    @Before
+    public void setUp() {
+        cluster = mock(IClusterDetail.class);
+        when(cluster.getName()).thenReturn("cluster");
+        when(cluster.getConnectionUrl()).thenReturn("https://cluster.azurehdinsight.net");
+    }
+
+    @Given("^loading Spark tasks of (\\d+) stages of application '(.+)' abandoned after (\\d+) ms$")
+    public void startLoading(int stageCount, String appId, long abandonMillis) throws Throwable {
+        ApplicationKey key = new ApplicationKey(cluster, appId);
+        stageTasks = PublishSubject.create();
+        loadedTasks = new SparkTasksLoader.LoadedTasks(stageCount);
+        loading = CompletableFuture.supplyAsync(() -> {
+            try {
+                return SparkTasksLoader.load(key, stageTasks, loadedTasks, abandonMillis);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        });
+
+        while (!SparkTasksLoader.isLoading(key)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    @Given("^stage (\\d+) is loaded with tasks '(.*)'$")
+    public void loadStage(int stageIndex, String taskIds) {
+        stageTasks.onNext(new SimpleImmutableEntry<>(stageIndex, createTasks(taskIds)));
+    }
+
+    @Given("^all stages are loaded$")
+    public void completeLoading() {
+        stageTasks.onCompleted();
+    }
+
+    @Given("^cancel loading Spark tasks of application '(.+)'$")
+    public void cancelLoading(String appId) {
+        SparkTasksLoader.cancel(new ApplicationKey(cluster, appId));
+    }
+
+    @Given("^cancel loading Spark tasks of cluster '(.+)'$")
+    public void cancelClusterLoading(String clusterName) {
+        JobViewCacheManager.cancelTasksLoading(clusterName);
+    }
+
+    @Then("^the loaded tasks should be '(.*)' and completed is (true|false)$")
+    public void checkLoadedTasks(String taskIds, boolean isCompleted) {
+        assertThat(getTaskIds(loadedTasks.getTasks())).isEqualTo(taskIds);
+        assertThat(loadedTasks.isCompleted()).isEqualTo(isCompleted);
+    }
+
+    @Then("^the loading should return tasks '(.*)'$")
+    public void checkLoadingResult(String taskIds) throws Throwable {
+        assertThat(getTaskIds(loading.get(5, TimeUnit.SECONDS))).isEqualTo(taskIds);
+    }
+
+    @Then("^the loading should fail as '(.+)'$")
+    public void checkLoadingFailure(String message) {
+        Throwable failure = catchThrowable(() -> loading.get(5, TimeUnit.SECONDS));
+
+        assertThat(failure).isInstanceOf(ExecutionException.class);
+        assertThat(failure.getCause())
+                .isInstanceOf(SparkTasksLoader.CancelledException.class)
+                .hasMessageContaining(message);
+    }
+
+    private static List<Task> createTasks(String taskIds) {
+        if (taskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(taskIds.split(","))
+                .map(taskId -> {
+                    Task task = new Task();
+                    task.setTaskId(taskId.trim());
+                    return task;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String getTaskIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskId).collect(Collectors.joining(","));
+    }
+}
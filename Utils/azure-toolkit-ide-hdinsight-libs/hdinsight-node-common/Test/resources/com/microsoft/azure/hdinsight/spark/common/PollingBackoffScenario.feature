@@ -0,0 +1,47 @@
+Feature: PollingBackoff Testing
+
+  Scenario: the polling delays double until the maximum interval
+    Given create a polling backoff with the minimum interval 500 ms
+    Then the next polling delays capped by 5000 ms should be about:
+      | 500  |
+      | 1000 |
+      | 2000 |
+      | 4000 |
+      | 5000 |
+      | 5000 |
+
+  Scenario: reset polls fast again
+    Given create a polling backoff with the minimum interval 500 ms
+    Then the next polling delays capped by 5000 ms should be about:
+      | 500  |
+      | 1000 |
+      | 2000 |
+    Given reset the polling backoff
+    Then the next polling delays capped by 5000 ms should be about:
+      | 500  |
+      | 1000 |
+
+  Scenario: a lower maximum interval caps the backed off delay at once
+    Given create a polling backoff with the minimum interval 500 ms
+    Then the next polling delays capped by 30000 ms should be about:
+      | 500  |
+      | 1000 |
+      | 2000 |
+      | 4000 |
+    Then the next polling delays capped by 1000 ms should be about:
+      | 1000 |
+      | 1000 |
+
+  Scenario: the delay is never less than the minimum interval
+    Given create a polling backoff with the minimum interval 500 ms
+    Then the next polling delays capped by 100 ms should be about:
+      | 500 |
+      | 500 |
+
+  Scenario: the jitter is within 20 percent either way
+    Then the jitter of 1000 ms should be between 800 and 1200 ms in 1000 tries
+    Then the jitter of 0 ms should be between 0 and 0 ms in 10 tries
+
+  Scenario: the minimum interval should be positive
+    Then creating a polling backoff with the minimum interval 0 ms should fail
+    Then creating a polling backoff with the minimum interval -1 ms should fail
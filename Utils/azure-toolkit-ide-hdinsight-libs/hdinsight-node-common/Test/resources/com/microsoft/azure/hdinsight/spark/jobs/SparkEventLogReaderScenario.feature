@@ -0,0 +1,33 @@
+Feature: SparkEventLogReader Testing
+
+  Scenario: peekEventType reads the Event field only
+    Then the event type of Spark event log line '{"Event":"SparkListenerJobStart","Job ID":0}' should be 'SparkListenerJobStart'
+    Then the event type of Spark event log line '{"Job ID":0,"Stage Infos":[{"Stage ID":0}],"Event":"SparkListenerJobEnd"}' should be 'SparkListenerJobEnd'
+    Then the event type of Spark event log line '{"Job ID":0}' should be ''
+    Then the event type of Spark event log line 'not a json' should be ''
+
+  Scenario: readEvents only materializes job start events of the attempt entry
+    Given Spark event log zip entry 'application_1_0001_1' with lines:
+      | {"Event":"SparkListenerJobStart","Job ID":100} |
+    Given Spark event log zip entry 'application_1_0001_2' with lines:
+      | {"Event":"SparkListenerLogStart","Spark Version":"2.3.0"}                          |
+      | {"Event":"SparkListenerJobStart","Job ID":0,"Stage IDs":[0,1],"Properties":{}}     |
+      | {"Event":"SparkListenerStageCompleted","Stage Info":{"Stage ID":0}}                |
+      | {"Event":"SparkListenerJobStart","Job ID":1,"Stage IDs":[2],"Unknown Field":"foo"} |
+      | {"Event":"SparkListenerJobEnd","Job ID":1}                                         |
+    Then reading job start events of entry 'application_1_0001_2' should get job IDs:
+      | 0 |
+      | 1 |
+
+  Scenario: readEvents returns empty for a missing attempt entry
+    Given Spark event log zip entry 'application_1_0001_1' with lines:
+      | {"Event":"SparkListenerJobStart","Job ID":100} |
+    Then reading job start events of entry 'application_1_0001_2' should find no entry
+
+  Scenario: job start events index can be reloaded
+    Given Spark event log zip entry 'application_1_0001_1' with lines:
+      | {"Event":"SparkListenerJobStart","Job ID":3} |
+      | {"Event":"SparkListenerJobStart","Job ID":4} |
+    Then job start events of entry 'application_1_0001_1' saved into index should be loaded with job IDs:
+      | 3 |
+      | 4 |
@@ -0,0 +1,42 @@
+Feature: SparkTasksLoader Testing
+
+  Scenario: loaded tasks only include the leading stages which are all loaded
+    Given loading Spark tasks of 3 stages of application 'application_1_0001' abandoned after 5000 ms
+    Then the loaded tasks should be '' and completed is false
+    Given stage 1 is loaded with tasks '3,4'
+    Then the loaded tasks should be '' and completed is false
+    Given stage 0 is loaded with tasks '1,2'
+    Then the loaded tasks should be '1,2,3,4' and completed is false
+    Given stage 2 is loaded with tasks ''
+    Given all stages are loaded
+    Then the loading should return tasks '1,2,3,4'
+    Then the loaded tasks should be '1,2,3,4' and completed is true
+
+  Scenario: cancelling another application doesn't stop the loading
+    Given loading Spark tasks of 1 stages of application 'application_1_0001' abandoned after 5000 ms
+    Given cancel loading Spark tasks of application 'application_1_0002'
+    Given stage 0 is loaded with tasks '1'
+    Given all stages are loaded
+    Then the loading should return tasks '1'
+
+  Scenario: cancelling the application stops the loading
+    Given loading Spark tasks of 2 stages of application 'application_1_0001' abandoned after 5000 ms
+    Given stage 0 is loaded with tasks '1'
+    Given cancel loading Spark tasks of application 'application_1_0001'
+    Then the loading should fail as 'is cancelled'
+
+  Scenario: the loading is abandoned if the loaded tasks are not polled
+    Given loading Spark tasks of 2 stages of application 'application_1_0001' abandoned after 200 ms
+    Then the loading should fail as 'is abandoned'
+
+  Scenario: closing the job view of the cluster stops the loading
+    Given loading Spark tasks of 2 stages of application 'application_1_0001' abandoned after 5000 ms
+    Given cancel loading Spark tasks of cluster 'cluster'
+    Then the loading should fail as 'is cancelled'
+
+  Scenario: closing the job view of another cluster doesn't stop the loading
+    Given loading Spark tasks of 1 stages of application 'application_1_0001' abandoned after 5000 ms
+    Given cancel loading Spark tasks of cluster 'another-cluster'
+    Given stage 0 is loaded with tasks '1'
+    Given all stages are loaded
+    Then the loading should return tasks '1'
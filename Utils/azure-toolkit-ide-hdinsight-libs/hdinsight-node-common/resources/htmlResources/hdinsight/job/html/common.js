@@ -63,13 +63,13 @@ function getMessageAsync(url, type, callback, appId) {
             if (--asyncMessageCounter === 0) {
                 $('body').css("cursor", "default");
             }
-            if (xmlHttp.status === 200 || xmlHttp.status === 201) {
+            if (xmlHttp.status === 200 || xmlHttp.status === 201 || xmlHttp.status === 202) {
                 var s = xmlHttp.responseText;
                 if (s === '') {
                     return;
                 }
                 if (callback) {
-                    callback(s);
+                    callback(s, xmlHttp.status);
                 }
             }
         }
@@ -352,10 +352,18 @@ function renderStageDetails() {
 }
 
 function renderTaskDetails() {
-    getMessageAsync('/applications/tasks_summary','spark', function(s){
+    var appId = spark.appId;
+    getMessageAsync('/applications/tasks_summary','spark', function(s, status){
+        if (appId !== spark.appId) {
+            return;
+        }
         var tasks = JSON.parse(s);
         renderTaskSummary(tasks);
-    }, spark.appId);
+        // 202 Accepted: the tasks are still loading, poll for the rest of them
+        if (status === 202) {
+            setTimeout(renderTaskDetails, 1000);
+        }
+    }, appId);
 }
 
 function renderExecutors() {
@@ -15,6 +15,7 @@ import com.microsoft.azure.hdinsight.metadata.ClusterMetaDataService;
 import com.microsoft.azure.hdinsight.sdk.cluster.*;
 import com.microsoft.azure.hdinsight.sdk.storage.implementation.HDStorageAccount;
 import com.microsoft.azure.hdinsight.sdk.storage.model.IHDIStorageAccount;
+import com.microsoft.azure.hdinsight.spark.jobs.JobViewCacheManager;
 import com.microsoft.azure.sqlbigdata.sdk.cluster.SqlBigDataLivyLinkClusterDetail;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
@@ -288,6 +289,8 @@ public class ClusterManagerEx implements ILogger {
     public synchronized void removeEmulatorCluster(EmulatorClusterDetail emulatorClusterDetail) {
         emulatorClusterDetails.remove(emulatorClusterDetail);
         ClusterMetaDataService.getInstance().removeClusterFromCache(emulatorClusterDetail);
+        // the job view data of the removed cluster is of no use any more
+        JobViewCacheManager.invalidateAll();
 
         saveEmulatorClusters();
     }
@@ -295,6 +298,8 @@ public class ClusterManagerEx implements ILogger {
     public synchronized void removeAdditionalCluster(@NotNull IClusterDetail hdInsightClusterDetail) {
         additionalClusterDetails.remove(hdInsightClusterDetail);
         ClusterMetaDataService.getInstance().removeClusterFromCache(hdInsightClusterDetail);
+        // the job view data of the removed cluster is of no use any more
+        JobViewCacheManager.invalidateAll();
         saveAdditionalClusters();
     }
 
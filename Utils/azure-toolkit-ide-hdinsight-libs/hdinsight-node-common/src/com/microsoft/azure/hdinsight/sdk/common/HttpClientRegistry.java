@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.service.ServiceManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.TrustStrategy;
+
+import javax.net.ssl.SSLContext;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The process-wide registry of pooled HTTP clients.
+ *
+ * The clients are shared by all {@link HttpObservable} instances with the same authentication scheme and SSL policy,
+ * so that the connections and TLS sessions to a host are reused across submissions, sessions and clusters. The cookies
+ * of every {@link HttpObservable} are kept in its own HTTP context, and its default request config is set on each
+ * request it sends.
+ */
+public class HttpClientRegistry implements ILogger {
+    public static final int MAX_CONNECTIONS_PER_ROUTE = 10;
+    public static final int MAX_CONNECTIONS_TOTAL = 100;
+    public static final long IDLE_CONNECTION_EVICT_SECONDS = 60;
+
+    /**
+     * How the requests are authenticated, the connections of different schemes are not shared
+     */
+    public enum AuthScheme {
+        /**
+         * Basic authentication header or the server challenged Kerberos, Digest and Basic authentications
+         */
+        CHALLENGE,
+        /**
+         * OAuth bearer token header
+         */
+        BEARER_TOKEN,
+        /**
+         * Azure Storage shared key signature header
+         */
+        SHARED_KEY
+    }
+
+    /**
+     * How the server certificates are validated
+     */
+    public enum SslPolicy {
+        /**
+         * The JVM default trust store and hostname verification
+         */
+        SYSTEM_DEFAULT,
+        /**
+         * The IDE trust strategy with hostname verification
+         */
+        TRUST_STRATEGY,
+        /**
+         * The IDE trust strategy without hostname verification, when the SSL certificate validation is disabled
+         */
+        TRUST_STRATEGY_WITHOUT_HOSTNAME_VERIFICATION;
+
+        /**
+         * Get the policy by the current IDE trust strategy and SSL certificate validation settings
+         */
+        @NotNull
+        public static SslPolicy current() {
+            if (ServiceManager.getServiceProvider(TrustStrategy.class) == null) {
+                return SYSTEM_DEFAULT;
+            }
+
+            return HttpObservable.isSSLCertificateValidationDisabled()
+                    ? TRUST_STRATEGY_WITHOUT_HOSTNAME_VERIFICATION
+                    : TRUST_STRATEGY;
+        }
+    }
+
+    private static final HttpClientRegistry instance = new HttpClientRegistry();
+
+    @NotNull
+    public static HttpClientRegistry getInstance() {
+        return instance;
+    }
+
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private static class PooledClient {
+        @NotNull
+        private final CloseableHttpClient httpClient;
+        @NotNull
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        PooledClient(@NotNull CloseableHttpClient httpClient,
+                     @NotNull PoolingHttpClientConnectionManager connectionManager) {
+            this.httpClient = httpClient;
+            this.connectionManager = connectionManager;
+        }
+    }
+
+    /**
+     * Lease the shared HTTP client, the client should never be closed by the caller
+     *
+     * @param authScheme the authentication scheme of the requests
+     * @param sslPolicy the server certificates validation policy
+     * @return the pooled HTTP client for the scheme and policy
+     */
+    @NotNull
+    public CloseableHttpClient lease(@NotNull AuthScheme authScheme, @NotNull SslPolicy sslPolicy) {
+        return clients.computeIfAbsent(getKey(authScheme, sslPolicy), key -> createClient(sslPolicy)).httpClient;
+    }
+
+    /**
+     * Get the leased, pending and available connections of all pools, for diagnosis
+     *
+     * @return the total pool stats keyed by "{authScheme}|{sslPolicy}"
+     */
+    @NotNull
+    public Map<String, PoolStats> getTotalStats() {
+        final Map<String, PoolStats> stats = new HashMap<>();
+        clients.forEach((key, client) -> stats.put(key, client.connectionManager.getTotalStats()));
+
+        return stats;
+    }
+
+    /**
+     * Get the leased, pending and available connections per route of a pool, for diagnosis
+     */
+    @NotNull
+    public Map<HttpRoute, PoolStats> getRouteStats(@NotNull AuthScheme authScheme, @NotNull SslPolicy sslPolicy) {
+        final Map<HttpRoute, PoolStats> stats = new HashMap<>();
+        final PooledClient client = clients.get(getKey(authScheme, sslPolicy));
+
+        if (client != null) {
+            client.connectionManager.getRoutes()
+                    .forEach(route -> stats.put(route, client.connectionManager.getStats(route)));
+        }
+
+        return stats;
+    }
+
+    @NotNull
+    private static String getKey(@NotNull AuthScheme authScheme, @NotNull SslPolicy sslPolicy) {
+        return authScheme + "|" + sslPolicy;
+    }
+
+    @NotNull
+    private PooledClient createClient(@NotNull SslPolicy sslPolicy) {
+        final Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", createSSLSocketFactory(sslPolicy))
+                .build();
+
+        final PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+
+        final CloseableHttpClient httpClient = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_EVICT_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        return new PooledClient(httpClient, connectionManager);
+    }
+
+    @NotNull
+    private SSLConnectionSocketFactory createSSLSocketFactory(@NotNull SslPolicy sslPolicy) {
+        final TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
+
+        if (sslPolicy != SslPolicy.SYSTEM_DEFAULT && ts != null) {
+            try {
+                final SSLContext sslContext = new SSLContextBuilder()
+                        .loadTrustMaterial(ts)
+                        .build();
+
+                return new SSLConnectionSocketFactory(
+                        sslContext,
+                        new String[] { "TLSv1.2", "TLSv1.3" },
+                        null,
+                        sslPolicy == SslPolicy.TRUST_STRATEGY_WITHOUT_HOSTNAME_VERIFICATION
+                                ? NoopHostnameVerifier.INSTANCE
+                                : new DefaultHostnameVerifier());
+            } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+                log().error("Prepare SSL Context for HTTPS failure. " + ExceptionUtils.getStackTrace(e));
+            }
+        }
+
+        return SSLConnectionSocketFactory.getSystemSocketFactory();
+    }
+}
@@ -43,6 +43,8 @@ public class SharedKeyHttpObservable extends HttpObservable {
         defaultHeaders.addHeader(new BasicHeader("Content-Type", "application/json"));
 
         setDefaultHeaderGroup(defaultHeaders);
+        setHttpClient(leaseHttpClient(HttpClientRegistry.AuthScheme.SHARED_KEY, HttpClientRegistry.SslPolicy.current()));
+
         try {
             this.cred = new SharedKeyCredential(accountName, accessKey);
         } catch (IllegalArgumentException ex) {
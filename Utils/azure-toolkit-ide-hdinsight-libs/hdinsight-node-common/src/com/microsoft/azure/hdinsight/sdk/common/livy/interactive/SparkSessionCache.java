@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy.interactive;
+
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.azuretools.telemetry.AppInsightsClient;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A cache of the Livy Spark sessions their callers ask to reuse, per cluster Livy endpoint, Yarn queue and user.
+ *
+ * Starting a Livy session takes one or two minutes for the Yarn containers, so a caller can opt in to keep its session
+ * idle for a while after using, by {@link #release(Session, long)}, and the next borrowing of the same key takes it
+ * instead of starting a new one. It's not a pool of warm sessions: no session is started ahead of use or kept idle
+ * unless a caller asks for it, since every session holds Yarn containers of a shared cluster, and a session is used by
+ * one caller at a time. The idle sessions are health checked periodically, closed once expired, and all closed when
+ * the IDE is closing by {@link #clear()}. Hit rate is published to telemetry.
+ */
+public class SparkSessionCache implements ILogger {
+    public static final int MAX_IDLE_PER_KEY = 2;
+    private static final long HEALTH_CHECK_INTERVAL_SECONDS = 60;
+    private static final String TELEMETRY_OBJECT = "SparkSessionCache";
+
+    private static class LazyHolder {
+        static final SparkSessionCache INSTANCE = new SparkSessionCache();
+    }
+
+    public static SparkSessionCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * The cache key, the sessions with the same Livy endpoint, Yarn queue and user are interchangeable
+     */
+    public static final class Key {
+        @NotNull
+        private final URI livyUri;
+        @Nullable
+        private final String yarnQueue;
+        @Nullable
+        private final String username;
+
+        private Key(@NotNull URI livyUri, @Nullable String yarnQueue, @Nullable String username) {
+            this.livyUri = livyUri;
+            this.yarnQueue = yarnQueue;
+            this.username = username;
+        }
+
+        public static Key of(@NotNull URI livyUri, @Nullable String yarnQueue, @Nullable String username) {
+            return new Key(livyUri, yarnQueue, username);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            return livyUri.equals(other.livyUri)
+                    && Objects.equals(yarnQueue, other.yarnQueue)
+                    && Objects.equals(username, other.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(livyUri, yarnQueue, username);
+        }
+
+        @Override
+        public String toString() {
+            return livyUri + (yarnQueue == null ? "" : " (queue " + yarnQueue + ")");
+        }
+    }
+
+    private static class IdleSession {
+        @NotNull
+        private final Session session;
+        private final long expireAt;
+
+        IdleSession(@NotNull Session session, long keepIdleMillis) {
+            this.session = session;
+            this.expireAt = System.currentTimeMillis() + keepIdleMillis;
+        }
+    }
+
+    // All guarded by this
+    private final Map<Key, Deque<IdleSession>> idleSessions = new HashMap<>();
+    private final Map<Session, Key> borrowedSessions = new IdentityHashMap<>();
+    private boolean isCleared = false;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    SparkSessionCache() {
+        final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "spark-session-cache-health-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        healthChecker.scheduleWithFixedDelay(
+                this::checkIdleSessions, HEALTH_CHECK_INTERVAL_SECONDS, HEALTH_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public double getHitRate() {
+        final long total = hits.get() + misses.get();
+
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /*
+     * Cache APIs
+     */
+
+    /**
+     * Borrow a ready session of the key, an idle one is returned if exists, otherwise a new one is created.
+     * The session should be given back by {@link #release(Session)} or {@link #release(Session, long)} after using.
+     *
+     * @param key     the cache key
+     * @param factory the session factory, the sessions created should match the key
+     * @return the ready session observable
+     */
+    @NotNull
+    public Observable<Session> borrow(@NotNull Key key, @NotNull Supplier<? extends Session> factory) {
+        return Observable.defer(() -> {
+            final Session idle = pollIdle(key);
+            if (idle == null) {
+                misses.incrementAndGet();
+                publishTelemetry("Borrow", ImmutableMap.of("hit", "false", "hitRate", String.valueOf(getHitRate())));
+
+                return createReady(factory)
+                        .doOnNext(session -> markBorrowed(key, session));
+            }
+
+            // The idle session could be timed out by Livy server, check it before using
+            return idle.get()
+                    .onErrorReturn(err -> null)
+                    .flatMap(session -> {
+                        if (session == null || !session.isStatementRunnable()) {
+                            closeQuietly(idle);
+
+                            return borrow(key, factory);
+                        }
+
+                        hits.incrementAndGet();
+                        publishTelemetry("Borrow", ImmutableMap.of("hit", "true", "hitRate", String.valueOf(getHitRate())));
+                        markBorrowed(key, session);
+
+                        return Observable.just(session);
+                    });
+        });
+    }
+
+    /**
+     * Give back a borrowed session and close it.
+     *
+     * @param session the session borrowed from the cache
+     */
+    public void release(@NotNull Session session) {
+        release(session, 0);
+    }
+
+    /**
+     * Give back a borrowed session, it's kept idle for the next borrowing of the same key if it's still healthy and
+     * there are less than {@link #MAX_IDLE_PER_KEY} idle ones, or closed.
+     *
+     * @param session        the session borrowed from the cache
+     * @param keepIdleMillis how long to keep the session idle, 0 to close it at once
+     */
+    public void release(@NotNull Session session, long keepIdleMillis) {
+        final boolean kept;
+
+        synchronized (this) {
+            final Key key = borrowedSessions.remove(session);
+            final Deque<IdleSession> idles = key == null || keepIdleMillis <= 0 || isCleared
+                                             ? null
+                                             : idleSessions.computeIfAbsent(key, k -> new ArrayDeque<>());
+            kept = idles != null && !session.isStop() && idles.size() < MAX_IDLE_PER_KEY;
+
+            if (kept) {
+                idles.addLast(new IdleSession(session, keepIdleMillis));
+            }
+        }
+
+        if (!kept) {
+            Observable.just(session)
+                    .observeOn(Schedulers.io())
+                    .subscribe(SparkSessionCache::closeQuietly);
+        }
+    }
+
+    /**
+     * Close all idle sessions, e.g. when the IDE is closing, the borrowed ones are closed once given back.
+     */
+    public void clear() {
+        final List<IdleSession> toClose = new ArrayList<>();
+
+        synchronized (this) {
+            isCleared = true;
+            idleSessions.values().forEach(toClose::addAll);
+            idleSessions.clear();
+        }
+
+        toClose.forEach(idle -> closeQuietly(idle.session));
+    }
+
+    /*
+     * Helpers
+     */
+
+    @Nullable
+    private synchronized Session pollIdle(@NotNull Key key) {
+        final Deque<IdleSession> idles = idleSessions.get(key);
+        final IdleSession idle = idles == null ? null : idles.pollFirst();
+
+        return idle == null ? null : idle.session;
+    }
+
+    private synchronized void markBorrowed(@NotNull Key key, @NotNull Session session) {
+        borrowedSessions.put(session, key);
+    }
+
+    @NotNull
+    private static Observable<Session> createReady(@NotNull Supplier<? extends Session> factory) {
+        return Observable.defer(() -> {
+            final Session session = factory.get();
+
+            return session.create()
+                    .flatMap(Session::awaitReady)
+                    .doOnError(err -> closeQuietly(session));
+        });
+    }
+
+    // Reap the idle sessions which are expired or not runnable any more
+    void checkIdleSessions() {
+        final long now = System.currentTimeMillis();
+        final List<Session> expired = new ArrayList<>();
+        final List<Session> toCheck = new ArrayList<>();
+
+        synchronized (this) {
+            for (final Deque<IdleSession> idles : idleSessions.values()) {
+                for (final Iterator<IdleSession> it = idles.iterator(); it.hasNext(); ) {
+                    final IdleSession idle = it.next();
+
+                    if (now > idle.expireAt) {
+                        it.remove();
+                        expired.add(idle.session);
+                    } else {
+                        toCheck.add(idle.session);
+                    }
+                }
+            }
+
+            idleSessions.values().removeIf(Deque::isEmpty);
+        }
+
+        expired.forEach(SparkSessionCache::closeQuietly);
+
+        for (final Session session : toCheck) {
+            final boolean healthy = session.get()
+                    .map(Session::isStatementRunnable)
+                    .onErrorReturn(err -> false)
+                    .toBlocking()
+                    .firstOrDefault(false);
+
+            if (!healthy && removeIdle(session)) {
+                closeQuietly(session);
+            }
+        }
+    }
+
+    private synchronized boolean removeIdle(@NotNull Session session) {
+        return idleSessions.values().stream().anyMatch(idles -> idles.removeIf(idle -> idle.session == session));
+    }
+
+    private void publishTelemetry(@NotNull String action, @NotNull Map<String, String> properties) {
+        AppInsightsClient.createByType(AppInsightsClient.EventType.Telemetry, TELEMETRY_OBJECT, action, properties);
+    }
+
+    private static void closeQuietly(@NotNull Session session) {
+        try {
+            session.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
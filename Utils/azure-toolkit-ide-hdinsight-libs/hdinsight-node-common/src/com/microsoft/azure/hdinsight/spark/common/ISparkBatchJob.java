@@ -6,6 +6,7 @@
 package com.microsoft.azure.hdinsight.spark.common;
 
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsSample;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import rx.Observable;
 
@@ -143,6 +144,18 @@ public interface ISparkBatchJob extends Cloneable, SparkClientControlMessage {
     @NotNull
     Observable<? extends ISparkBatchJob> submit();
 
+    /**
+     * Subscribe the executor and stage metrics of the running job
+     *
+     * @param sampleIntervalMillis the interval between two metrics samples
+     * @return the changed metrics samples observable, never completes until unsubscribed,
+     *         or an empty observable if the job metrics are not supported
+     */
+    @NotNull
+    default Observable<SparkMetricsSample> getMetrics(long sampleIntervalMillis) {
+        return Observable.empty();
+    }
+
     /**
      * Is the job done, success or failure
      *
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
+import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Subscriber;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.UnknownServiceException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One polling scheduler for the states of all submitted Livy batch jobs.
+ *
+ * Every Livy endpoint is polled by one task. It polls fast right after a watched batch changes state, and backs off
+ * exponentially with jitter while nothing changes. A new watcher gets polled at once without resetting the backoff.
+ * When several batches of the same endpoint are watched, their states are got by one `GET /batches` request
+ * instead of one request per batch.
+ */
+public class LivyBatchStatePoller implements ILogger {
+    /**
+     * The page size of `GET /batches`, batches not in the page are still got one by one
+     */
+    static final int LIST_PAGE_SIZE = 100;
+
+    private static final LivyBatchStatePoller instance = new LivyBatchStatePoller(
+            Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("livy-batch-state-poller-%d")
+                    .build()));
+
+    @NotNull
+    public static LivyBatchStatePoller getInstance() {
+        return instance;
+    }
+
+    @NotNull
+    private final ScheduledExecutorService scheduler;
+    private final Map<SimpleImmutableEntry<SparkBatchSubmission, String>, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    LivyBatchStatePoller(@NotNull ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Watch the state of a Livy batch job
+     *
+     * @param submission the submission to send the Livy requests with
+     * @param connectUri the Livy batches URI, such as http://livy:8998/batches
+     * @param batchId the Livy batch job ID
+     * @param maxFailures the count of continuous failed polls to give up with an error
+     * @param maxIntervalSeconds the cap of the polling interval
+     * @return the observable of every polled batch status, never completes until unsubscribed
+     */
+    @NotNull
+    public Observable<SparkSubmitResponse> watch(@NotNull SparkBatchSubmission submission,
+                                                 @NotNull URI connectUri,
+                                                 int batchId,
+                                                 int maxFailures,
+                                                 int maxIntervalSeconds) {
+        final SimpleImmutableEntry<SparkBatchSubmission, String> key =
+                new SimpleImmutableEntry<>(submission, connectUri.toString());
+
+        return Observable.<SparkSubmitResponse>create(ob -> {
+            final Watcher watcher = new Watcher(
+                    batchId, ob, Math.max(1, maxFailures), TimeUnit.SECONDS.toMillis(maxIntervalSeconds));
+            final Endpoint endpoint = endpoints.compute(key, (k, existed) -> {
+                final Endpoint watching = existed != null ? existed : new Endpoint(k.getKey(), k.getValue());
+                watching.watchers.add(watcher);
+
+                return watching;
+            });
+
+            ob.add(Subscriptions.create(() -> removeWatcher(key, watcher)));
+            endpoint.pollSoon();
+        })
+                // Not to block the polling thread with the downstream work
+                .observeOn(Schedulers.io());
+    }
+
+    private void removeWatcher(@NotNull SimpleImmutableEntry<SparkBatchSubmission, String> key,
+                               @NotNull Watcher watcher) {
+        endpoints.computeIfPresent(key, (k, endpoint) -> {
+            endpoint.watchers.remove(watcher);
+
+            return endpoint.watchers.isEmpty() ? null : endpoint;
+        });
+    }
+
+    private class Endpoint {
+        @NotNull
+        private final SparkBatchSubmission submission;
+        @NotNull
+        private final String connectUrl;
+        private final List<Watcher> watchers = new CopyOnWriteArrayList<>();
+        private final PollingBackoff backoff = new PollingBackoff();
+
+        /**
+         * The batches count got last time, to page `GET /batches` to the most recent batches
+         */
+        private int lastTotal = 0;
+
+        // Accessing with the Endpoint instance lock
+        private long generation = 0;
+        private boolean isPolling = false;
+        private boolean isPollSoonRequested = false;
+
+        Endpoint(@NotNull SparkBatchSubmission submission, @NotNull String connectUrl) {
+            this.submission = submission;
+            this.connectUrl = connectUrl;
+        }
+
+        /**
+         * Poll at once for a new watcher, the backoff is kept since no state is changed
+         */
+        synchronized void pollSoon() {
+            if (isPolling) {
+                isPollSoonRequested = true;
+                return;
+            }
+
+            schedule(0);
+        }
+
+        // Should be called with the Endpoint instance lock
+        private void schedule(long delayMillis) {
+            // The scheduled poll of an outdated generation is skipped
+            final long scheduledGeneration = ++generation;
+            scheduler.schedule(() -> poll(scheduledGeneration), delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void poll(long scheduledGeneration) {
+            synchronized (this) {
+                if (scheduledGeneration != generation) {
+                    return;
+                }
+
+                isPolling = true;
+                isPollSoonRequested = false;
+            }
+
+            long delayMillis = PollingBackoff.DEFAULT_MIN_INTERVAL_MILLIS;
+            try {
+                delayMillis = pollWatchers();
+            } catch (final Exception ex) {
+                log().warn("Got exception in polling Livy batches state of " + connectUrl, ex);
+            } finally {
+                synchronized (this) {
+                    isPolling = false;
+
+                    if (!watchers.isEmpty()) {
+                        schedule(isPollSoonRequested ? 0 : delayMillis);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Poll the states of all watched batches
+         *
+         * @return the delay before the next poll in milliseconds
+         */
+        private long pollWatchers() {
+            final Map<Integer, List<Watcher>> watchersByBatch = new LinkedHashMap<>();
+            long maxIntervalMillis = Long.MAX_VALUE;
+            for (final Watcher watcher : watchers) {
+                watchersByBatch.computeIfAbsent(watcher.batchId, id -> new ArrayList<>()).add(watcher);
+                maxIntervalMillis = Math.min(maxIntervalMillis, watcher.maxIntervalMillis);
+            }
+
+            if (watchersByBatch.isEmpty()) {
+                return PollingBackoff.DEFAULT_MIN_INTERVAL_MILLIS;
+            }
+
+            final Map<Integer, SparkSubmitResponse> listed = watchersByBatch.size() > 1
+                    ? listBatches()
+                    : new HashMap<>();
+            boolean isChanged = false;
+            boolean isFailed = false;
+
+            for (final Map.Entry<Integer, List<Watcher>> batchWatchers : watchersByBatch.entrySet()) {
+                SparkSubmitResponse status = listed.get(batchWatchers.getKey());
+                IOException error = null;
+
+                if (status == null) {
+                    try {
+                        status = getBatch(batchWatchers.getKey());
+                    } catch (final IOException ex) {
+                        error = ex;
+                    }
+                }
+
+                for (final Watcher watcher : batchWatchers.getValue()) {
+                    if (status != null) {
+                        isChanged |= watcher.onStatus(status);
+                    } else {
+                        isFailed = true;
+                        watcher.onFailure(error);
+                    }
+                }
+            }
+
+            if (isFailed) {
+                // Don't hammer an unhealthy endpoint, retry with the longest interval
+                return PollingBackoff.jitter(maxIntervalMillis);
+            }
+
+            if (isChanged) {
+                backoff.reset();
+            }
+
+            return backoff.nextDelayMillis(maxIntervalMillis);
+        }
+
+        @NotNull
+        private Map<Integer, SparkSubmitResponse> listBatches() {
+            final Map<Integer, SparkSubmitResponse> statuses = new HashMap<>();
+            final int from = Math.max(0, lastTotal - LIST_PAGE_SIZE);
+
+            try {
+                final HttpResponse httpResponse = submission.getAllBatchesSparkJobs(
+                        String.format("%s?from=%d&size=%d", connectUrl, from, LIST_PAGE_SIZE));
+
+                if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
+                    ObjectConvertUtils.convertJsonToObject(httpResponse.getMessage(), SparkBatchListResponse.class)
+                            .ifPresent(batches -> {
+                                lastTotal = batches.getTotal();
+                                batches.getSessions().forEach(batch -> statuses.put(batch.getId(), batch));
+                            });
+                }
+            } catch (final IOException ex) {
+                log().debug("Got exception " + ex.toString() + " in listing Livy batches, get them one by one", ex);
+            }
+
+            return statuses;
+        }
+
+        @NotNull
+        private SparkSubmitResponse getBatch(int batchId) throws IOException {
+            final HttpResponse httpResponse = submission.getBatchSparkJobStatus(connectUrl, batchId);
+
+            if (httpResponse.getCode() < 200 || httpResponse.getCode() >= 300) {
+                throw new UnknownServiceException("Bad spark job response with status code " +
+                        httpResponse.getCode() + ": " + httpResponse.getMessage());
+            }
+
+            return ObjectConvertUtils.convertJsonToObject(httpResponse.getMessage(), SparkSubmitResponse.class)
+                    .orElseThrow(() -> new UnknownServiceException(
+                            "Bad spark job response: " + httpResponse.getMessage()));
+        }
+    }
+
+    private class Watcher {
+        private final int batchId;
+        @NotNull
+        private final Subscriber<? super SparkSubmitResponse> subscriber;
+        private final int maxFailures;
+        private final long maxIntervalMillis;
+
+        // Accessing only in the polling thread of the endpoint
+        private int failures = 0;
+        @Nullable
+        private String lastState;
+
+        Watcher(int batchId,
+                @NotNull Subscriber<? super SparkSubmitResponse> subscriber,
+                int maxFailures,
+                long maxIntervalMillis) {
+            this.batchId = batchId;
+            this.subscriber = subscriber;
+            this.maxFailures = maxFailures;
+            this.maxIntervalMillis = maxIntervalMillis;
+        }
+
+        /**
+         * @return true if the state is changed since the last poll, the first polled state is not a change
+         */
+        boolean onStatus(@NotNull SparkSubmitResponse status) {
+            final boolean isChanged = lastState != null && !lastState.equals(status.getState());
+            lastState = status.getState();
+            failures = 0;
+
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onNext(status);
+            }
+
+            return isChanged;
+        }
+
+        void onFailure(@Nullable IOException error) {
+            log().debug("Got exception " + error + " in polling Livy batch " + batchId + ", waiting for a while to try",
+                    error);
+
+            if (++failures >= maxFailures && !subscriber.isUnsubscribed()) {
+                subscriber.onError(new UnknownServiceException(
+                        "Failed to get Spark batch " + batchId + " state after " + failures + " tries: " + error));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential polling intervals with jitter: start from the minimum interval after a reset,
+ * double for every poll without changes, and never exceed the maximum interval given by the caller.
+ */
+public class PollingBackoff {
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = 500;
+
+    private static final double JITTER_RATIO = 0.2;
+
+    private final long minIntervalMillis;
+    private long intervalMillis;
+
+    public PollingBackoff() {
+        this(DEFAULT_MIN_INTERVAL_MILLIS);
+    }
+
+    public PollingBackoff(long minIntervalMillis) {
+        if (minIntervalMillis <= 0) {
+            throw new IllegalArgumentException("The minimum polling interval should be positive: " + minIntervalMillis);
+        }
+
+        this.minIntervalMillis = minIntervalMillis;
+        this.intervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Poll fast again, such as when the polled state has just changed
+     */
+    public synchronized void reset() {
+        intervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Get the delay before the next poll and back off the one after
+     *
+     * @param maxIntervalMillis the cap of the interval, before the jitter is applied
+     * @return the delay in milliseconds, with up to 20% jitter either way so that pollers started together spread out
+     */
+    public synchronized long nextDelayMillis(long maxIntervalMillis) {
+        final long delay = Math.max(minIntervalMillis, Math.min(intervalMillis, maxIntervalMillis));
+        intervalMillis = Math.min(delay * 2, Math.max(minIntervalMillis, maxIntervalMillis));
+
+        return jitter(delay);
+    }
+
+    static long jitter(long delayMillis) {
+        final double factor = 1 - JITTER_RATIO + ThreadLocalRandom.current().nextDouble() * JITTER_RATIO * 2;
+
+        return Math.round(delayMillis * factor);
+    }
+}
@@ -21,14 +21,14 @@ import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.AppResponse;
 import com.microsoft.azure.hdinsight.sdk.storage.model.IHDIStorageAccount;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsMonitor;
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsSample;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.htmlunit.Cache;
 import rx.Observable;
 import rx.Observer;
-import rx.Subscriber;
 import rx.subjects.PublishSubject;
 
 import java.io.File;
@@ -131,11 +131,6 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
      */
     private int delaySeconds = 10;
 
-    /**
-     * The global cache for fetched Yarn UI page by browser
-     */
-    private final Cache globalCache = JobUtils.getGlobalCache();
-
     /**
      * The driver log conversion mode
      */
@@ -498,34 +493,48 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                     "please configure Spark cluster which the Spark job will be submitted.");
         }
 
-        int retries = 0;
+        return getPolledBatchStatus("Failed to get job state").getState();
+    }
 
-        do {
-            try {
-                final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                        this.getConnectUri().toString(), batchId);
+    /**
+     * New RxAPI: Watch the Livy batch job status with the shared polling scheduler, which polls fast after
+     * the state changes and backs off to {@link #getDelaySeconds()} while nothing changes
+     *
+     * @return the observable of every polled status, never completes until unsubscribed
+     */
+    @NotNull
+    protected Observable<SparkSubmitResponse> watchBatchStatus() {
+        if (getConnectUri() == null) {
+            return Observable.error(new SparkJobNotConfiguredException("Can't get Spark job connection URI, " +
+                    "please configure Spark cluster which the Spark job will be submitted."));
+        }
 
-                if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                    final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
-                            httpResponse.getMessage(), SparkSubmitResponse.class)
-                                                                          .orElseThrow(() -> new UnknownServiceException(
-                                    "Bad spark job response: " + httpResponse.getMessage()));
+        return LivyBatchStatePoller.getInstance().watch(
+                getSubmission(), getConnectUri(), getBatchId(), getRetriesMax(), getDelaySeconds());
+    }
 
-                    return jobResp.getState();
-                }
-            } catch (final IOException e) {
-                log().debug("Got exception " + e.toString() + ", waiting for a while to try", e);
+    /**
+     * Get the Livy batch job status with the next poll, retrying up to {@link #getRetriesMax()} times
+     *
+     * @param failureMessage the message prefix of the exception thrown when all retries fail
+     * @return the Livy batch job status got
+     * @throws IOException exceptions in transaction
+     */
+    @NotNull
+    private SparkSubmitResponse getPolledBatchStatus(@NotNull String failureMessage) throws IOException {
+        try {
+            return watchBatchStatus().toBlocking().first();
+        } catch (final RuntimeException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                throw new IOException("Interrupted in retry attempting", ex.getCause());
             }
 
-            try {
-                // Retry interval
-                sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
-            } catch (final InterruptedException ex) {
-                throw new IOException("Interrupted in retry attempting", ex);
+            if (ex.getCause() instanceof IOException) {
+                throw new UnknownServiceException(failureMessage + ": " + ex.getCause().getMessage());
             }
-        } while (++retries < this.getRetriesMax());
 
-        throw new UnknownServiceException("Failed to get job state: Unknown service error after " + --retries + " retries");
+            throw ex;
+        }
     }
 
     /**
@@ -710,37 +719,24 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
     @Nullable
     @Deprecated
     public String getSparkJobDriverLogUrl(URI batchBaseUri, int batchId) throws IOException {
-        int retries = 0;
-
-        do {
-            final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                    batchBaseUri.toString(), batchId);
-
-            try {
-                if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                    final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
-                            httpResponse.getMessage(), SparkSubmitResponse.class)
-                                                                          .orElseThrow(() -> new UnknownServiceException(
-                                    "Bad spark job response: " + httpResponse.getMessage()));
-
-                    if (jobResp.getAppId() != null && jobResp.getAppInfo().get("driverLogUrl") != null) {
-                        return jobResp.getAppInfo().get("driverLogUrl").toString();
-                    }
-                }
-            } catch (final IOException e) {
-                log().debug("Got exception " + e.toString() + ", waiting for a while to try", e);
+        try {
+            return LivyBatchStatePoller.getInstance()
+                    .watch(getSubmission(), batchBaseUri, batchId, getRetriesMax(), getDelaySeconds())
+                    .filter(jobResp -> jobResp.getAppId() != null && jobResp.getAppInfo() != null &&
+                            jobResp.getAppInfo().get("driverLogUrl") != null)
+                    .map(jobResp -> jobResp.getAppInfo().get("driverLogUrl").toString())
+                    // Keep the total waiting time as the fixed interval retries did
+                    .timeout((long) getRetriesMax() * getDelaySeconds(), TimeUnit.SECONDS)
+                    .toBlocking()
+                    .first();
+        } catch (final RuntimeException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                throw new IOException("Interrupted in retry attempting", ex.getCause());
             }
 
-
-            try {
-                // Retry interval
-                sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
-            } catch (final InterruptedException ex) {
-                throw new IOException("Interrupted in retry attempting", ex);
-            }
-        } while (++retries < this.getRetriesMax());
-
-        throw new UnknownServiceException("Failed to get job driver log URL: Unknown service error after " + --retries + " retries");
+            throw new UnknownServiceException("Failed to get job driver log URL: " +
+                    (ex.getCause() != null ? ex.getCause() : ex));
+        }
     }
 
     /**
@@ -805,6 +801,7 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
         return Observable.create(ob -> {
             try {
                 final int maxLinesPerGet = 128;
+                final PollingBackoff backoff = new PollingBackoff();
                 int linesGot;
                 boolean isFetching = true;
 
@@ -837,11 +834,13 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                         nextLivyLogOffset += linesGot;
                     }
 
-                    // Retry interval
+                    // Retry interval, fetch again soon when new lines keep coming
                     if (linesGot == 0) {
                         isFetching = "starting".equals(this.getState()) && !isAppIdAllocated;
 
-                        sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
+                        sleep(backoff.nextDelayMillis(TimeUnit.SECONDS.toMillis(this.getDelaySeconds())));
+                    } else {
+                        backoff.reset();
                     }
                 }
             } catch (final IOException ex) {
@@ -859,79 +858,15 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                     "please configure Spark cluster which the Spark job will be submitted.");
         }
 
-        int retries = 0;
-
-        do {
-            try {
-                final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                        this.getConnectUri().toString(), batchId);
-
-                if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                    final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
-                            httpResponse.getMessage(), SparkSubmitResponse.class)
-                                                                          .orElseThrow(() -> new UnknownServiceException(
-                                    "Bad spark job response: " + httpResponse.getMessage()));
-
-                    return jobResp.isAlive();
-                }
-            } catch (final IOException e) {
-                log().debug("Got exception " + e.toString() + ", waiting for a while to try", e);
-            }
-
-            try {
-                // Retry interval
-                sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
-            } catch (final InterruptedException ex) {
-                throw new IOException("Interrupted in retry attempting", ex);
-            }
-        } while (++retries < this.getRetriesMax());
-
-        throw new UnknownServiceException("Failed to detect job activity: Unknown service error after " + --retries + " retries");
+        return getPolledBatchStatus("Failed to detect job activity").isAlive();
     }
 
     protected Observable<SimpleImmutableEntry<String, String>> getJobDoneObservable() {
-        if (getConnectUri() == null) {
-            return Observable.error(new SparkJobNotConfiguredException("Can't get Spark job connection URI, " +
-                    "please configure Spark cluster which the Spark job will be submitted."));
-        }
-
-        return Observable.create((Subscriber<? super SimpleImmutableEntry<String, String>> ob) -> {
-            try {
-                boolean isJobActive;
-                SparkBatchJobState state = SparkBatchJobState.NOT_STARTED;
-                String diagnostics = "";
-
-                do {
-                    final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                            this.getConnectUri().toString(), batchId);
-
-                    if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                        final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
-                                httpResponse.getMessage(), SparkSubmitResponse.class)
-                                                                              .orElseThrow(() -> new UnknownServiceException(
-                                        "Bad spark job response: " + httpResponse.getMessage()));
-
-                        state = SparkBatchJobState.valueOf(jobResp.getState().toUpperCase());
-                        diagnostics = String.join("\n", jobResp.getLog());
-
-                        isJobActive = !isDone(state.toString());
-                    } else {
-                        isJobActive = false;
-                    }
-
-
-                    // Retry interval
-                    sleep(1000);
-                } while (isJobActive);
-
-                ob.onNext(new SimpleImmutableEntry<>(state.toString(), diagnostics));
-                ob.onCompleted();
-            } catch (final IOException ex) {
-                ob.onError(ex);
-            } catch (final InterruptedException ignored) {
-                ob.onCompleted();
-            }
-        });
+        return watchBatchStatus()
+                .map(jobResp -> new SimpleImmutableEntry<>(
+                        SparkBatchJobState.valueOf(jobResp.getState().toUpperCase()).toString(),
+                        String.join("\n", jobResp.getLog())))
+                .takeFirst(stateLogPair -> isDone(stateLogPair.getKey()));
     }
 
     protected Observable<String> getJobLogAggregationDoneObservable() {
@@ -1106,6 +1041,20 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
 
 
 
+    @NotNull
+    @Override
+    public Observable<SparkMetricsSample> getMetrics(final long sampleIntervalMillis) {
+        final Optional<IClusterDetail> cluster = getCluster() != null
+                ? Optional.of(getCluster())
+                : ClusterManagerEx.getInstance().getClusterDetailByName(getSubmissionParameter().getClusterName());
+        if (!cluster.isPresent()) {
+            return Observable.empty();
+        }
+
+        return getSparkJobApplicationIdObservable()
+                .flatMap(appId -> new SparkMetricsMonitor(cluster.get(), appId).observe(sampleIntervalMillis));
+    }
+
     @Override
     public boolean isDone(@NotNull String state) {
         switch (SparkBatchJobState.valueOf(state.toUpperCase())) {
@@ -1135,42 +1084,18 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
         return SparkBatchJobState.valueOf(state.toUpperCase()) == SparkBatchJobState.SUCCESS;
     }
 
-    /**
-     * New RxAPI: Get the job status (from livy)
-     *
-     * @return Spark Job observable
-     */
-    @NotNull
-    public Observable<? extends SparkSubmitResponse> getStatus() {
-        if (getConnectUri() == null) {
-            return Observable.error(new SparkJobNotConfiguredException("Can't get Spark job connection URI, " +
-                    "please configure Spark cluster which the Spark job will be submitted."));
-        }
-
-        return Observable.fromCallable(() -> {
-            final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                    this.getConnectUri().toString(), getBatchId());
-
-            if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                return ObjectConvertUtils.convertJsonToObject(
-                        httpResponse.getMessage(), SparkSubmitResponse.class)
-                        .orElseThrow(() -> new UnknownServiceException(
-                                "Bad spark job response: " + httpResponse.getMessage()));
-            }
-
-            throw new SparkJobException("Can't get cluster " + getSubmissionParameter().getClusterName() + " status.");
-        });
-    }
-
     @NotNull
     @Override
     public Observable<String> awaitStarted() {
-        return getStatus()
+        return watchBatchStatus()
                 .map(status -> new SimpleImmutableEntry<>(status.getState(), String.join("\n", status.getLog())))
-                .retry(getRetriesMax())
-                .repeatWhen(ob -> ob.doOnNext(ignored -> getCtrlSubject().onNext(
-                        new SparkLogLine(TOOL, Info, "The Spark job is starting...")))
-                                    .delay(getDelaySeconds(), TimeUnit.SECONDS))
+                // The state is polled fast after changes, only report once per state
+                .distinctUntilChanged(SimpleImmutableEntry::getKey)
+                .doOnNext(stateLogPair -> {
+                    if (!isDone(stateLogPair.getKey()) && !isRunning(stateLogPair.getKey())) {
+                        getCtrlSubject().onNext(new SparkLogLine(TOOL, Info, "The Spark job is starting..."));
+                    }
+                })
                 .takeUntil(stateLogPair -> isDone(stateLogPair.getKey()) || isRunning(stateLogPair.getKey()))
                 .filter(stateLogPair -> isDone(stateLogPair.getKey()) || isRunning(stateLogPair.getKey()))
                 .flatMap(stateLogPair -> {
@@ -21,8 +21,8 @@ import com.microsoft.azure.hdinsight.sdk.cluster.LivyCluster;
 import com.microsoft.azure.hdinsight.sdk.cluster.MfaEspCluster;
 import com.microsoft.azure.hdinsight.sdk.common.AuthenticationException;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
-import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSessionCache;
 import com.microsoft.azure.hdinsight.sdk.io.spark.ClusterFileBase64BufferedOutputStream;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
@@ -65,11 +65,6 @@ import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.htmlunit.BrowserVersion;
-import org.htmlunit.Cache;
-import org.htmlunit.FailingHttpStatusCodeException;
-import org.htmlunit.WebClient;
-import org.htmlunit.html.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
@@ -82,20 +77,17 @@ import java.awt.*;
 import java.io.*;
 import java.lang.reflect.Type;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.UnknownServiceException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
 import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
-import static org.apache.http.HttpHeaders.AUTHORIZATION;
 import static rx.exceptions.Exceptions.propagate;
 
 public class JobUtils {
@@ -107,6 +99,9 @@ public class JobUtils {
 
     private static final CredentialsProvider provider = new BasicCredentialsProvider();
 
+    // How long the helper session to upload artifacts is kept idle for the following uploads
+    private static final long UPLOAD_SESSION_KEEP_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     public static void setResponse(@NotNull HttpExchange httpExchange, @NotNull String message) {
         setResponse(httpExchange, message, 200);
     }
@@ -195,8 +190,6 @@ public class JobUtils {
         }
     }
 
-    private static final Cache globalCache = new Cache();
-
     private static final String DRIVER_LOG_INFO_URL = "%s/yarnui/jobhistory/logs/%s/port/%s/%s/%s/livy";
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException, HDIException {
@@ -242,85 +235,7 @@ public class JobUtils {
                                                       @NotNull String type,
                                                       long start,
                                                       int size) {
-        final WebClient HTTP_WEB_CLIENT = new WebClient(BrowserVersion.CHROME);
-        HTTP_WEB_CLIENT.getOptions().setUseInsecureSSL(HttpObservable.isSSLCertificateValidationDisabled());
-        HTTP_WEB_CLIENT.setCache(globalCache);
-
-        if (authCode != null) {
-            HTTP_WEB_CLIENT.addRequestHeader(AUTHORIZATION, authCode);
-        }
-
-        return getInformationFromYarnLogDom(HTTP_WEB_CLIENT, baseUrl, type, start, size);
-    }
-
-    private static String getInformationFromYarnLogDom(@NotNull WebClient client,
-                                                      @NotNull String baseUrl,
-                                                      @NotNull String type,
-                                                      long start,
-                                                      int size) {
-        URI url = null;
-
-        try {
-            url = new URI(baseUrl + "/").resolve(
-                    String.format("%s?start=%d", type, start) +
-                            (size <= 0 ? "" : String.format("&&end=%d", start + size)));
-            final HtmlPage htmlPage = client.getPage(url.toString());
-
-            final Iterator<DomElement> iterator = htmlPage.getElementById("navcell").getNextElementSibling().getChildElements().iterator();
-
-            final HashMap<String, String> logTypeMap = new HashMap<>();
-            final AtomicReference<String> logType = new AtomicReference<>();
-            String logs = "";
-
-            while (iterator.hasNext()) {
-                final DomElement node = iterator.next();
-
-                if (node instanceof HtmlParagraph) {
-                    // In history server, need to read log type paragraph in page
-                    final Pattern logTypePattern = Pattern.compile("Log Type:\\s+(\\S+)");
-
-                    Optional.ofNullable(node.getFirstChild())
-                            .map(DomNode::getTextContent)
-                            .map(String::trim)
-                            .map(logTypePattern::matcher)
-                            .filter(Matcher::matches)
-                            .map(matcher -> matcher.group(1))
-                            .ifPresent(logType::set);
-                } else if (node instanceof HtmlPreformattedText) {
-                    // In running, no log type paragraph in page
-                    logs = Optional.ofNullable(node.getFirstChild())
-                                .map(DomNode::getTextContent)
-                                .orElse("");
-
-                    if (logType.get() != null) {
-                        // Only get the first <pre>...</pre>
-                        logTypeMap.put(logType.get(), logs);
-
-                        logType.set(null);
-                    }
-                }
-            }
-
-            return logTypeMap.getOrDefault(type, logs);
-        } catch (final FailingHttpStatusCodeException httpError) {
-            // If the URL is wrong, will get 200 response with content:
-            //      Unable to locate 'xxx' log for container
-            //  OR
-            //      Logs not available for <user>. Aggregation may not be complete, Check back later or try the nodemanager at...
-            //  OR
-            //      Cannot get container logs without ...
-            //
-            // if fetching Yarn log hits the gap between the job running and stop, will get the status 403
-            // the log is moving to job history server, just wait and retry.
-            if (httpError.getStatusCode() != HttpStatus.SC_FORBIDDEN) {
-                LOGGER.warn("The GET request to " + url + " responded error: " + httpError.getMessage());
-            }
-        } catch (final URISyntaxException e) {
-            LOGGER.error("baseUrl has syntax error: " + baseUrl);
-        } catch (final Exception e) {
-            LOGGER.warn("get Spark job log Error", e);
-        }
-        return "";
+        return YarnContainerLogReader.read(authCode, baseUrl, type, start, size);
     }
 
     /**
@@ -369,23 +284,16 @@ public class JobUtils {
                             remainedLine = "";
                         } else {
                             remainedLine += logs;
-                            nextStart += logs.length();
+                            nextStart += logs.getBytes(StandardCharsets.UTF_8).length;
                         }
                     } else {
-                        long handledLength = new BufferedReader(new StringReader(
-                                                remainedLine + logs.substring(0, lastLineBreak)))
+                        new BufferedReader(new StringReader(remainedLine + logs.substring(0, lastLineBreak)))
                                 .lines()
-                                .map(line -> {
-                                    ob.onNext(line);
-
-                                    // Count the line length with linebreak
-                                    // We need to handle this since the web client may convert the LF to CRLF
-                                    return (line.length() + 1);
-                                })
-                                .reduce(Integer::sum)
-                                .orElse(0);
+                                .forEach(ob::onNext);
 
-                        nextStart += handledLength - remainedLine.length();
+                        // The start offset is in bytes of the log file, count the handled logs with the linebreak
+                        // in bytes, the rest after the last linebreak will be fetched again
+                        nextStart += logs.substring(0, lastLineBreak + 1).getBytes(StandardCharsets.UTF_8).length;
                         remainedLine = "";
                     }
 
@@ -638,27 +546,32 @@ public class JobUtils {
 
         final String username = selectedClusterDetail.getHttpUserName();
         final String password = selectedClusterDetail.getHttpPassword();
-        final String sessionName = "Helper session to upload " + destUri.toString();
+        final String sessionName = "Helper session to upload artifacts";
 
         final URI livyUri = selectedClusterDetail instanceof LivyCluster ?
                             URI.create(((LivyCluster) selectedClusterDetail).getLivyConnectionUrl()) :
                             URI.create(selectedClusterDetail.getConnectionUrl());
 
-        ctrlInfo(legacyLogSubject, newLogSubject, "Create Spark helper interactive session...");
+        ctrlInfo(legacyLogSubject, newLogSubject, "Get Spark helper interactive session...");
+
+        // The helper session is kept idle for a while, so that the following uploads needn't wait for a new session
+        // starting
+        final SparkSessionCache sessionCache = SparkSessionCache.getInstance();
+        final SparkSessionCache.Key cacheKey = SparkSessionCache.Key.of(livyUri, null, username);
 
         try {
-            return Observable.using(() -> new SparkSession(sessionName, livyUri, username, password),
-                                    SparkSession::create,
-                                    SparkSession::close)
+            return sessionCache.borrow(cacheKey, () -> new SparkSession(sessionName, livyUri, username, password))
+                             .flatMap(session -> Observable.using(() -> session, Observable::just,
+                                                                  ses -> sessionCache.release(ses, UPLOAD_SESSION_KEEP_IDLE_MILLIS)))
                              .map(sparkSession -> {
-                                 sparkSession.getCtrlSubject()
+                                 final Subscription ctrlSubscription = sparkSession.getCtrlSubject()
                                              .subscribe(logLine -> ctrlInfo(legacyLogSubject, newLogSubject,
                                                                             logLine.getRawLog()),
                                                         err -> ctrlError(legacyLogSubject, newLogSubject, err),
                                                         () -> {});
 
                                  ClusterFileBase64BufferedOutputStream clusterFileBase64Out =
-                                         new ClusterFileBase64BufferedOutputStream(sparkSession, destUri);
+                                         new ClusterFileBase64BufferedOutputStream(sparkSession, destUri, false);
                                  Base64OutputStream base64Enc = new Base64OutputStream(clusterFileBase64Out, true);
                                  InputStream inFile;
 
@@ -677,6 +590,8 @@ public class JobUtils {
                                  } catch (IOException ioEx) {
                                      throw propagate(new HDIException(String.format("Failed to upload file %s.",
                                                                                     destUri), ioEx));
+                                 } finally {
+                                     ctrlSubscription.unsubscribe();
                                  }
                                  ctrlInfo(legacyLogSubject, newLogSubject, String.format("Uploaded to %s.", destUri));
 
@@ -844,10 +759,6 @@ public class JobUtils {
         });
     }
 
-    public static Cache getGlobalCache() {
-        return globalCache;
-    }
-
     public static AbstractMap.SimpleImmutableEntry<Integer, List<Header>>
     authenticate(IClusterDetail clusterDetail) throws HDIException, IOException {
         final SparkBatchSubmission submission = SparkBatchSubmission.getInstance();
@@ -7,9 +7,17 @@ package com.microsoft.azure.hdinsight.spark.jobs;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.microsoft.azure.hdinsight.common.JobViewManager;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.rest.AttemptWithAppId;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.Application;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
@@ -19,110 +27,284 @@ import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class JobViewCacheManager {
-    private static final LoadingCache<ApplicationKey, List<Job>> sparkJobLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Job>>() {
+    // The data of running applications is refreshed in background on access once it's older than this,
+    // the old data is still served during the refreshing
+    public static final long RUNNING_APP_REFRESH_SECONDS = 30;
+
+    // The data of running applications is dropped after not being accessed for this long
+    public static final long RUNNING_APP_EXPIRE_MINUTES = 10;
+
+    // The data of finished applications never changes, it's only dropped after not being accessed for this long
+    public static final long FINISHED_APP_EXPIRE_MINUTES = 60;
+
+    // The cache capacities are weighed by the count of the list elements, or by KB for Yarn logs
+    private static final long MAX_LIST_ELEMENTS_WEIGHT = 100_000;
+    private static final long MAX_TASKS_WEIGHT = 200_000;
+    private static final long MAX_YARN_LOGS_KB_WEIGHT = 64 * 1024;
+    private static final long MAX_YARN_APPS_WEIGHT = 100;
+
+    private static final ScheduledExecutorService refreshExecutor = Executors.newScheduledThreadPool(4,
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("job-view-cache-refresh-%d")
+                    .build());
+
+    // The caches of application data, swept periodically to drop the expired data of running applications
+    private static final List<LoadingCache<ApplicationKey, ? extends CachedValue<?>>> applicationCaches =
+            new CopyOnWriteArrayList<>();
+
+    static {
+        refreshExecutor.scheduleWithFixedDelay(JobViewCacheManager::expireRunningApplications, 1, 1, TimeUnit.MINUTES);
+    }
+
+    private static final LoadingCache<ApplicationKey, CachedValue<List<Job>>> sparkJobLocalCache = buildApplicationCache(
+            MAX_LIST_ELEMENTS_WEIGHT,
+            JobViewCacheManager::weighList,
+            new CacheLoader<ApplicationKey, List<Job>>() {
                 @Override
                 public List<Job> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getLastAttemptJobsFromApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<Stage>> sparkStageLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Stage>>() {
+    private static final LoadingCache<ApplicationKey, CachedValue<List<Stage>>> sparkStageLocalCache = buildApplicationCache(
+            MAX_LIST_ELEMENTS_WEIGHT,
+            JobViewCacheManager::weighList,
+            new CacheLoader<ApplicationKey, List<Stage>>() {
                 @Override
                 public List<Stage> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getAllStageFromApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<Executor>> sparkExecutorLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Executor>>() {
+    private static final LoadingCache<ApplicationKey, CachedValue<List<Executor>>> sparkExecutorLocalCache = buildApplicationCache(
+            MAX_LIST_ELEMENTS_WEIGHT,
+            JobViewCacheManager::weighList,
+            new CacheLoader<ApplicationKey, List<Executor>>() {
                 @Override
                 public List<Executor> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getAllExecutorFromApp(key);
                 }
             });
 
+    // The application list of a cluster keeps changing, so it's always refreshed in background
     private static final LoadingCache<String, List<Application>> sparkApplicationsLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
+            .<String, List<Application>>weigher(JobViewCacheManager::weighList)
+            .maximumWeight(MAX_LIST_ELEMENTS_WEIGHT)
             .initialCapacity(20)
-            .build(new CacheLoader<String, List<Application>>() {
+            .refreshAfterWrite(RUNNING_APP_REFRESH_SECONDS, TimeUnit.SECONDS)
+            .expireAfterAccess(FINISHED_APP_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .recordStats()
+            .build(CacheLoader.asyncReloading(new CacheLoader<String, List<Application>>() {
                 @Override
                 public List<Application> load(String key) throws Exception {
                     return SparkRestUtil.getSparkApplications(JobViewManager.getCluster(key));
                 }
-            });
+            }, refreshExecutor));
 
-    private static final LoadingCache<ApplicationKey, List<Task>> sparkTasksSummaryLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Task>>() {
+    // The tasks of the stages loaded so far, for the applications whose tasks are still loading
+    private static final Map<ApplicationKey, SparkTasksLoader.LoadedTasks> sparkTasksLoadingCache = new ConcurrentHashMap<>();
+
+    // The applications whose tasks are loading in background for the job view polling them
+    private static final Set<ApplicationKey> sparkTasksBackgroundLoadings = ConcurrentHashMap.newKeySet();
+
+    // The failures of the background task loadings, reported to the next polling
+    private static final Map<ApplicationKey, Throwable> sparkTasksLoadingFailures = new ConcurrentHashMap<>();
+
+    private static final LoadingCache<ApplicationKey, CachedValue<List<Task>>> sparkTasksSummaryLocalCache = buildApplicationCache(
+            MAX_TASKS_WEIGHT,
+            JobViewCacheManager::weighList,
+            new CacheLoader<ApplicationKey, List<Task>>() {
                 @Override
                 public List<Task> load(ApplicationKey key) throws Exception {
-                    List<Task> allTasks = new ArrayList<>();
-                    List<Stage> stages = sparkStageLocalCache.get(key);
-                    for (Stage stage: stages) {
-                        int stageId = stage.getStageId();
-                        int attemptedId = stage.getAttemptId();
-                        List<Task> tasks = SparkRestUtil.getSparkTasks(key, stageId, attemptedId);
-                        allTasks.addAll(tasks);
+                    List<Stage> stages = get(sparkStageLocalCache, key);
+                    SparkTasksLoader.LoadedTasks loadedTasks = new SparkTasksLoader.LoadedTasks(stages.size());
+                    sparkTasksLoadingCache.put(key, loadedTasks);
+                    try {
+                        return SparkTasksLoader.loadAllTasks(key, stages, loadedTasks);
+                    } finally {
+                        sparkTasksLoadingCache.remove(key, loadedTasks);
                     }
-                    return allTasks;
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, ApplicationMasterLogs> yarnAppLogLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, ApplicationMasterLogs>() {
+    private static final LoadingCache<ApplicationKey, CachedValue<ApplicationMasterLogs>> yarnAppLogLocalCache = buildApplicationCache(
+            MAX_YARN_LOGS_KB_WEIGHT,
+            (key, logs) -> 1 + (length(logs.getStdout()) + length(logs.getStderr()) + length(logs.getDirectoryInfo())) / 1024,
+            new CacheLoader<ApplicationKey, ApplicationMasterLogs>() {
                 @Override
                 public ApplicationMasterLogs load(ApplicationKey key) throws Exception {
                     return JobUtils.getYarnLogs(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, App> yarnApplicationLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, App>() {
+    private static final LoadingCache<ApplicationKey, CachedValue<App>> yarnApplicationLocalCache = buildApplicationCache(
+            MAX_YARN_APPS_WEIGHT,
+            (key, app) -> 1,
+            new CacheLoader<ApplicationKey, App>() {
                 @Override
                 public App load(ApplicationKey key) throws Exception {
                     return YarnRestUtil.getApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<JobStartEventLog>> sparkJobStartEventLogCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<JobStartEventLog>>() {
+    private static final LoadingCache<ApplicationKey, CachedValue<List<JobStartEventLog>>> sparkJobStartEventLogCache = buildApplicationCache(
+            MAX_LIST_ELEMENTS_WEIGHT,
+            JobViewCacheManager::weighList,
+            new CacheLoader<ApplicationKey, List<JobStartEventLog>>() {
                 @Override
                 public List<JobStartEventLog> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getSparkEventLogs(key);
                 }
             });
 
+    private static <V> LoadingCache<ApplicationKey, CachedValue<V>> buildApplicationCache(
+            long maximumWeight,
+            @NotNull Weigher<ApplicationKey, V> weigher,
+            @NotNull CacheLoader<ApplicationKey, V> loader) {
+        final LoadingCache<ApplicationKey, CachedValue<V>> cache = CacheBuilder.newBuilder()
+                .<ApplicationKey, CachedValue<V>>weigher((key, cached) -> weigher.weigh(key, cached.value))
+                .maximumWeight(maximumWeight)
+                .initialCapacity(20)
+                .refreshAfterWrite(RUNNING_APP_REFRESH_SECONDS, TimeUnit.SECONDS)
+                .expireAfterAccess(FINISHED_APP_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .recordStats()
+                .build(new RefreshAheadLoader<>(loader));
+        applicationCaches.add(cache);
+
+        return cache;
+    }
+
+    private static <V> V get(@NotNull LoadingCache<ApplicationKey, CachedValue<V>> cache,
+                             @NotNull ApplicationKey key) throws ExecutionException {
+        final CachedValue<V> cached = cache.get(key);
+        cached.lastAccess = System.currentTimeMillis();
+        return cached.value;
+    }
+
+    @Nullable
+    private static <V> V getIfPresent(@NotNull LoadingCache<ApplicationKey, CachedValue<V>> cache,
+                                      @NotNull ApplicationKey key) {
+        final CachedValue<V> cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+
+        cached.lastAccess = System.currentTimeMillis();
+        return cached.value;
+    }
+
+    /**
+     * Drop the running application data not accessed for {@link #RUNNING_APP_EXPIRE_MINUTES},
+     * the finished application data is expired by the caches themselves
+     */
+    private static void expireRunningApplications() {
+        final long expireBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(RUNNING_APP_EXPIRE_MINUTES);
+        applicationCaches.forEach(cache -> cache.asMap().values()
+                .removeIf(cached -> !cached.isFinal && cached.lastAccess < expireBefore));
+    }
+
+    private static int weighList(@NotNull Object key, @NotNull List<?> list) {
+        return Math.max(1, list.size());
+    }
+
+    private static int length(String str) {
+        return str == null ? 0 : str.length();
+    }
+
+    /**
+     * Check the application finished state from the cached application list without blocking,
+     * an unknown application is treated as running.
+     */
+    private static boolean isApplicationFinished(@NotNull ApplicationKey key) {
+        final String clusterName = key.getClusterDetails().getName();
+        final List<Application> apps = sparkApplicationsLocalCache.getIfPresent(clusterName);
+        if (apps == null) {
+            return false;
+        }
+
+        return apps.stream()
+                .filter(app -> app.getId().equalsIgnoreCase(key.getAppId()))
+                .findFirst()
+                .map(app -> app.getLastAttemptWithAppId(clusterName))
+                .map(AttemptWithAppId::getCompleted)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+    }
+
+    /**
+     * The cached application data, with whether it's loaded after the application finished
+     */
+    private static class CachedValue<V> {
+        private final V value;
+        // The data loaded after the application finished never changes, so it's not refreshed any more
+        private final boolean isFinal;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        CachedValue(V value, boolean isFinal) {
+            this.value = value;
+            this.isFinal = isFinal;
+        }
+    }
+
+    /**
+     * The loader refreshes the running application data asynchronously, and stops refreshing
+     * once the data is loaded after the application finished.
+     */
+    private static class RefreshAheadLoader<V> extends CacheLoader<ApplicationKey, CachedValue<V>> {
+        @NotNull
+        private final CacheLoader<ApplicationKey, V> delegate;
+
+        RefreshAheadLoader(@NotNull CacheLoader<ApplicationKey, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CachedValue<V> load(ApplicationKey key) throws Exception {
+            final boolean isFinished = isApplicationFinished(key);
+            return new CachedValue<>(delegate.load(key), isFinished);
+        }
+
+        @Override
+        public ListenableFuture<CachedValue<V>> reload(ApplicationKey key, CachedValue<V> oldValue) {
+            if (oldValue.isFinal) {
+                return Futures.immediateFuture(oldValue);
+            }
+
+            final ListenableFutureTask<CachedValue<V>> task = ListenableFutureTask.create(() -> {
+                final CachedValue<V> loaded = load(key);
+                loaded.lastAccess = oldValue.lastAccess;
+                return loaded;
+            });
+            refreshExecutor.execute(task);
+            return task;
+        }
+    }
+
     public static List<JobStartEventLog> getJobStartEventLogs(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkJobStartEventLogCache.get(key);
+        return get(sparkJobStartEventLogCache, key);
     }
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException {
-            return yarnAppLogLocalCache.get(key);
+            return get(yarnAppLogLocalCache, key);
     }
 
     public static App getYarnApp(@NotNull ApplicationKey key) throws ExecutionException {
-        return yarnApplicationLocalCache.get(key);
+        return get(yarnApplicationLocalCache, key);
     }
 
     public static List<Application> getSparkApplications(@NotNull IClusterDetail clusterDetail) throws ExecutionException {
@@ -140,18 +322,121 @@ public class JobViewCacheManager {
     }
 
     public static List<Executor> getExecutors(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkExecutorLocalCache.get(key);
+        return get(sparkExecutorLocalCache, key);
     }
 
     public static List<Job> getJob(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkJobLocalCache.get(key);
+        return get(sparkJobLocalCache, key);
+    }
+
+    /**
+     * Get the tasks loaded so far without waiting, and start loading them in background if not yet.
+     * The job view polls it until all tasks are loaded, the loading is cancelled once it's not polled any more.
+     *
+     * @throws ExecutionException the failure of the last background loading, which is reported only once
+     */
+    @NotNull
+    public static SparkTasksLoader.LoadedTasks getLoadedTasks(@NotNull ApplicationKey key) throws ExecutionException {
+        final Throwable failure = sparkTasksLoadingFailures.remove(key);
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+
+        final SparkTasksLoader.LoadedTasks loading = sparkTasksLoadingCache.get(key);
+        if (loading != null) {
+            loading.poll();
+        }
+
+        // Loading in background also triggers the refreshing of the cached tasks of a running application
+        loadTasksInBackground(key);
+
+        final List<Task> tasks = getIfPresent(sparkTasksSummaryLocalCache, key);
+        if (tasks != null) {
+            return SparkTasksLoader.LoadedTasks.of(tasks);
+        }
+
+        // Nothing is loaded before the stages are got
+        return loading != null ? loading : new SparkTasksLoader.LoadedTasks(1);
     }
 
-    public static List<Task> getTasks(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkTasksSummaryLocalCache.get(key);
+    private static void loadTasksInBackground(@NotNull ApplicationKey key) {
+        if (!sparkTasksBackgroundLoadings.add(key)) {
+            return;
+        }
+
+        refreshExecutor.execute(() -> {
+            try {
+                sparkTasksSummaryLocalCache.get(key);
+            } catch (ExecutionException | UncheckedExecutionException ex) {
+                if (!(ex.getCause() instanceof SparkTasksLoader.CancelledException)) {
+                    sparkTasksLoadingFailures.put(key, ex.getCause());
+                }
+            } finally {
+                sparkTasksBackgroundLoadings.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Cancel the in-flight task loadings of all applications of the cluster, such as when its job view is closed,
+     * so that the abandoned loadings don't hold the concurrent requests until they time out
+     */
+    public static void cancelTasksLoading(@NotNull String clusterName) {
+        SparkTasksLoader.cancelOfCluster(clusterName);
     }
 
     public static List<Stage> getStages(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkStageLocalCache.get(key);
+        return get(sparkStageLocalCache, key);
+    }
+
+    /**
+     * Get the hit, miss, load time and eviction statistics of all job view caches, keyed by the cache name
+     */
+    @NotNull
+    public static Map<String, CacheStats> getCacheStats() {
+        final Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("sparkJobs", sparkJobLocalCache.stats());
+        stats.put("sparkStages", sparkStageLocalCache.stats());
+        stats.put("sparkExecutors", sparkExecutorLocalCache.stats());
+        stats.put("sparkApplications", sparkApplicationsLocalCache.stats());
+        stats.put("sparkTasks", sparkTasksSummaryLocalCache.stats());
+        stats.put("yarnAppLogs", yarnAppLogLocalCache.stats());
+        stats.put("yarnApplications", yarnApplicationLocalCache.stats());
+        stats.put("sparkJobStartEventLogs", sparkJobStartEventLogCache.stats());
+
+        return stats;
+    }
+
+    /**
+     * Get the hit rate, load count, average load time and eviction count of every job view cache, as the properties
+     * of the telemetry event sent when a job view is closed
+     */
+    @NotNull
+    public static Map<String, String> getCacheStatsProperties() {
+        final Map<String, String> properties = new LinkedHashMap<>();
+        getCacheStats().forEach((name, stats) -> {
+            properties.put(name + ".hitRate", String.format("%.3f", stats.hitRate()));
+            properties.put(name + ".loadCount", String.valueOf(stats.loadCount()));
+            properties.put(name + ".averageLoadMillis",
+                    String.valueOf(TimeUnit.NANOSECONDS.toMillis((long) stats.averageLoadPenalty())));
+            properties.put(name + ".evictionCount", String.valueOf(stats.evictionCount()));
+        });
+
+        return properties;
+    }
+
+    /**
+     * Drop all cached data, such as when a cluster is removed or the clusters are refreshed
+     */
+    public static void invalidateAll() {
+        sparkJobLocalCache.invalidateAll();
+        sparkStageLocalCache.invalidateAll();
+        sparkExecutorLocalCache.invalidateAll();
+        sparkApplicationsLocalCache.invalidateAll();
+        sparkTasksSummaryLocalCache.invalidateAll();
+        yarnAppLogLocalCache.invalidateAll();
+        yarnApplicationLocalCache.invalidateAll();
+        sparkJobStartEventLogCache.invalidateAll();
+        sparkTasksLoadingFailures.clear();
     }
 }
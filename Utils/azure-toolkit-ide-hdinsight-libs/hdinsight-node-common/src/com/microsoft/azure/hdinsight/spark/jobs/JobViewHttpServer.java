@@ -5,6 +5,8 @@
 
 package com.microsoft.azure.hdinsight.spark.jobs;
 
+import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.StringHelper;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.sun.net.httpserver.HttpExchange;
@@ -14,6 +16,10 @@ import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -21,10 +27,16 @@ import java.util.concurrent.TimeUnit;
 public class JobViewHttpServer {
     private static HttpServer server;
     private static final int NUMBER_OF_THREADS = 50;
+    private static final String OTHER_ROUTES = "{other}";
     private static ExecutorService executorService;
     private static boolean isEnabled = false;
+    private static boolean isVirtualThreadsUsed = false;
     private static int port = -1;
 
+    // The latency histograms keyed by the route, such as /applications/tasks_summary, rather than the raw request
+    // path, so that the IDs in paths never make the keys grow
+    private static final Map<String, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<>();
+
     public synchronized static boolean isEnabled() {
         return isEnabled;
     }
@@ -47,6 +59,18 @@ public class JobViewHttpServer {
         return port;
     }
 
+    public synchronized static boolean isVirtualThreadsUsed() {
+        return isVirtualThreadsUsed;
+    }
+
+    /**
+     * Get the latency histograms of the requests handled, keyed by the route
+     */
+    @NotNull
+    public static Map<String, LatencyHistogram> getLatencyHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(latencyHistograms));
+    }
+
     public synchronized static void initialize() {
         if (isEnabled) {
             return;
@@ -66,15 +90,83 @@ public class JobViewHttpServer {
                     httpExchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
                     JobUtils.setResponse(httpExchange, "Connect Successfully");
             });
-            server.createContext("/applications", new SparkJobHttpHandler());
-            server.createContext("/apps", new YarnJobHttpHandler());
-            server.createContext("/actions", new ActionHttpHandler());
+            server.createContext("/applications", withLatencyRecorded("/applications", new SparkJobHttpHandler(),
+                    "application_graph", "stages_summary", "executors_summary", "tasks_summary", "driverLog"));
+            server.createContext("/apps", withLatencyRecorded("/apps", new YarnJobHttpHandler(), "app", "logs"));
+            server.createContext("/actions", withLatencyRecorded("/actions", new ActionHttpHandler(),
+                    "sparkEvent", "livyLog", "sparkui", "yarnui"));
+            server.createContext("/metrics", (httpExchange) -> {
+                    httpExchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+                    JobUtils.setResponse(httpExchange,
+                                         ObjectConvertUtils.convertObjectToJsonString(getLatencyHistograms()).orElse("{}"));
+            });
 
-            executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+            executorService = createExecutorService();
             server.setExecutor(executorService);
             server.start();
             isEnabled = true;
         } catch (IOException e) {
         }
     }
+
+    /**
+     * Create the executor running the handlers, which are mostly blocked by Spark history server and Yarn requests.
+     * Virtual threads are used on the JDK supporting them, otherwise the fixed thread pool.
+     */
+    @NotNull
+    private static ExecutorService createExecutorService() {
+        try {
+            final ExecutorService virtualThreadsExecutor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            isVirtualThreadsUsed = true;
+
+            return virtualThreadsExecutor;
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            isVirtualThreadsUsed = false;
+
+            return Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        }
+    }
+
+    @NotNull
+    private static HttpHandler withLatencyRecorded(@NotNull String context,
+                                                   @NotNull HttpHandler handler,
+                                                   @NotNull String... routes) {
+        return (httpExchange) -> {
+            final long start = System.nanoTime();
+            try {
+                handler.handle(httpExchange);
+            } finally {
+                latencyHistograms.computeIfAbsent(getRoute(context, httpExchange.getRequestURI().getPath(), routes),
+                                                  key -> new LatencyHistogram())
+                        .record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Get the route of the request path, which is the context with the first known route segment in the path,
+     * the context alone for the context root, or the context with {@value #OTHER_ROUTES} for the others
+     */
+    @NotNull
+    static String getRoute(@NotNull String context, @NotNull String path, @NotNull String... routes) {
+        final String subPath = path.length() > context.length() ? path.substring(context.length()) : "";
+        boolean isRoot = true;
+        for (final String segment : subPath.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            for (final String route : routes) {
+                if (route.equalsIgnoreCase(segment)) {
+                    return context + "/" + route;
+                }
+            }
+
+            isRoot = false;
+        }
+
+        return isRoot ? context : context + "/" + OTHER_ROUTES;
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Share one in-flight upstream fetch among the concurrent job view requests for the same endpoint and key,
+ * such as several job view tabs refreshing the same application at once.
+ *
+ * Only in-flight fetches are shared, the result is not kept after the fetch is done.
+ */
+public class JobViewRequestCoalescer {
+    private static final Map<SimpleImmutableEntry<String, Object>, CompletableFuture<String>> inFlights =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Get the response of the endpoint and key, joining the in-flight fetch if there is one
+     *
+     * @param endpoint the job view endpoint, such as "stages_summary"
+     * @param key the request key, such as the {@link ApplicationKey}
+     * @param fetcher to fetch the response when there is no in-flight fetch
+     * @return the response fetched
+     * @throws ExecutionException the exception thrown by the fetcher, or interrupted in waiting for it
+     */
+    @NotNull
+    public static String fetch(@NotNull String endpoint,
+                               @NotNull Object key,
+                               @NotNull Callable<String> fetcher) throws ExecutionException {
+        final SimpleImmutableEntry<String, Object> inFlightKey = new SimpleImmutableEntry<>(endpoint, key);
+        final CompletableFuture<String> created = new CompletableFuture<>();
+        final CompletableFuture<String> existing = inFlights.putIfAbsent(inFlightKey, created);
+
+        if (existing == null) {
+            try {
+                created.complete(fetcher.call());
+            } catch (Exception ex) {
+                created.completeExceptionally(ex);
+            } finally {
+                inFlights.remove(inFlightKey, created);
+            }
+        }
+
+        try {
+            return (existing == null ? created : existing).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ExecutionException) {
+                throw (ExecutionException) ex.getCause();
+            }
+
+            throw ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted in waiting for the " + endpoint + " response", ex);
+        }
+    }
+}
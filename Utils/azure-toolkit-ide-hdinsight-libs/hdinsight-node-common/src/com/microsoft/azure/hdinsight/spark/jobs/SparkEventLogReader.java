@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streaming reader for the Spark history server `eventLogs.zip` download.
+ *
+ * The zip entry is read line by line straight from the HTTP content, only the leading `Event` field of every line
+ * is scanned, and only lines of the requested event type are deserialized. Extracted events can be kept in a small
+ * per (appId, attemptId) index file so a finished attempt never needs to be downloaded and parsed again.
+ */
+public class SparkEventLogReader {
+    public static final String JOB_START_EVENT = "SparkListenerJobStart";
+
+    private static final String EVENT_FIELD = "Event";
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final ObjectMapper objectMapper = new ObjectMapper(jsonFactory)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Read the events of one type from the zip entry of an attempt.
+     *
+     * @param zipContent the raw `eventLogs.zip` content, consumed but not closed
+     * @param entryName the zip entry to read, in format "{appId}_{attemptId}"
+     * @param eventType the `Event` value to filter on, such as {@link #JOB_START_EVENT}
+     * @param clazz the type to materialize matching lines into
+     * @return the matching events, or empty if the entry doesn't exist in the zip
+     */
+    public static <T> Optional<List<T>> readEvents(@NotNull final InputStream zipContent,
+                                                   @NotNull final String entryName,
+                                                   @NotNull final String eventType,
+                                                   @NotNull final Class<T> clazz) throws IOException {
+        final ZipInputStream zipInputStream = new ZipInputStream(zipContent);
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (entry.getName().equals(entryName)) {
+                return Optional.of(readEventLines(zipInputStream, eventType, clazz));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static <T> List<T> readEventLines(@NotNull final InputStream entryContent,
+                                              @NotNull final String eventType,
+                                              @NotNull final Class<T> clazz) throws IOException {
+        final List<T> events = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(entryContent, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (eventType.equalsIgnoreCase(peekEventType(line))) {
+                final T event = ObjectConvertUtils.convertToObjectQuietly(line, clazz);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Get the `Event` field value of one event log line without building the JSON tree.
+     * Spark always writes the `Event` field first, so usually only the first two tokens are parsed.
+     */
+    @Nullable
+    static String peekEventType(@NotNull final String line) {
+        try (final JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (EVENT_FIELD.equals(fieldName)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+
+                parser.skipChildren();
+            }
+        } catch (IOException ignored) {
+            // not a valid event log line
+        }
+
+        return null;
+    }
+
+    @NotNull
+    public static File getIndexFile(@NotNull final String rootPath,
+                                    @NotNull final String appId,
+                                    @NotNull final String attemptId,
+                                    @NotNull final String eventType) {
+        return new File(String.format("%s/SparkEventLogs/%s/%s/%s.json", rootPath, appId, attemptId, eventType));
+    }
+
+    public static <T> Optional<List<T>> loadIndex(@NotNull final File indexFile, @NotNull final Class<T> clazz) {
+        if (!indexFile.isFile()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(objectMapper.readValue(
+                    indexFile, TypeFactory.defaultInstance().constructCollectionType(List.class, clazz)));
+        } catch (IOException ignored) {
+            // A broken index is just rebuilt from the event log
+            return Optional.empty();
+        }
+    }
+
+    public static <T> void saveIndex(@NotNull final File indexFile, @NotNull final List<T> events) throws IOException {
+        final File folder = indexFile.getParentFile();
+        Files.createDirectories(folder.toPath());
+
+        // Write to a temporary file and move it into place, so readers never see a partial index
+        final File tempFile = File.createTempFile(indexFile.getName(), ".tmp", folder);
+        try {
+            objectMapper.writeValue(tempFile, events);
+            Files.move(tempFile.toPath(), indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+}
@@ -13,7 +13,6 @@ import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.job.Job;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.stage.Stage;
-import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.spark.jobs.framework.JobRequestDetails;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
@@ -22,7 +21,6 @@ import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 public class SparkJobHttpHandler implements HttpHandler {
@@ -35,32 +33,49 @@ public class SparkJobHttpHandler implements HttpHandler {
             String path = requestDetail.getRequestPath();
             if (path.equalsIgnoreCase("/applications/") && requestDetail.getAppId().equalsIgnoreCase("0")) {
                 try {
-                    List<Application> applications = SparkRestUtil.getSparkApplications(requestDetail.getCluster());
-                    Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(applications);
-                    JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
-                } catch (HDIException e) {
-                    DefaultLoader.getUIHelper().logError("get applications list error", e);
+                    String response = JobViewRequestCoalescer.fetch("applications", requestDetail.getCluster(), () -> {
+                        List<Application> applications = SparkRestUtil.getSparkApplications(requestDetail.getCluster());
+                        return ObjectConvertUtils.convertObjectToJsonString(applications).orElseThrow(IOException::new);
+                    });
+                    JobUtils.setResponse(httpExchange, response);
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof HDIException)) {
+                        throw e;
+                    }
+
+                    DefaultLoader.getUIHelper().logError("get applications list error", e.getCause());
                 }
             } else if (path.contains("application_graph")) {
                 ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
-                List<Job> jobs = JobViewCacheManager.getJob(key);
-                App app = JobViewCacheManager.getYarnApp(key);
-                List<JobStartEventLog> jobStartEventLogs = JobViewCacheManager.getJobStartEventLogs(key);
-                YarnAppWithJobs yarnAppWithJobs = new YarnAppWithJobs(app, jobs, jobStartEventLogs);
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(yarnAppWithJobs);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                String response = JobViewRequestCoalescer.fetch("application_graph", key, () -> {
+                    List<Job> jobs = JobViewCacheManager.getJob(key);
+                    App app = JobViewCacheManager.getYarnApp(key);
+                    List<JobStartEventLog> jobStartEventLogs = JobViewCacheManager.getJobStartEventLogs(key);
+                    YarnAppWithJobs yarnAppWithJobs = new YarnAppWithJobs(app, jobs, jobStartEventLogs);
+                    return ObjectConvertUtils.convertObjectToJsonString(yarnAppWithJobs).orElseThrow(IOException::new);
+                });
+                JobUtils.setResponse(httpExchange, response);
             } else if (path.contains("stages_summary")) {
-                List<Stage> stages = JobViewCacheManager.getStages(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(stages);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
+                String response = JobViewRequestCoalescer.fetch("stages_summary", key, () -> {
+                    List<Stage> stages = JobViewCacheManager.getStages(key);
+                    return ObjectConvertUtils.convertObjectToJsonString(stages).orElseThrow(IOException::new);
+                });
+                JobUtils.setResponse(httpExchange, response);
             } else if (path.contains("executors_summary")) {
-                List<Executor> executors = JobViewCacheManager.getExecutors(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(executors);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
+                String response = JobViewRequestCoalescer.fetch("executors_summary", key, () -> {
+                    List<Executor> executors = JobViewCacheManager.getExecutors(key);
+                    return ObjectConvertUtils.convertObjectToJsonString(executors).orElseThrow(IOException::new);
+                });
+                JobUtils.setResponse(httpExchange, response);
             } else if (path.contains("tasks_summary")) {
-                List<Task> tasks = JobViewCacheManager.getTasks(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(tasks);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
+                // The tasks are loaded in background, the job view polls for the rest while getting 202 Accepted
+                SparkTasksLoader.LoadedTasks loadedTasks = JobViewCacheManager.getLoadedTasks(key);
+                String response = ObjectConvertUtils.convertObjectToJsonString(loadedTasks.getTasks())
+                        .orElseThrow(IOException::new);
+                JobUtils.setResponse(httpExchange, response, loadedTasks.isCompleted() ? 200 : 202);
             }
         } catch (ExecutionException e) {
             JobUtils.setResponse(httpExchange, e.getMessage(), 500);
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.common.HDIException;
+import com.microsoft.azure.hdinsight.sdk.rest.AttemptWithAppId;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.stage.Stage;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the executor and stage metrics of a running Spark application from Spark REST API periodically.
+ *
+ * The stages are fetched incrementally: only the active stages are fetched by every sample, the stages finished since the
+ * last sample are fetched one by one and remembered, since they don't change any more. The stages started and finished
+ * between two samples are never seen active, so the complete and failed stages are listed only when the executors have
+ * finished more tasks than the known stages, to pick up the new ones.
+ * The samples are kept in a bounded history for sparkline charts.
+ */
+public class SparkMetricsMonitor implements ILogger {
+    public static final int DEFAULT_MAX_HISTORY = 120;
+
+    private static final String STATUS_ACTIVE = "active";
+    private static final String STATUS_COMPLETE = "complete";
+    private static final String STATUS_FAILED = "failed";
+
+    @NotNull
+    private final IClusterDetail clusterDetail;
+    @NotNull
+    private final String appId;
+    private final int maxHistory;
+
+    // The stage attempts keyed by "stageId.attemptId"
+    private final Map<String, Stage> finishedStages = new HashMap<>();
+    private Map<String, Stage> activeStages = new HashMap<>();
+    // The finished tasks of executors when the finished stages were listed last time
+    private long listedExecutorTasks = 0;
+    private final Deque<SparkMetricsSample> history = new ArrayDeque<>();
+    @Nullable
+    private AttemptWithAppId attempt;
+
+    public SparkMetricsMonitor(@NotNull final IClusterDetail clusterDetail, @NotNull final String appId) {
+        this(clusterDetail, appId, DEFAULT_MAX_HISTORY);
+    }
+
+    public SparkMetricsMonitor(@NotNull final IClusterDetail clusterDetail, @NotNull final String appId, final int maxHistory) {
+        this.clusterDetail = clusterDetail;
+        this.appId = appId;
+        this.maxHistory = maxHistory;
+    }
+
+    /**
+     * Sample the metrics at the rate of `sampleIntervalMillis`, only the changed samples are emitted.
+     * The failed samples, e.g. the application is not found in history server yet, are skipped.
+     *
+     * @param sampleIntervalMillis the interval between two samples
+     * @return the metrics samples observable, never completes until unsubscribed
+     */
+    @NotNull
+    public Observable<SparkMetricsSample> observe(final long sampleIntervalMillis) {
+        return Observable.interval(0, sampleIntervalMillis, TimeUnit.MILLISECONDS, Schedulers.io())
+                .onBackpressureDrop()
+                .concatMap(tick -> Observable.fromCallable(this::sample)
+                        .doOnError(err -> log().debug("Failed to sample metrics of Spark application " + appId, err))
+                        .onErrorResumeNext(Observable.empty()))
+                .filter(SparkMetricsSample::isChanged);
+    }
+
+    /**
+     * @return a copy of the sample history, the oldest first
+     */
+    @NotNull
+    public synchronized List<SparkMetricsSample> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    @NotNull
+    synchronized SparkMetricsSample sample() throws IOException, HDIException {
+        final AttemptWithAppId currentAttempt = getAttempt();
+        final List<Executor> executors = SparkRestUtil.getExecutorsFromAttempt(clusterDetail, currentAttempt);
+        updateStages(currentAttempt, executors);
+
+        int activeTasks = 0, completedTasks = 0, failedTasks = 0;
+        long shuffleRead = 0, shuffleWrite = 0;
+        for (final Stage stage : getStages()) {
+            activeTasks += stage.getNumActiveTasks();
+            completedTasks += stage.getNumCompleteTasks();
+            failedTasks += stage.getNumFailedTasks();
+            shuffleRead += stage.getShuffleReadBytes();
+            shuffleWrite += stage.getShuffleWriteBytes();
+        }
+        final int activeExecutors = (int) executors.stream().filter(Executor::isIsActive).count();
+        final long gcTime = executors.stream().mapToLong(Executor::getTotalGCTime).sum();
+
+        final SparkMetricsSample sample = new SparkMetricsSample(System.currentTimeMillis(), activeExecutors,
+                activeTasks, completedTasks, failedTasks, shuffleRead, shuffleWrite, gcTime, history.peekLast());
+        history.addLast(sample);
+        while (history.size() > maxHistory) {
+            history.removeFirst();
+        }
+        return sample;
+    }
+
+    private void updateStages(@NotNull final AttemptWithAppId currentAttempt, @NotNull final List<Executor> executors) throws IOException, HDIException {
+        final Map<String, Stage> active = new HashMap<>();
+        SparkRestUtil.getStagesFromAttempt(clusterDetail, currentAttempt, STATUS_ACTIVE).forEach(stage -> active.put(getKey(stage), stage));
+        for (final Stage previous : activeStages.values()) {
+            if (!active.containsKey(getKey(previous))) {
+                final Stage stage = SparkRestUtil.getStageFromAttempt(clusterDetail, currentAttempt, previous.getStageId(), previous.getAttemptId())
+                        .orElse(previous);
+                (STATUS_ACTIVE.equalsIgnoreCase(stage.getStatus()) ? active : finishedStages).put(getKey(stage), stage);
+            }
+        }
+        activeStages = active;
+
+        // Killed tasks are counted as failed by executors but not by stages, so list again only if more tasks finished
+        final long executorTasks = executors.stream().mapToLong(executor -> executor.getCompletedTasks() + executor.getFailedTasks()).sum();
+        if (executorTasks > Math.max(getFinishedTasks(), listedExecutorTasks)) {
+            SparkRestUtil.getStagesFromAttempt(clusterDetail, currentAttempt, STATUS_COMPLETE, STATUS_FAILED).stream()
+                    .filter(stage -> !activeStages.containsKey(getKey(stage)))
+                    .forEach(stage -> finishedStages.putIfAbsent(getKey(stage), stage));
+            listedExecutorTasks = executorTasks;
+        }
+    }
+
+    @NotNull
+    private List<Stage> getStages() {
+        final List<Stage> stages = new ArrayList<>(finishedStages.values());
+        stages.addAll(activeStages.values());
+        return stages;
+    }
+
+    private long getFinishedTasks() {
+        return getStages().stream().mapToLong(stage -> stage.getNumCompleteTasks() + stage.getNumFailedTasks()).sum();
+    }
+
+    @NotNull
+    private AttemptWithAppId getAttempt() throws IOException, HDIException {
+        if (attempt == null) {
+            attempt = SparkRestUtil.getSparkApplication(clusterDetail, appId)
+                    .filter(app -> app.getAttempts() != null && !app.getAttempts().isEmpty())
+                    .map(app -> app.getLastAttemptWithAppId(clusterDetail.getName()))
+                    .orElseThrow(() -> new HDIException(String.format("application %s on cluster %s can't find", appId, clusterDetail.getName())));
+        }
+        return attempt;
+    }
+
+    @NotNull
+    private static String getKey(@NotNull final Stage stage) {
+        return stage.getStageId() + "." + stage.getAttemptId();
+    }
+}
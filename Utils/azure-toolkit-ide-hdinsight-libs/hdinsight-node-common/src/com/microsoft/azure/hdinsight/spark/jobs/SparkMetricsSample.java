@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+
+/**
+ * A sample of the metrics of a running Spark application, with the totals of all stage attempts and executors,
+ * and the changes since the previous sample
+ */
+public class SparkMetricsSample {
+    private final long timestamp;
+    private final int activeExecutors;
+    private final int activeTasks;
+    private final int completedTasks;
+    private final int failedTasks;
+    private final long shuffleReadBytes;
+    private final long shuffleWriteBytes;
+    private final long gcTimeMillis;
+    @Nullable
+    private final SparkMetricsSample previous;
+
+    public SparkMetricsSample(final long timestamp,
+                              final int activeExecutors,
+                              final int activeTasks,
+                              final int completedTasks,
+                              final int failedTasks,
+                              final long shuffleReadBytes,
+                              final long shuffleWriteBytes,
+                              final long gcTimeMillis,
+                              @Nullable final SparkMetricsSample previous) {
+        this.timestamp = timestamp;
+        this.activeExecutors = activeExecutors;
+        this.activeTasks = activeTasks;
+        this.completedTasks = completedTasks;
+        this.failedTasks = failedTasks;
+        this.shuffleReadBytes = shuffleReadBytes;
+        this.shuffleWriteBytes = shuffleWriteBytes;
+        this.gcTimeMillis = gcTimeMillis;
+        // only the direct previous sample is needed for the deltas, don't chain the whole history
+        this.previous = previous == null ? null : previous.withoutPrevious();
+    }
+
+    private SparkMetricsSample withoutPrevious() {
+        return previous == null ? this : new SparkMetricsSample(timestamp, activeExecutors, activeTasks, completedTasks,
+                failedTasks, shuffleReadBytes, shuffleWriteBytes, gcTimeMillis, null);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getActiveExecutors() {
+        return activeExecutors;
+    }
+
+    public int getActiveTasks() {
+        return activeTasks;
+    }
+
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public int getFailedTasks() {
+        return failedTasks;
+    }
+
+    public long getShuffleReadBytes() {
+        return shuffleReadBytes;
+    }
+
+    public long getShuffleWriteBytes() {
+        return shuffleWriteBytes;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    public int getCompletedTasksDelta() {
+        return previous == null ? completedTasks : completedTasks - previous.completedTasks;
+    }
+
+    public int getFailedTasksDelta() {
+        return previous == null ? failedTasks : failedTasks - previous.failedTasks;
+    }
+
+    public long getShuffleReadBytesDelta() {
+        return previous == null ? shuffleReadBytes : shuffleReadBytes - previous.shuffleReadBytes;
+    }
+
+    public long getShuffleWriteBytesDelta() {
+        return previous == null ? shuffleWriteBytes : shuffleWriteBytes - previous.shuffleWriteBytes;
+    }
+
+    public long getGcTimeMillisDelta() {
+        return previous == null ? gcTimeMillis : gcTimeMillis - previous.gcTimeMillis;
+    }
+
+    /**
+     * @return whether anything is changed since the previous sample
+     */
+    public boolean isChanged() {
+        return previous == null
+                || activeExecutors != previous.activeExecutors
+                || activeTasks != previous.activeTasks
+                || getCompletedTasksDelta() != 0
+                || getFailedTasksDelta() != 0
+                || getShuffleReadBytesDelta() != 0
+                || getShuffleWriteBytesDelta() != 0
+                || getGcTimeMillisDelta() != 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("executors: %d, tasks: %d active, %d completed (+%d), %d failed (+%d), "
+                        + "shuffle: %d bytes read (+%d), %d bytes written (+%d), GC time: %d ms (+%d)",
+                activeExecutors, activeTasks, completedTasks, getCompletedTasksDelta(), failedTasks, getFailedTasksDelta(),
+                shuffleReadBytes, getShuffleReadBytesDelta(), shuffleWriteBytes, getShuffleWriteBytesDelta(),
+                gcTimeMillis, getGcTimeMillisDelta());
+    }
+}
@@ -5,7 +5,6 @@
 
 package com.microsoft.azure.hdinsight.spark.jobs;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.microsoft.azure.hdinsight.common.HDInsightLoader;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
@@ -18,22 +17,16 @@ import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.job.Job;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.stage.Stage;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
-import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
 
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 public class SparkRestUtil {
     public static final String SPARK_REST_API_ENDPOINT = "%s/sparkhistory/api/v1/applications/%s";
@@ -64,6 +57,40 @@ public class SparkRestUtil {
         return stages.orElse(RestUtil.getEmptyList(Stage.class));
     }
 
+    /**
+     * Get the application from Spark history server directly, without the local cache of all applications,
+     * so that a just started application can be found
+     */
+    public static Optional<Application> getSparkApplication(@NotNull IClusterDetail clusterDetail, @NotNull String appId) throws HDIException, IOException {
+        final HttpEntity entity = getSparkRestEntity(clusterDetail, "/" + appId);
+        return ObjectConvertUtils.convertEntityToObject(entity, Application.class);
+    }
+
+    public static List<Executor> getExecutorsFromAttempt(@NotNull IClusterDetail clusterDetail, @NotNull AttemptWithAppId attempt) throws IOException, HDIException {
+        final HttpEntity entity = getSparkRestEntity(clusterDetail, String.format("/%s/%s/executors", attempt.getAppId(), attempt.getAttemptId()));
+        return ObjectConvertUtils.convertEntityToList(entity, Executor.class).orElse(RestUtil.getEmptyList(Executor.class));
+    }
+
+    /**
+     * Get the stages of the attempt filtered by the statuses supported by Spark REST API, e.g. active, complete, pending
+     * and failed, all stages are returned if no status specified
+     */
+    public static List<Stage> getStagesFromAttempt(@NotNull IClusterDetail clusterDetail, @NotNull AttemptWithAppId attempt, @NotNull String... statuses) throws IOException, HDIException {
+        final String query = Arrays.stream(statuses).map(status -> "status=" + status).collect(Collectors.joining("&"));
+        final String url = String.format("/%s/%s/stages", attempt.getAppId(), attempt.getAttemptId()) + (query.isEmpty() ? "" : "?" + query);
+        final HttpEntity entity = getSparkRestEntity(clusterDetail, url);
+        return ObjectConvertUtils.convertEntityToList(entity, Stage.class).orElse(RestUtil.getEmptyList(Stage.class));
+    }
+
+    /**
+     * Get a stage attempt of the attempt without its task details
+     */
+    public static Optional<Stage> getStageFromAttempt(@NotNull IClusterDetail clusterDetail, @NotNull AttemptWithAppId attempt, int stageId, int stageAttemptId) throws IOException, HDIException {
+        final String url = String.format("/%s/%s/stages/%d/%d?details=false", attempt.getAppId(), attempt.getAttemptId(), stageId, stageAttemptId);
+        final HttpEntity entity = getSparkRestEntity(clusterDetail, url);
+        return ObjectConvertUtils.convertEntityToObject(entity, Stage.class);
+    }
+
     public static List<Job> getLastAttemptJobsFromApp(@NotNull ApplicationKey key) throws IOException, HDIException, ExecutionException {
         AttemptWithAppId attemptWithAppId = getLastAttemptFromLocalCache(key);
         return getSparkJobsFromApp(key.getClusterDetails(), key.getAppId(), attemptWithAppId.getAttemptId());
@@ -84,38 +111,35 @@ public class SparkRestUtil {
         return tasks.orElse(RestUtil.getEmptyList(Task.class));
     }
 
-    public static List<JobStartEventLog> getSparkEventLogs(@NotNull ApplicationKey key) throws HDIException, IOException {
-        String url = String.format("%s/logs", key.getAppId());
-        String eventLogsPath = String.format("%s/SparkEventLogs/%s/eventLogs.zip", HDInsightLoader.getHDInsightHelper().getPluginRootPath(), key.getAppId());
-        File file = new File(eventLogsPath);
-        HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), url);
-        InputStream inputStream = entity.getContent();
-        FileUtils.copyInputStreamToFile(inputStream, file);
-        IOUtils.closeQuietly(inputStream);
+    public static List<JobStartEventLog> getSparkEventLogs(@NotNull ApplicationKey key) throws HDIException, IOException, ExecutionException {
+        final AttemptWithAppId attemptWithAppId = getLastAttemptFromLocalCache(key);
+        final String attemptId = attemptWithAppId.getAttemptId();
+        final boolean isCompleted = Boolean.parseBoolean(attemptWithAppId.getCompleted());
+        final File indexFile = SparkEventLogReader.getIndexFile(
+                HDInsightLoader.getHDInsightHelper().getPluginRootPath(), key.getAppId(), attemptId, SparkEventLogReader.JOB_START_EVENT);
+
+        // The event log of a finished attempt never changes, reuse the events extracted last time
+        if (isCompleted) {
+            final Optional<List<JobStartEventLog>> indexedEvents = SparkEventLogReader.loadIndex(indexFile, JobStartEventLog.class);
+            if (indexedEvents.isPresent()) {
+                return indexedEvents.get();
+            }
+        }
 
-        ZipFile zipFile = new ZipFile(file);
-        List<? extends ZipEntry> entities =  Collections.list(zipFile.entries());
         // every application has an attempt in event log
         // and the entity name should be in formation "{appId}_{attemptId}"
-        String entityName = String.format("%s_%s", key.getAppId(), entities.size());
-        ZipEntry lastEntity = zipFile.getEntry(entityName);
-        if (lastEntity == null) {
-            throw new HDIException(String.format("No Spark event log entity found for app: %s", key.getAppId()));
+        final String entityName = String.format("%s_%s", key.getAppId(), attemptId);
+        final HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), String.format("%s/logs", key.getAppId()));
+        final List<JobStartEventLog> jobStartEvents;
+        try (InputStream inputStream = entity.getContent()) {
+            jobStartEvents = SparkEventLogReader
+                    .readEvents(inputStream, entityName, SparkEventLogReader.JOB_START_EVENT, JobStartEventLog.class)
+                    .orElseThrow(() -> new HDIException(String.format("No Spark event log entity found for app: %s", key.getAppId())));
+        }
+
+        if (isCompleted) {
+            SparkEventLogReader.saveIndex(indexFile, jobStartEvents);
         }
-        InputStream zipFileInputStream = zipFile.getInputStream(lastEntity);
-        String entityContent = IOUtils.toString(zipFileInputStream, Charset.forName("utf-8"));
-
-        String[] lines = entityContent.split("\n");
-        List<JobStartEventLog> jobStartEvents = Arrays.stream(lines)
-                .filter(line -> {
-                    final Map<String, Object> json = JsonUtils.fromJson(line, new TypeReference<HashMap<String, Object>>() {
-                    });
-                    String eventName = ((String) json.get("Event"));
-                    return eventName.equalsIgnoreCase("SparkListenerJobStart");
-                    })
-                .map(oneLine -> ObjectConvertUtils.convertToObjectQuietly(oneLine, JobStartEventLog.class))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
 
         return jobStartEvents;
     }
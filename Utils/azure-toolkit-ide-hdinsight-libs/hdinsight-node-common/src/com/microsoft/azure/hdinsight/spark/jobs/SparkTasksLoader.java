@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.sdk.common.HDIException;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.stage.Stage;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import rx.Observable;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Load the tasks of all stages from the Spark history server with a bounded number of concurrent requests.
+ */
+public class SparkTasksLoader {
+    public static final int CONCURRENCY = 8;
+
+    // The loading is cancelled once its loaded tasks aren't polled for this long, such as the job view is closed
+    // or another application is selected
+    public static final long ABANDON_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Map<ApplicationKey, Subscription> loadings = new ConcurrentHashMap<>();
+
+    /**
+     * The loading of the application tasks is cancelled or abandoned
+     */
+    public static class CancelledException extends HDIException {
+        public CancelledException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The tasks loaded so far, kept in the stage order
+     */
+    public static class LoadedTasks {
+        private final List<List<Task>> tasksOfStages;
+        private volatile long lastPolled = System.currentTimeMillis();
+
+        public LoadedTasks(int stageCount) {
+            this.tasksOfStages = new ArrayList<>(Collections.nCopies(stageCount, null));
+        }
+
+        @NotNull
+        public static LoadedTasks of(@NotNull List<Task> allTasks) {
+            final LoadedTasks loaded = new LoadedTasks(1);
+            loaded.set(0, allTasks);
+            return loaded;
+        }
+
+        synchronized void set(int stageIndex, @NotNull List<Task> tasks) {
+            tasksOfStages.set(stageIndex, tasks);
+        }
+
+        /**
+         * Get the tasks of the leading stages which are all loaded, so the tasks loaded later are only appended
+         */
+        @NotNull
+        public synchronized List<Task> getTasks() {
+            final List<Task> result = new ArrayList<>();
+            for (final List<Task> tasks : tasksOfStages) {
+                if (tasks == null) {
+                    break;
+                }
+
+                result.addAll(tasks);
+            }
+
+            return result;
+        }
+
+        public synchronized boolean isCompleted() {
+            return !tasksOfStages.contains(null);
+        }
+
+        /**
+         * Mark the loaded tasks being polled, to keep the loading going on
+         */
+        public void poll() {
+            lastPolled = System.currentTimeMillis();
+        }
+
+        boolean isAbandoned(long abandonMillis) {
+            return System.currentTimeMillis() - lastPolled > abandonMillis;
+        }
+    }
+
+    /**
+     * Get the tasks of every stage, emitted in the order the stages finish loading
+     *
+     * @return the observable of stage index and its tasks
+     */
+    @NotNull
+    public static Observable<SimpleImmutableEntry<Integer, List<Task>>> stageTasks(@NotNull ApplicationKey key,
+                                                                                  @NotNull List<Stage> stages) {
+        return Observable.range(0, stages.size())
+                .flatMap(index -> Observable
+                                .fromCallable(() -> SparkRestUtil.getSparkTasks(
+                                        key, stages.get(index).getStageId(), stages.get(index).getAttemptId()))
+                                .map(tasks -> new SimpleImmutableEntry<>(index, tasks))
+                                .subscribeOn(Schedulers.io()),
+                        CONCURRENCY);
+    }
+
+    /**
+     * Load the tasks of all stages, blocking until all of them are loaded or the loading is cancelled
+     *
+     * @param loaded to put the tasks of every stage into once it's loaded
+     * @return all tasks, in the same order as the stages
+     */
+    @NotNull
+    public static List<Task> loadAllTasks(@NotNull ApplicationKey key,
+                                          @NotNull List<Stage> stages,
+                                          @NotNull LoadedTasks loaded) throws HDIException, ExecutionException {
+        return load(key, stageTasks(key, stages), loaded, ABANDON_MILLIS);
+    }
+
+    @NotNull
+    static List<Task> load(@NotNull ApplicationKey key,
+                           @NotNull Observable<SimpleImmutableEntry<Integer, List<Task>>> stageTasks,
+                           @NotNull LoadedTasks loaded,
+                           long abandonMillis) throws HDIException, ExecutionException {
+        final CompletableFuture<List<Task>> allTasks = new CompletableFuture<>();
+        final Subscription subscription = stageTasks
+                .doOnUnsubscribe(() -> allTasks.cancel(false))
+                .subscribe(
+                        tasksOfStage -> loaded.set(tasksOfStage.getKey(), tasksOfStage.getValue()),
+                        allTasks::completeExceptionally,
+                        () -> allTasks.complete(loaded.getTasks()));
+
+        loadings.put(key, subscription);
+
+        try {
+            while (true) {
+                try {
+                    return allTasks.get(abandonMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    if (loaded.isAbandoned(abandonMillis)) {
+                        subscription.unsubscribe();
+                        throw new CancelledException(String.format(
+                                "Loading Spark tasks of application %s on cluster %s is abandoned",
+                                key.getAppId(), key.getClusterDetails().getName()));
+                    }
+                }
+            }
+        } catch (CancellationException ex) {
+            throw new CancelledException(String.format("Loading Spark tasks of application %s on cluster %s is cancelled",
+                    key.getAppId(), key.getClusterDetails().getName()));
+        } catch (InterruptedException ex) {
+            subscription.unsubscribe();
+            Thread.currentThread().interrupt();
+            throw new CancelledException(String.format(
+                    "Loading Spark tasks of application %s on cluster %s is interrupted",
+                    key.getAppId(), key.getClusterDetails().getName()));
+        } finally {
+            loadings.remove(key, subscription);
+        }
+    }
+
+    static boolean isLoading(@NotNull ApplicationKey key) {
+        return loadings.containsKey(key);
+    }
+
+    /**
+     * Cancel the in-flight task loadings of all applications of the cluster
+     */
+    public static void cancelOfCluster(@NotNull String clusterName) {
+        loadings.keySet().stream()
+                .filter(key -> clusterName.equals(key.getClusterDetails().getName()))
+                .forEach(SparkTasksLoader::cancel);
+    }
+
+    /**
+     * Cancel the in-flight task loading of the application
+     */
+    public static void cancel(@NotNull ApplicationKey key) {
+        final Subscription loading = loadings.remove(key);
+        if (loading != null) {
+            loading.unsubscribe();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.sdk.common.HttpClientRegistry;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.util.EntityUtils;
+import org.jsoup.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.apache.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Read a byte range of Yarn container logs from the Yarn UI or Yarn history server log page.
+ *
+ * The page is scanned as a character stream for the `<pre>` log sections following the `navcell` navigation cell,
+ * instead of rendering the whole page into a DOM. The requests share the pooled HTTP clients of {@link HttpClientRegistry}.
+ */
+public class YarnContainerLogReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(YarnContainerLogReader.class);
+    private static final Pattern LOG_TYPE_PATTERN = Pattern.compile("Log Type:\\s+(\\S+)");
+    private static final Pattern NAV_CELL_ID_PATTERN = Pattern.compile("\\bid\\s*=\\s*[\"']?navcell\\b");
+
+    /**
+     * The cookies of the Yarn UI hosts, kept apart from the other users of the shared HTTP clients
+     */
+    private static final CookieStore cookieStore = new BasicCookieStore();
+
+    /**
+     * Read the logs from the container log page
+     *
+     * @param authCode the authCode in request's Authorization header
+     * @param baseUrl the container log url
+     * @param type the log type, such as stdout and stderr
+     * @param start the start byte offset of the log, a negative value for the offset from the end
+     * @param size the bytes count to read, the value 0 or negative for all the rest
+     * @return the logs read, empty for any error
+     */
+    @NotNull
+    public static String read(@Nullable String authCode, @NotNull String baseUrl, @NotNull String type, long start, int size) {
+        URI url = null;
+
+        try {
+            url = new URI(baseUrl + "/").resolve(
+                    String.format("%s?start=%d", type, start) +
+                            (size <= 0 ? "" : String.format("&&end=%d", start + size)));
+
+            final HttpGet get = new HttpGet(url);
+            if (authCode != null) {
+                get.addHeader(AUTHORIZATION, authCode);
+            }
+
+            final HttpClientContext context = HttpClientContext.create();
+            context.setCookieStore(cookieStore);
+
+            try (final CloseableHttpResponse response = HttpClientRegistry.getInstance()
+                    .lease(HttpClientRegistry.AuthScheme.CHALLENGE, HttpClientRegistry.SslPolicy.current())
+                    .execute(get, context)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                final HttpEntity entity = response.getEntity();
+
+                if (statusCode != HttpStatus.SC_OK) {
+                    // If the URL is wrong, will get 200 response with content:
+                    //      Unable to locate 'xxx' log for container
+                    //  OR
+                    //      Logs not available for <user>. Aggregation may not be complete, Check back later or try the nodemanager at...
+                    //  OR
+                    //      Cannot get container logs without ...
+                    //
+                    // if fetching Yarn log hits the gap between the job running and stop, will get the status 403
+                    // the log is moving to job history server, just wait and retry.
+                    if (statusCode != HttpStatus.SC_FORBIDDEN) {
+                        LOGGER.warn("The GET request to " + url + " responded error: " + response.getStatusLine());
+                    }
+
+                    EntityUtils.consumeQuietly(entity);
+                    return "";
+                }
+
+                if (entity == null) {
+                    return "";
+                }
+
+                final Charset charset = Optional.ofNullable(ContentType.getOrDefault(entity).getCharset())
+                        .orElse(StandardCharsets.UTF_8);
+                try (final Reader reader = new BufferedReader(new InputStreamReader(entity.getContent(), charset))) {
+                    return parseLogSection(reader, type);
+                }
+            }
+        } catch (final URISyntaxException e) {
+            LOGGER.error("baseUrl has syntax error: " + baseUrl);
+        } catch (final Exception e) {
+            LOGGER.warn("get Spark job log Error", e);
+        }
+
+        return "";
+    }
+
+    /**
+     * Scan the Yarn log page for the log of the type.
+     *
+     * The content cell next to the `navcell` cell contains `<pre>` log sections. In the history server page,
+     * every section is led by a `<p>Log Type: xxx` paragraph, while in the running page there is only one `<pre>`.
+     *
+     * @return the log section of the type, or the last log section if no typed section is found
+     */
+    @NotNull
+    static String parseLogSection(@NotNull Reader reader, @NotNull String type) throws IOException {
+        final Map<String, String> logTypeMap = new HashMap<>();
+        final StringBuilder text = new StringBuilder();
+        boolean isNavCellFound = false;
+        boolean isInContent = false;
+        boolean isInParagraph = false;
+        int nestedCellDepth = 0;
+        String logType = null;
+        String logs = "";
+
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (ch != '<') {
+                text.append((char) ch);
+                continue;
+            }
+
+            final String tag = readTag(reader);
+            final String leadingText = text.toString();
+            text.setLength(0);
+
+            if (tag.startsWith("!")) {
+                // Comments and DOCTYPE
+                continue;
+            }
+
+            final boolean isEndTag = tag.startsWith("/");
+            final String tagName = getTagName(isEndTag ? tag.substring(1) : tag);
+
+            if (!isNavCellFound) {
+                isNavCellFound = !isEndTag && NAV_CELL_ID_PATTERN.matcher(tag).find();
+                continue;
+            }
+
+            if (!isInContent) {
+                // The content cell is the next sibling of the navigation cell
+                isInContent = !isEndTag && tagName.equals("td");
+                continue;
+            }
+
+            if (isInParagraph) {
+                // Only the first text of the paragraph is checked for the log type
+                isInParagraph = false;
+
+                final Matcher matcher = LOG_TYPE_PATTERN.matcher(Parser.unescapeEntities(leadingText, false).trim());
+                if (matcher.matches()) {
+                    logType = matcher.group(1);
+                }
+            }
+
+            if (isEndTag) {
+                if (tagName.equals("td")) {
+                    if (nestedCellDepth == 0) {
+                        break;
+                    }
+
+                    nestedCellDepth--;
+                }
+
+                continue;
+            }
+
+            if (tagName.equals("td")) {
+                // Table cells nested in the content cell
+                nestedCellDepth++;
+            } else if (tagName.equals("p")) {
+                isInParagraph = true;
+            } else if (tagName.equals("pre")) {
+                logs = Parser.unescapeEntities(readPreformattedText(reader), false);
+
+                if (logType != null) {
+                    // Only get the first <pre>...</pre>
+                    logTypeMap.put(logType, logs);
+                    logType = null;
+                }
+            }
+        }
+
+        return logTypeMap.getOrDefault(type, logs);
+    }
+
+    @NotNull
+    private static String readTag(@NotNull Reader reader) throws IOException {
+        final StringBuilder tag = new StringBuilder();
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            tag.append((char) ch);
+
+            if (ch == '>') {
+                final boolean isComment = tag.length() >= 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-' && tag.charAt(2) == '-';
+                if (!isComment || tag.length() >= 5 && tag.charAt(tag.length() - 2) == '-' && tag.charAt(tag.length() - 3) == '-') {
+                    tag.setLength(tag.length() - 1);
+                    break;
+                }
+            }
+        }
+
+        return tag.toString();
+    }
+
+    @NotNull
+    private static String getTagName(@NotNull String tag) {
+        int end = 0;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '/') {
+            end++;
+        }
+
+        return tag.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Read the text of a `<pre>` element until its end tag, ignoring the markup inside
+     */
+    @NotNull
+    private static String readPreformattedText(@NotNull Reader reader) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (ch != '<') {
+                text.append((char) ch);
+                continue;
+            }
+
+            final String tag = readTag(reader);
+            if (tag.startsWith("/") && getTagName(tag.substring(1)).equals("pre")) {
+                break;
+            }
+        }
+
+        return text.toString();
+    }
+}
@@ -14,7 +14,6 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
-import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 public class YarnJobHttpHandler implements HttpHandler {
@@ -26,13 +25,19 @@ public class YarnJobHttpHandler implements HttpHandler {
         String path = requestDetail.getRequestPath();
         try {
             if (path.contains("/apps/app") && requestDetail.isSpecificApp()) {
-                App app = JobViewCacheManager.getYarnApp(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(app);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
+                String response = JobViewRequestCoalescer.fetch("apps/app", key, () -> {
+                    App app = JobViewCacheManager.getYarnApp(key);
+                    return ObjectConvertUtils.convertObjectToJsonString(app).orElseThrow(IOException::new);
+                });
+                JobUtils.setResponse(httpExchange, response);
             } else if (path.contains("/apps/logs") && requestDetail.isSpecificApp()) {
-                ApplicationMasterLogs logs = JobViewCacheManager.getYarnLogs(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
-                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(logs);
-                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+                ApplicationKey key = new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId());
+                String response = JobViewRequestCoalescer.fetch("apps/logs", key, () -> {
+                    ApplicationMasterLogs logs = JobViewCacheManager.getYarnLogs(key);
+                    return ObjectConvertUtils.convertObjectToJsonString(logs).orElseThrow(IOException::new);
+                });
+                JobUtils.setResponse(httpExchange, response);
             }
         } catch (ExecutionException e) {
             JobUtils.setResponse(httpExchange, e.getMessage(), 500);
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.run;
+
+import com.microsoft.azure.hdinsight.spark.jobs.SparkMetricsSample;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+
+public class SparkBatchJobMetricsEvent implements SparkBatchJobSubmissionEvent {
+    @NotNull
+    private final SparkMetricsSample sample;
+
+    public SparkBatchJobMetricsEvent(@NotNull SparkMetricsSample sample) {
+        this.sample = sample;
+    }
+
+    @NotNull
+    public SparkMetricsSample getSample() {
+        return sample;
+    }
+}
@@ -18,6 +18,7 @@ import org.apache.commons.io.output.NullOutputStream;
 import rx.Observable;
 import rx.Subscription;
 import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -26,6 +27,9 @@ import java.util.Arrays;
 import java.util.Optional;
 
 public class SparkBatchJobRemoteProcess extends Process implements ILogger {
+    // The interval of the metrics sampling enabled by the Spark batch run configurations and the Eclipse job submission
+    public static final long DEFAULT_METRICS_SAMPLE_INTERVAL_MILLIS = 5000;
+
     @NotNull
     private final IdeSchedulers schedulers;
     @NotNull
@@ -40,10 +44,17 @@ public class SparkBatchJobRemoteProcess extends Process implements ILogger {
     private final SparkJobLogInputStream jobStderrLogInputSteam;
     @Nullable
     private Subscription jobSubscription;
+    @Nullable
+    private Subscription metricsSubscription;
+    // The interval to sample the running job metrics, 0 to disable. Disabled by default, since every sample takes
+    // several Spark REST API requests
+    private long metricsSampleIntervalMillis = 0;
     @NotNull
     private final ISparkBatchJob sparkJob;
     @NotNull
-    private final PublishSubject<SparkBatchJobSubmissionEvent> eventSubject = PublishSubject.create();
+    // Serialized, since the events are emitted from the job, the metrics receiver and the UI threads
+    private final Subject<SparkBatchJobSubmissionEvent, SparkBatchJobSubmissionEvent> eventSubject =
+            PublishSubject.<SparkBatchJobSubmissionEvent>create().toSerialized();
     private boolean isDestroyed = false;
 
     private boolean isDisconnected;
@@ -147,7 +158,9 @@ public class SparkBatchJobRemoteProcess extends Process implements ILogger {
                 .flatMap(this::submitJob)
                 .flatMap(this::awaitForJobStarted)
                 .flatMap(this::attachInputStreams)
+                .doOnNext(this::startMetricsReceiver)
                 .flatMap(this::awaitForJobDone)
+                .doOnEach(notification -> stopMetricsReceiver())
                 // Fetch remaining Livy logs if error happens at job submission stage
                 .doOnError(err -> startJobSubmissionLogReceiver(getSparkJob()))
                 .subscribe(sdPair -> {
@@ -187,11 +200,44 @@ public class SparkBatchJobRemoteProcess extends Process implements ILogger {
             this.eventSubject.onCompleted();
 
             this.getJobSubscription().ifPresent(Subscription::unsubscribe);
+            stopMetricsReceiver();
+        }
+    }
+
+    public long getMetricsSampleIntervalMillis() {
+        return metricsSampleIntervalMillis;
+    }
+
+    /**
+     * Enable the metrics sampling of the running job, the samples are emitted as {@link SparkBatchJobMetricsEvent}s
+     *
+     * @param metricsSampleIntervalMillis the sample interval, 0 to disable, which should be set before the job starts
+     */
+    public void setMetricsSampleIntervalMillis(long metricsSampleIntervalMillis) {
+        this.metricsSampleIntervalMillis = metricsSampleIntervalMillis;
+    }
+
+    // Push the changed metrics of the running job to the job views until the job is done
+    private synchronized void startMetricsReceiver(@NotNull ISparkBatchJob job) {
+        if (metricsSampleIntervalMillis <= 0 || metricsSubscription != null) {
+            return;
+        }
+
+        metricsSubscription = job.getMetrics(metricsSampleIntervalMillis)
+                .subscribe(
+                        sample -> eventSubject.onNext(new SparkBatchJobMetricsEvent(sample)),
+                        err -> log().warn("Got error when getting Spark batch job metrics", err));
+    }
+
+    private synchronized void stopMetricsReceiver() {
+        if (metricsSubscription != null) {
+            metricsSubscription.unsubscribe();
+            metricsSubscription = null;
         }
     }
 
     @NotNull
-    public PublishSubject<SparkBatchJobSubmissionEvent> getEventSubject() {
+    public Subject<SparkBatchJobSubmissionEvent, SparkBatchJobSubmissionEvent> getEventSubject() {
         return eventSubject;
     }
 
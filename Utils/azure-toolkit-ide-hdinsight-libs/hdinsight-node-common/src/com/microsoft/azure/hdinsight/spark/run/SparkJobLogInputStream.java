@@ -11,6 +11,7 @@ import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Optional;
 
@@ -65,9 +66,10 @@ public class SparkJobLogInputStream extends InputStream {
         if (bufferPos >= buffer.length) {
             return fetchLog(offset, -1)
                     .map(sliceOffsetPair -> {
-                        buffer = sliceOffsetPair.getKey().getBytes();
+                        // The log offset is in bytes of the log file
+                        buffer = sliceOffsetPair.getKey().getBytes(StandardCharsets.UTF_8);
                         bufferPos = 0;
-                        offset = sliceOffsetPair.getValue() + sliceOffsetPair.getKey().length();
+                        offset = sliceOffsetPair.getValue() + buffer.length;
 
                         return buffer.length;
                     }).orElseGet(() -> {
@@ -12,6 +12,7 @@ import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.action.IActionGroup;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
 import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
 import com.microsoft.azure.toolkit.lib.common.utils.TailingDebouncer;
 import com.microsoft.azure.toolkit.lib.common.view.IView;
@@ -23,6 +24,8 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.*;
 import java.util.stream.Collectors;
@@ -77,8 +80,10 @@ public class Node<D> {
     private final AtomicReference<View> view = new AtomicReference<>();
     private final Debouncer refreshViewLater = new TailingDebouncer(this::refreshView, 500);
     private final Debouncer refreshChildrenLater = new TailingDebouncer(this::refreshChildren, 500);
-    @Nullable
-    private Boolean resetChildrenLater; // for debouncing `refreshChildren`
+    // for debouncing `refreshChildren`, null if no refresh is pending, true if any pending refresh is not incremental
+    private final AtomicReference<Boolean> resetChildrenLater = new AtomicReference<>();
+    private final AtomicLong childrenRefreshSequence = new AtomicLong();
+    private long appliedChildrenRefreshSequence = 0; // guarded by `this`
 
     public Node(@Nonnull D value) {
         this.value = value;
@@ -286,15 +291,40 @@ public class Node<D> {
     }
 
     @AzureOperation(value = "internal/$resource.list_children.node", params = "this.getLabel()", source = "this.getValue()")
-    protected synchronized void refreshChildren() {
-        final boolean incremental = BooleanUtils.isFalse(this.resetChildrenLater);
+    protected void refreshChildren() {
+        final long start = System.nanoTime();
+        final long sequence = this.childrenRefreshSequence.incrementAndGet();
+        final boolean incremental = BooleanUtils.isFalse(this.resetChildrenLater.getAndSet(null));
         this.view.compareAndSet(null, new View(AzureIcons.Common.REFRESH_ICON, this.buildLabel()));
         this.view.get().setIcon(AzureIcons.Common.REFRESH_ICON);
         this.rerenderView();
-        this.children.set(this.buildChildren());
+        // children are built (with remote calls) without holding the monitor, only the swap is synchronized.
+        final List<Node<?>> newChildren = this.buildChildren();
+        final NodeChildrenDiff diff;
+        synchronized (this) {
+            if (sequence < this.appliedChildrenRefreshSequence) {
+                // a later refresh has been applied, the children built here are outdated.
+                final Set<Node<?>> current = Collections.newSetFromMap(new IdentityHashMap<>());
+                current.addAll(Optional.ofNullable(this.children.get()).orElse(Collections.emptyList()));
+                newChildren.stream().filter(c -> !current.contains(c)).forEach(Node::dispose);
+                return;
+            }
+            this.appliedChildrenRefreshSequence = sequence;
+            final List<Node<?>> oldChildren = Optional.ofNullable(this.children.get()).orElse(Collections.emptyList());
+            diff = incremental ? NodeChildrenDiff.diff(oldChildren, newChildren) : NodeChildrenDiff.reset(oldChildren, newChildren);
+            this.children.set(diff.getChildren());
+        }
+        diff.getDiscarded().forEach(Node::dispose);
         this.rerenderChildren(incremental);
         this.view.set(this.buildView());
         this.rerenderView();
+        final OperationContext context = OperationContext.current();
+        context.setTelemetryProperty("incremental", String.valueOf(incremental));
+        context.setTelemetryProperty("children", String.valueOf(diff.getChildren().size()));
+        context.setTelemetryProperty("addedChildren", String.valueOf(diff.getAdded()));
+        context.setTelemetryProperty("removedChildren", String.valueOf(diff.getRemoved()));
+        context.setTelemetryProperty("changedChildren", String.valueOf(diff.getChanged()));
+        context.setTelemetryProperty("refreshChildrenTimeMs", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
     }
 
     protected synchronized void refreshView() {
@@ -306,7 +336,8 @@ public class Node<D> {
     }
 
     public void refreshChildrenLater(boolean... incremental) {
-        this.resetChildrenLater = BooleanUtils.isTrue(this.resetChildrenLater) || Objects.isNull(incremental) || incremental.length < 1 || !incremental[0];
+        final boolean reset = Objects.isNull(incremental) || incremental.length < 1 || !incremental[0];
+        this.resetChildrenLater.accumulateAndGet(reset, (pending, r) -> BooleanUtils.isTrue(pending) || r);
         this.refreshChildrenLater.debounce();
     }
 
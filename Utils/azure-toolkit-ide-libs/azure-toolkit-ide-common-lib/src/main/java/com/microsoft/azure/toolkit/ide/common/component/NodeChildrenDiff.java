@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.ide.common.component;
+
+import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the difference between the old and the newly built children of a {@link Node}, matched by resource id.
+ * unchanged children keep their old node instances, so that their views and loaded children are reused by renderers.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class NodeChildrenDiff {
+    @Nonnull
+    private final List<Node<?>> children;
+    /**
+     * the newly built nodes replaced by the unchanged old ones, should be disposed
+     */
+    @Nonnull
+    private final List<Node<?>> discarded;
+    private final int added;
+    private final int removed;
+    private final int changed;
+
+    @Nonnull
+    static NodeChildrenDiff reset(@Nonnull List<Node<?>> oldChildren, @Nonnull List<Node<?>> newChildren) {
+        return new NodeChildrenDiff(newChildren, new ArrayList<>(), newChildren.size(), oldChildren.size(), 0);
+    }
+
+    @Nonnull
+    static NodeChildrenDiff diff(@Nonnull List<Node<?>> oldChildren, @Nonnull List<Node<?>> newChildren) {
+        final Map<Object, List<Node<?>>> oldChildrenByKey = new HashMap<>();
+        oldChildren.forEach(c -> oldChildrenByKey.computeIfAbsent(getKey(c), k -> new LinkedList<>()).add(c));
+
+        final List<Node<?>> children = new ArrayList<>(newChildren.size());
+        final List<Node<?>> discarded = new ArrayList<>();
+        int added = 0;
+        int changed = 0;
+        for (final Node<?> child : newChildren) {
+            final List<Node<?>> candidates = oldChildrenByKey.get(getKey(child));
+            if (candidates == null || candidates.isEmpty()) {
+                added++;
+                children.add(child);
+                continue;
+            }
+            final Node<?> unchanged = removeEqual(candidates, child);
+            if (unchanged != null) {
+                children.add(unchanged);
+                if (unchanged != child) {
+                    discarded.add(child);
+                }
+            } else {
+                // same resource with different value or label, replace the old one.
+                candidates.remove(0);
+                changed++;
+                children.add(child);
+            }
+        }
+        final int removed = oldChildrenByKey.values().stream().mapToInt(List::size).sum();
+        return new NodeChildrenDiff(children, discarded, added, removed, changed);
+    }
+
+    private static Node<?> removeEqual(@Nonnull List<Node<?>> candidates, @Nonnull Node<?> child) {
+        final Iterator<Node<?>> iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            final Node<?> candidate = iterator.next();
+            if (candidate.equals(child)) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Nonnull
+    private static Object getKey(@Nonnull Node<?> node) {
+        final Object value = node.getValue();
+        if (value instanceof AzResource && StringUtils.isNotBlank(((AzResource) value).getId())) {
+            // resource ids are case-insensitive
+            return new AbstractMap.SimpleImmutableEntry<>(AzResource.class, StringUtils.lowerCase(((AzResource) value).getId()));
+        }
+        return value;
+    }
+}
@@ -6,35 +6,61 @@
 package com.microsoft.azure.toolkit.ide.common.portforwarder;
 
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.WebSocket;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractPortForwarder {
+    // okhttp holds a dispatcher slot for the whole life of a web socket, so the default 5 per host is far from enough.
+    private static final int MAX_WEB_SOCKETS = 256;
+    private static final int MAX_WEB_SOCKETS_PER_HOST = 64;
+    private static final OkHttpClient HTTP_CLIENT;
+
+    static {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_WEB_SOCKETS);
+        dispatcher.setMaxRequestsPerHost(MAX_WEB_SOCKETS_PER_HOST);
+        HTTP_CLIENT = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+    }
+
     protected ServerSocketChannel server;
+    /**
+     * the listener of the latest local connection
+     */
     protected PortForwarderWebSocketListener listener;
+    private final Set<PortForwarderWebSocketListener> listeners = ConcurrentHashMap.newKeySet();
 
     public void initLocalSocket(final int port) throws IOException {
         stopForward();
         this.server = ServerSocketChannel.open().bind(new InetSocketAddress(port));
+        this.server.configureBlocking(false);
     }
 
+    /**
+     * start accepting the local connections on the shared pump thread and forwarding each of them through a new web socket,
+     * until {@link #stopForward()} is called.
+     */
     public void startForward(final int localPort) {
         try {
-            if (Objects.isNull(this.server)) {
+            if (Objects.isNull(this.server) || !this.server.isOpen()) {
                 initLocalSocket(localPort);
             }
-            final OkHttpClient okHttpClient = new OkHttpClient();
-            this.listener = createWebSocketListener(server.accept());
-            final CompletableFuture<WebSocket> future = createSocketBuilder(okHttpClient).buildAsync(listener);
-            future.whenComplete((socket, throwable) -> Optional.ofNullable(throwable).ifPresent(t -> listener.onError(socket, t)));
+            final ServerSocketChannel server = this.server;
+            PortForwarderPump.getInstance().register(server, SelectionKey.OP_ACCEPT, (key, ignore) -> this.accept(server));
         } catch (final IOException e) {
             stopForward();
             throw new AzureToolkitRuntimeException("Unable to start debugging.", e);
@@ -49,8 +75,52 @@ public abstract class AbstractPortForwarder {
                 throw new AzureToolkitRuntimeException(e);
             }
         }
-        if (Objects.nonNull(listener) && listener.isAlive()) {
+        this.listeners.stream().filter(PortForwarderWebSocketListener::isAlive).forEach(PortForwarderWebSocketListener::closeForwarder);
+        this.listeners.clear();
+    }
+
+    /**
+     * @return the bytes forwarded by all the forwarders and the times their local reading is paused for back pressure
+     */
+    public static Map<String, Long> getStatistics() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        try {
+            final PortForwarderPump pump = PortForwarderPump.getInstance();
+            result.put("sentBytes", pump.getSentBytes());
+            result.put("receivedBytes", pump.getReceivedBytes());
+            result.put("throttles", pump.getThrottles());
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(e);
+        }
+        return result;
+    }
+
+    void onListenerClosed(final PortForwarderWebSocketListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void accept(final ServerSocketChannel server) throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            final SocketChannel accepted = channel;
+            // creating the web socket may block to get the access token, which should not happen on the pump thread.
+            AzureTaskManager.getInstance().runOnPooledThread(() -> this.forward(accepted));
+        }
+    }
+
+    private void forward(final SocketChannel channel) {
+        final PortForwarderWebSocketListener listener = createWebSocketListener(channel);
+        this.listener = listener;
+        this.listeners.add(listener);
+        if (!this.server.isOpen()) { // stopped in the meantime
             listener.closeForwarder();
+            return;
+        }
+        try {
+            final CompletableFuture<WebSocket> future = createSocketBuilder(HTTP_CLIENT).buildAsync(listener);
+            future.whenComplete((socket, throwable) -> Optional.ofNullable(throwable).ifPresent(t -> listener.onError(socket, t)));
+        } catch (final RuntimeException e) {
+            listener.onError(null, e);
         }
     }
 
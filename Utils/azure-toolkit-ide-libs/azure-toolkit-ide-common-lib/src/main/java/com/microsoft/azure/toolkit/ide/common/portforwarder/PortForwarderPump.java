@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ *  Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.ide.common.portforwarder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * one selector thread shared by all the port forwarders, which accepts the local connections and pumps their data to the
+ * remote web sockets, so that the forwarders don't need a thread (and a sleep loop) per local connection.
+ */
+@Slf4j
+final class PortForwarderPump implements Runnable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_INTERVAL_MILLIS = 10;
+    private static PortForwarderPump instance;
+
+    private final Selector selector;
+    /**
+     * the direct buffer reused for every read, the data is copied only once into the web socket frame.
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final List<BooleanSupplier> polls = new CopyOnWriteArrayList<>();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder throttles = new LongAdder();
+
+    interface Handler {
+        void onReady(@Nonnull SelectionKey key, @Nonnull ByteBuffer buffer) throws IOException;
+    }
+
+    private PortForwarderPump() throws IOException {
+        this.selector = Selector.open();
+    }
+
+    @Nonnull
+    static synchronized PortForwarderPump getInstance() throws IOException {
+        if (instance == null) {
+            instance = new PortForwarderPump();
+            final Thread thread = new Thread(instance, "azure-port-forwarder-pump");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return instance;
+    }
+
+    /**
+     * register the {@code channel} to the selector, the {@code handler} is always called on the selector thread.
+     */
+    void register(@Nonnull SelectableChannel channel, int ops, @Nonnull Handler handler) {
+        this.execute(() -> {
+            try {
+                channel.register(this.selector, ops, handler);
+            } catch (final ClosedChannelException e) {
+                log.debug("channel is closed before registered.", e);
+            }
+        });
+    }
+
+    /**
+     * run the {@code task} on the selector thread, e.g. to change the interest ops of a key.
+     */
+    void execute(@Nonnull Runnable task) {
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    /**
+     * call {@code poll} on the selector thread every {@link #POLL_INTERVAL_MILLIS} until it returns true, e.g. to resume
+     * the reading after the web socket queue is drained, since okhttp doesn't notify that.
+     */
+    void poll(@Nonnull BooleanSupplier poll) {
+        this.execute(() -> this.polls.add(poll));
+    }
+
+    @Nonnull
+    Selector getSelector() {
+        return this.selector;
+    }
+
+    long getSentBytes() {
+        return this.sentBytes.sum();
+    }
+
+    long getReceivedBytes() {
+        return this.receivedBytes.sum();
+    }
+
+    long getThrottles() {
+        return this.throttles.sum();
+    }
+
+    void onSent(long bytes) {
+        this.sentBytes.add(bytes);
+    }
+
+    void onReceived(long bytes) {
+        this.receivedBytes.add(bytes);
+    }
+
+    void onThrottled() {
+        this.throttles.increment();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                this.selector.select(this.polls.isEmpty() ? 0 : POLL_INTERVAL_MILLIS);
+                Runnable task;
+                while ((task = this.tasks.poll()) != null) {
+                    task.run();
+                }
+                final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+                this.polls.removeIf(BooleanSupplier::getAsBoolean);
+            } catch (final Throwable t) { // keep the shared pump alive for the other forwarders.
+                log.warn("error occurs when pumping port forwarding data.", t);
+            }
+        }
+    }
+
+    private void handle(@Nonnull SelectionKey key) {
+        try {
+            if (key.isValid()) {
+                ((Handler) key.attachment()).onReady(key, this.readBuffer);
+            }
+        } catch (final CancelledKeyException ignored) {
+            // closed by the other threads while handling.
+        } catch (final IOException e) {
+            log.debug("error occurs when handling selected channel.", e);
+            key.cancel();
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.ide.common.portforwarder;
 
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
@@ -15,34 +16,48 @@ import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.WritableByteChannel;
-import java.nio.charset.StandardCharsets;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BooleanSupplier;
 
+/**
+ * forwards the data of one local connection to a remote web socket and back.
+ * the local channel is pumped by the shared {@link PortForwarderPump} if it's selectable, and the reading is paused while
+ * the web socket queue is over {@link #MAX_QUEUED_BYTES}. the remote data is written on the okhttp reader thread, which
+ * parks while over {@link #MAX_PENDING_BYTES} are not yet accepted by the local channel.
+ */
 public class PortForwarderWebSocketListener extends WebSocketListener {
+    protected static final long MAX_QUEUED_BYTES = 1024 * 1024;
+    protected static final long RESUME_QUEUED_BYTES = 256 * 1024;
+    protected static final long MAX_PENDING_BYTES = 1024 * 1024;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     protected volatile boolean opened;
-    protected boolean more = true;
-    protected final ReentrantLock lock = new ReentrantLock();
-    protected final Condition moreRequested;
     protected final CompletableFuture<WebSocket> future;
-    protected final ExecutorService pumperService = Executors.newSingleThreadExecutor();
     protected final AtomicBoolean alive = new AtomicBoolean(true);
     protected final ReadableByteChannel in;
     protected final WritableByteChannel out;
     protected final AbstractPortForwarder forwarder;
+    /**
+     * the remote data not yet accepted by the non-blocking local channel, written by the pump once it's writable.
+     */
+    private final Queue<ByteBuffer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private volatile SelectionKey writeKey;
 
     public PortForwarderWebSocketListener(ReadableByteChannel in, WritableByteChannel out, AbstractPortForwarder forwarder) {
         this.in = in;
         this.out = out;
         this.forwarder = forwarder;
         this.future = new CompletableFuture<>();
-        this.moreRequested = this.lock.newCondition();
     }
 
     public CompletableFuture<WebSocket> getFuture() {
@@ -55,11 +70,7 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
             response.close();
         }
         if (!this.opened) {
-            if (response != null) {
-                future.completeExceptionally(t);
-            } else {
-                future.completeExceptionally(t);
-            }
+            future.completeExceptionally(t);
         } else {
             this.onError(webSocket, t);
         }
@@ -71,39 +82,32 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
         if (response != null) {
             response.close();
         }
-        if (this.in != null) {
-            this.pumperService.execute(() -> {
-                try {
-                    pipe(this.in, webSocket, this.alive::get);
-                } catch (final InterruptedException | IOException e) {
-                    if (e instanceof InterruptedException) {
-                        Thread.currentThread().interrupt();
-                    }
-                    if (this.alive.get()) {
-                        this.closeWebSocket(webSocket, 1001, "Client error");
-                        AzureMessager.getMessager().error(e, "Error while forwarding data from client to remote.");
-                    }
-                }
-            });
+        try {
+            if (this.in instanceof SelectableChannel) {
+                final SelectableChannel channel = (SelectableChannel) this.in;
+                channel.configureBlocking(false);
+                PortForwarderPump.getInstance().register(channel, SelectionKey.OP_READ, (key, buffer) -> this.onReady(webSocket, key, buffer));
+            } else if (this.in != null) {
+                AzureTaskManager.getInstance().runOnPooledThread(() -> this.pipeQuietly(webSocket));
+            }
+        } catch (final IOException e) {
+            this.onPumpError(webSocket, e);
         }
         future.complete(webSocket);
     }
 
     @Override
-    public void onMessage(WebSocket webSocket, String text) {
-        this.awaitMoreRequest();
-        this.writeMessage(webSocket, ByteString.of(text.getBytes(StandardCharsets.UTF_8)));
+    public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+        this.writeMessage(webSocket, ByteString.encodeUtf8(text));
     }
 
     @Override
-    public void onMessage(WebSocket webSocket, ByteString bytes) {
-        this.awaitMoreRequest();
+    public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) {
         this.writeMessage(webSocket, bytes);
     }
 
     @Override
-    public void onClosing(WebSocket webSocket, int code, String reason) {
-        this.awaitMoreRequest();
+    public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
         if (this.alive.get()) {
             this.closeForwarder();
             this.future.cancel(true);
@@ -121,16 +125,6 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
         return this.alive.get();
     }
 
-    protected void request() {
-        this.lock.lock();
-        try {
-            this.more = true;
-            this.moreRequested.signalAll();
-        } finally {
-            this.lock.unlock();
-        }
-    }
-
     protected void closeWebSocket(WebSocket webSocket, int code, String message) {
         this.alive.set(false);
         try {
@@ -141,6 +135,10 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
         this.closeForwarder();
     }
 
+    /**
+     * close the local connection of this listener only, the forwarder keeps accepting the other local connections
+     * until it's stopped.
+     */
     protected void closeForwarder() {
         this.alive.set(false);
         if (this.in != null) {
@@ -157,19 +155,25 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
                 AzureMessager.getMessager().error(e, "Error while stop debugger.");
             }
         }
-        this.forwarder.stopForward();
-        this.pumperService.shutdownNow();
+        this.pending.clear();
+        this.forwarder.onListenerClosed(this);
     }
 
+    /**
+     * blocking pump for the local channels that are not selectable.
+     */
     protected void pipe(ReadableByteChannel in, WebSocket webSocket, BooleanSupplier isAlive) throws IOException, InterruptedException {
         final ByteBuffer buffer = ByteBuffer.allocate(4096);
         int read;
         do {
+            while (webSocket.queueSize() > MAX_QUEUED_BYTES && isAlive.getAsBoolean()) {
+                Thread.sleep(1L);
+            }
             buffer.clear();
             read = readMessage(in, buffer);
             if (read > 0) {
                 buffer.flip();
-                webSocket.send(ByteString.of(buffer));
+                this.send(webSocket, buffer);
             } else if (read == 0) {
                 Thread.sleep(50L);
             }
@@ -180,44 +184,146 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
         return channel.read(buffer);
     }
 
-    protected void awaitMoreRequest() {
-        this.lock.lock();
+    /**
+     * write the remote data to the local channel, called on the okhttp reader thread in the order of the messages.
+     * {@code bytes} is immutable, so its buffer view is queued as is when the local channel can't take it all at once.
+     */
+    protected void writeMessage(WebSocket webSocket, ByteString bytes) {
+        if (this.out == null) {
+            return;
+        }
+        final ByteBuffer buffer = bytes.asByteBuffer();
         try {
-            while (!this.more) {
-                this.moreRequested.await();
+            PortForwarderPump.getInstance().onReceived(buffer.remaining());
+            if (this.pending.isEmpty()) {
+                this.out.write(buffer);
+            }
+            if (buffer.hasRemaining()) {
+                this.enqueue(webSocket, buffer);
+            }
+            while (this.pendingBytes.get() > MAX_PENDING_BYTES && this.alive.get()) {
+                LockSupport.parkNanos(PARK_NANOS); // back pressure to the remote by not reading the web socket.
+            }
+        } catch (final IOException e) {
+            if (this.alive.get()) {
+                this.closeWebSocket(webSocket, 1002, "Protocol error");
+                AzureMessager.getMessager().error(e, "Error while forwarding data from remote to client.");
             }
-            this.more = false;
-        } catch (final InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
-            this.lock.unlock();
         }
     }
 
-    protected void writeMessage(WebSocket webSocket, ByteString bytes) {
-        final ByteBuffer buffer = bytes.asByteBuffer();
-        if (this.out != null) {
-            while (true) {
-                try {
-                    if (buffer.hasRemaining()) {
-                        final int written = this.out.write(buffer);
-                        if (written == 0) {
-                            Thread.sleep(50L);
-                        }
-                        continue;
-                    }
-                    this.request();
-                } catch (final InterruptedException | IOException e) {
-                    if (e instanceof InterruptedException) {
-                        Thread.currentThread().interrupt();
-                    }
-                    if (this.alive.get()) {
-                        this.closeWebSocket(webSocket, 1002, "Protocol error");
-                        AzureMessager.getMessager().error(e, "Error while forwarding data from remote to client.");
-                    }
+    private void enqueue(WebSocket webSocket, ByteBuffer buffer) throws IOException {
+        this.pendingBytes.addAndGet(buffer.remaining());
+        this.pending.add(buffer);
+        if (!(this.out instanceof SelectableChannel)) { // blocking channel, write it all here.
+            this.flush();
+            return;
+        }
+        final PortForwarderPump pump = PortForwarderPump.getInstance();
+        if (this.writeKey != null) {
+            pump.execute(() -> this.interestWrite(this.writeKey));
+        } else if (this.out != this.in) {
+            pump.register((SelectableChannel) this.out, SelectionKey.OP_WRITE, (key, ignore) -> this.onReady(webSocket, key, ignore));
+        } else {
+            pump.execute(() -> {
+                final SelectionKey key = ((SelectableChannel) this.out).keyFor(pump.getSelector());
+                this.writeKey = key;
+                this.interestWrite(key);
+            });
+        }
+    }
+
+    private void interestWrite(SelectionKey key) {
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * called on the pump thread when the local channel is readable or writable.
+     */
+    private void onReady(WebSocket webSocket, SelectionKey key, ByteBuffer buffer) {
+        try {
+            if (key.isWritable()) {
+                this.writeKey = key;
+                if (this.flush()) {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
                 }
-                return;
             }
+            if (key.isValid() && key.isReadable()) {
+                this.pump(webSocket, key, buffer);
+            }
+        } catch (final IOException e) {
+            this.onPumpError(webSocket, e);
+        }
+    }
+
+    /**
+     * @return true if all the pending data is written
+     */
+    private boolean flush() throws IOException {
+        ByteBuffer head;
+        while ((head = this.pending.peek()) != null) {
+            final int written = this.out.write(head);
+            this.pendingBytes.addAndGet(-written);
+            if (head.hasRemaining()) {
+                return false;
+            }
+            this.pending.poll();
+        }
+        return true;
+    }
+
+    private void pump(WebSocket webSocket, SelectionKey key, ByteBuffer buffer) throws IOException {
+        if (webSocket.queueSize() > MAX_QUEUED_BYTES) {
+            final PortForwarderPump pump = PortForwarderPump.getInstance();
+            pump.onThrottled();
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            pump.poll(() -> {
+                if (!key.isValid() || !this.alive.get()) {
+                    return true;
+                }
+                if (webSocket.queueSize() <= RESUME_QUEUED_BYTES) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    return true;
+                }
+                return false;
+            });
+            return;
+        }
+        buffer.clear();
+        final int read = readMessage(this.in, buffer);
+        if (read > 0) {
+            buffer.flip();
+            this.send(webSocket, buffer);
+        } else if (read < 0 && this.alive.get()) {
+            this.closeWebSocket(webSocket, 1000, "Client disconnected");
+        }
+    }
+
+    private void send(WebSocket webSocket, ByteBuffer buffer) throws IOException {
+        final int size = buffer.remaining();
+        if (!webSocket.send(ByteString.of(buffer))) {
+            throw new IOException("web socket is closed or its queue is full.");
+        }
+        PortForwarderPump.getInstance().onSent(size);
+    }
+
+    private void pipeQuietly(WebSocket webSocket) {
+        try {
+            pipe(this.in, webSocket, this.alive::get);
+        } catch (final InterruptedException | IOException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            this.onPumpError(webSocket, e);
+        }
+    }
+
+    private void onPumpError(WebSocket webSocket, Exception e) {
+        if (this.alive.get()) {
+            this.closeWebSocket(webSocket, 1001, "Client error");
+            AzureMessager.getMessager().error(e, "Error while forwarding data from client to remote.");
         }
     }
 }
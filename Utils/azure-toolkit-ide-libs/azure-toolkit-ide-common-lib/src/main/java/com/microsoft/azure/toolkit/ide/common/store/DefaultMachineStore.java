@@ -7,21 +7,54 @@ package com.microsoft.azure.toolkit.ide.common.store;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * machine store backed by a json file. updates are applied to the in-memory map at once and written behind: the changes
+ * made within {@link #FLUSH_DELAY_MILLIS} are saved together in background, through a temp file which is then renamed to
+ * the data file, so that an interrupted write never leaves a corrupted store. {@link #flush()} should be called when the
+ * IDE is shutting down to save the pending changes. a failed save is retried in background with an increasing delay, up to
+ * {@link #MAX_RETRY_DELAY_MILLIS}.
+ */
+@Slf4j
 public class DefaultMachineStore implements IMachineStore {
+    private static final long FLUSH_DELAY_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
-    private String dataFile;
-    private Map<String, String> map = new HashMap<>();
+    private final String dataFile;
+    private final Map<String, String> map = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    /**
+     * the consecutive failures of the background saves, only accessed by the flusher thread
+     */
+    private int failures = 0;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "azure-machine-store-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public DefaultMachineStore(String dataFile) {
         this.dataFile = dataFile;
@@ -42,12 +75,10 @@ public class DefaultMachineStore implements IMachineStore {
 
     public void setProperty(@javax.annotation.Nullable String service, @Nonnull String key, @Nullable String value) {
         String hashKey = combineKey(service, key);
-        if (value == null) {
-            map.remove(hashKey);
-            return;
+        final String old = value == null ? map.remove(hashKey) : map.put(hashKey, value);
+        if (!StringUtils.equals(old, value) && dirty.compareAndSet(false, true)) {
+            flusher.schedule(this::flushQuietly, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
         }
-        map.put(hashKey, value);
-        save();
     }
 
     private static String combineKey(String service, String key) {
@@ -59,7 +90,10 @@ public class DefaultMachineStore implements IMachineStore {
             if (Files.exists(Paths.get(dataFile))) {
                 final String json = FileUtils.readFileToString(new File(dataFile), "utf8");
                 final TypeReference<HashMap<String, String>> type = new TypeReference<HashMap<String, String>>(){};
-                map = JsonUtils.fromJson(json, type);
+                final Map<String, String> loaded = Optional.ofNullable(JsonUtils.fromJson(json, type)).orElseGet(HashMap::new);
+                loaded.values().removeIf(Objects::isNull); // not accepted by concurrent map
+                map.clear();
+                map.putAll(loaded);
             }
         } catch (final AzureToolkitRuntimeException e) {
             throw e;
@@ -68,14 +102,47 @@ public class DefaultMachineStore implements IMachineStore {
         }
     }
 
-    public void save() {
+    /**
+     * save the pending changes at once, e.g. when the IDE is shutting down.
+     */
+    @Override
+    public void flush() {
+        if (dirty.get()) {
+            save();
+        }
+    }
+
+    public synchronized void save() {
+        // cleared before taking the snapshot, so that the changes made while saving are flushed again.
+        dirty.set(false);
         try {
-            FileUtils.writeStringToFile(new File(dataFile), JsonUtils.toJson(map), "utf8");
+            final Path file = Paths.get(dataFile).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, JsonUtils.toJson(new TreeMap<>(map)).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (final AzureToolkitRuntimeException e) {
+            dirty.set(true);
             throw e;
         } catch (Exception ex) {
+            dirty.set(true);
             throw new AzureToolkitRuntimeException("Cannot save property", ex);
         }
     }
 
+    private void flushQuietly() {
+        try {
+            flush();
+            failures = 0;
+        } catch (final AzureToolkitRuntimeException e) {
+            // still dirty, so the later changes don't schedule a flush, retry it here.
+            final long delay = Math.min(FLUSH_DELAY_MILLIS << Math.min(++failures, 16), MAX_RETRY_DELAY_MILLIS);
+            log.warn("failed to save machine store \"{}\", retry in {} ms.", dataFile, delay, e);
+            flusher.schedule(this::flushQuietly, delay, TimeUnit.MILLISECONDS);
+        }
+    }
 }
@@ -6,4 +6,9 @@
 package com.microsoft.azure.toolkit.ide.common.store;
 
 public interface IMachineStore extends IPropertyStore {
+    /**
+     * persist the pending changes if the store saves changes lazily.
+     */
+    default void flush() {
+    }
 }
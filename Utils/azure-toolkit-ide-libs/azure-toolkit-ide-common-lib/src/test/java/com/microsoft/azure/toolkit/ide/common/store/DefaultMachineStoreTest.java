@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.ide.common.store;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DefaultMachineStoreTest {
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void flushesChangesToFile() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("store.json");
+        final DefaultMachineStore store = new DefaultMachineStore(file.toString());
+        store.setProperty("account", "tenant", "tenant-0");
+        store.setProperty(null, "theme", "dark");
+        store.flush();
+
+        final DefaultMachineStore reloaded = new DefaultMachineStore(file.toString());
+        Assert.assertEquals("tenant-0", reloaded.getProperty("account", "tenant"));
+        Assert.assertEquals("dark", reloaded.getProperty(null, "theme"));
+        Assert.assertFalse(Files.exists(file.resolveSibling("store.json.tmp")));
+
+        store.setProperty(null, "theme", null);
+        store.flush();
+        Assert.assertNull(new DefaultMachineStore(file.toString()).getProperty(null, "theme"));
+    }
+
+    @Test
+    public void writesChangesBehind() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("store.json");
+        final DefaultMachineStore store = new DefaultMachineStore(file.toString());
+        store.setProperty("account", "tenant", "tenant-0");
+        store.setProperty("account", "tenant", "tenant-1");
+
+        waitUntilSaved(file, "account", "tenant", "tenant-1");
+    }
+
+    @Test
+    public void keepsChangesOfFailedWrite() throws Exception {
+        // the parent of the data file is a regular file, so the data file can not be written
+        final File blocker = folder.newFile("blocker");
+        final Path file = blocker.toPath().resolve("store.json");
+        final DefaultMachineStore store = new DefaultMachineStore(file.toString());
+        store.setProperty("account", "tenant", "tenant-0");
+        Assert.assertThrows(AzureToolkitRuntimeException.class, store::flush);
+
+        Assert.assertTrue(blocker.delete());
+        store.flush();
+        Assert.assertEquals("tenant-0", new DefaultMachineStore(file.toString()).getProperty("account", "tenant"));
+    }
+
+    @Test
+    public void retriesFailedWriteBehind() throws Exception {
+        final File blocker = folder.newFile("blocker");
+        final Path file = blocker.toPath().resolve("store.json");
+        final DefaultMachineStore store = new DefaultMachineStore(file.toString());
+        store.setProperty("account", "tenant", "tenant-0");
+        // the first background save fails after the flush delay, and is retried with a longer delay
+        Thread.sleep(1000);
+        Assert.assertFalse(Files.exists(file));
+
+        Assert.assertTrue(blocker.delete());
+        waitUntilSaved(file, "account", "tenant", "tenant-0");
+    }
+
+    private static void waitUntilSaved(Path file, String service, String key, String value) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!Files.exists(file) || !value.equals(new DefaultMachineStore(file.toString()).getProperty(service, key))) {
+            Assert.assertTrue("changes are not saved in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+    }
+}